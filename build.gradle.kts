@@ -7,6 +7,7 @@ plugins {
   id("org.openjfx.javafxplugin") version("0.1.0")
   id("com.github.hierynomus.license") version("0.16.1")
   id("org.ec4j.editorconfig") version("0.1.0")
+  id("me.champeau.jmh") version("0.7.2")
 }
 
 group = "io.ashisht.keystore_wiz"
@@ -66,6 +67,26 @@ tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
   )
 }
 
+tasks.register<JavaExec>("cli") {
+  group = "application"
+  description = "Runs the headless command line interface, e.g. ./gradlew cli --args=\"list my.jks\""
+  mainClass = "io.ashisht.keystore_wiz.keystore_wiz.cli.KeystoreWizCli"
+  classpath = sourceSets["main"].runtimeClasspath
+  standardInput = System.`in`
+}
+
+// Benchmarks in src/jmh, e.g. ./gradlew jmh -PjmhIncludes=KeystoreReadBenchmarks.loadKeystore
+jmh {
+  jmhVersion = "1.37"
+  includes = listOfNotNull(findProperty("jmhIncludes")?.toString())
+  fork = 1
+  warmupIterations = 3
+  iterations = 5
+  // Reports the allocation rate (gc.alloc.rate.norm, bytes per operation) next to each score
+  profilers = listOf("gc")
+  resultFormat = "JSON"
+}
+
 extra["year"] = Calendar.getInstance().get(Calendar.YEAR).toString()
 extra["name"] = "Ashish Thakur"
 extra["email"] = "ashish.thakur1110@gmail.com"
@@ -73,7 +94,7 @@ extra["email"] = "ashish.thakur1110@gmail.com"
 license {
   header = file("HEADER")
   strictCheck = true
-  excludePatterns = setOf("**/*.json", "**/*.xml", "**/*.properties", "**/*.fxml", "**/*.css", "**/*.js", "**/*.yaml", "**/*.yml", "src/test/**/*")
+  excludePatterns = setOf("**/*.json", "**/*.xml", "**/*.properties", "**/*.fxml", "**/*.css", "**/*.js", "**/*.py", "**/*.yaml", "**/*.yml", "src/test/**/*")
   ext {
     ext["year"] = extra["year"]
     ext["name"] = extra["name"]
@@ -0,0 +1,87 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportPlan;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of editing keystores. Every invocation is undone before the next one, so each
+ * measures an edit of a keystore of the given size and the undo history never grows past the
+ * base and the one edit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KeystoreEditBenchmarks {
+    private static final int IMPORT_SIZE = 100;
+
+    @Param({"JKS", "PKCS12"})
+    public String type;
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int size;
+
+    private KeystoreManager manager;
+    private Path bundle;
+    private String deletedAlias;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        manager = KeystoreFixtures.manager();
+        manager.loadKeystore(KeystoreFixtures.keystore(type, size).toString(), KeystoreFixtures.PASSWORD);
+        manager.getIndexing().join();
+        bundle = KeystoreFixtures.pemBundle(IMPORT_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void pickAlias() {
+        if (manager.canUndo() || manager.getHistorySize() > 2) {
+            throw new IllegalStateException("Undo history grew to " + manager.getHistorySize() + " snapshots");
+        }
+        deletedAlias = "cert-" + (next++ % size);
+    }
+
+    @TearDown(Level.Invocation)
+    public void undo() throws Exception {
+        manager.undo();
+    }
+
+    @Benchmark
+    public void deleteKeystoreEntry() throws Exception {
+        manager.deleteKeystoreEntry(deletedAlias);
+    }
+
+    /**
+     * Parses a PEM bundle of 100 new certificates, names and deduplicates them against the
+     * keystore and stores them.
+     */
+    @Benchmark
+    public ImportPlan importCertificates() throws Exception {
+        ImportPlan importPlan = manager.planImport(bundle);
+        manager.addCertificateEntries(importPlan.batch());
+        return importPlan;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Generated keystores and certificates for the benchmarks.
+ *
+ * <p>Generating 100k certificates takes a while, so keystores are written once to
+ * {@code build/jmh-fixtures} and reused by later runs. All certificates share one P-256 key and
+ * differ in their serial number and common name.
+ */
+final class KeystoreFixtures {
+    static final String PASSWORD = "changeit";
+
+    private static final Path DIRECTORY = Path.of("build", "jmh-fixtures");
+    private static final byte[] ECDSA_WITH_SHA256 = {0x06, 0x08, 0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x04, 0x03, 0x02};
+    private static final byte[] COMMON_NAME = {0x06, 0x03, 0x55, 0x04, 0x03};
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    private KeystoreFixtures() {
+    }
+
+    /**
+     * Returns a keystore file holding {@code size} certificate entries named {@code cert-0} onwards,
+     * generating it on first use.
+     *
+     * @param type The keystore type, {@code JKS} or {@code PKCS12}.
+     * @param size The number of certificate entries.
+     * @return The keystore file, protected with {@link #PASSWORD}.
+     */
+    static Path keystore(String type, int size) throws IOException, GeneralSecurityException {
+        Path file = DIRECTORY.resolve(type.toLowerCase() + "-" + size + ".ks");
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        KeyStore keystore = KeyStore.getInstance(type);
+        keystore.load(null, null);
+        List<X509Certificate> certificates = certificates("cert", 0, size);
+        for (int i = 0; i < size; i++) {
+            keystore.setCertificateEntry("cert-" + i, certificates.get(i));
+        }
+        Files.createDirectories(DIRECTORY);
+        Path temp = Files.createTempFile(DIRECTORY, type, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            keystore.store(out, PASSWORD.toCharArray());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    /**
+     * Returns a PEM bundle of {@code size} certificates not in any keystore fixture, generating it on first use.
+     */
+    static Path pemBundle(int size) throws IOException {
+        Path file = DIRECTORY.resolve("import-" + size + ".pem");
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        StringBuilder pem = new StringBuilder();
+        Base64.Encoder encoder = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII));
+        try {
+            for (X509Certificate certificate : certificates("import", 0, size)) {
+                pem.append("-----BEGIN CERTIFICATE-----\n")
+                        .append(encoder.encodeToString(certificate.getEncoded()))
+                        .append("\n-----END CERTIFICATE-----\n");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        Files.createDirectories(DIRECTORY);
+        Files.writeString(file, pem);
+        return file;
+    }
+
+    /**
+     * Generates certificates with the common names {@code <prefix>-<from>} onwards, in parallel.
+     */
+    static List<X509Certificate> certificates(String prefix, int from, int count) {
+        return IntStream.range(from, from + count).parallel()
+                .mapToObj(i -> certificate(prefix + "-" + i, BigInteger.valueOf(i + 1L)))
+                .toList();
+    }
+
+    private static X509Certificate certificate(String commonName, BigInteger serial) {
+        try {
+            byte[] name = der(0x30, der(0x31, der(0x30, COMMON_NAME,
+                    der(0x0C, commonName.getBytes(StandardCharsets.UTF_8)))));
+            Instant notBefore = Instant.parse("2025-01-01T00:00:00Z");
+            byte[] tbsCertificate = der(0x30,
+                    der(0xA0, der(0x02, new byte[]{2})),
+                    der(0x02, serial.toByteArray()),
+                    der(0x30, ECDSA_WITH_SHA256),
+                    name,
+                    der(0x30, utcTime(notBefore), utcTime(notBefore.plus(Duration.ofDays(365L * 10)))),
+                    name,
+                    KEY_PAIR.getPublic().getEncoded());
+            Signature signature = Signature.getInstance("SHA256withECDSA");
+            signature.initSign(KEY_PAIR.getPrivate());
+            signature.update(tbsCertificate);
+            byte[] signatureValue = signature.sign();
+            byte[] bitString = new byte[signatureValue.length + 1];
+            System.arraycopy(signatureValue, 0, bitString, 1, signatureValue.length);
+            byte[] encoded = der(0x30, tbsCertificate, der(0x30, ECDSA_WITH_SHA256), der(0x03, bitString));
+            return (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a manager configured like the application, with background indexing, the edit
+     * journal and the metadata cache disabled so that each benchmark measures only its own operation.
+     */
+    static KeystoreManager manager() {
+        return new KeystoreManager(1024, 0, 2048, "jca", "", 64, "{cn}-{sha256:8}", false, false, 100, 0,
+                new OperationMetrics(256));
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] utcTime(Instant instant) {
+        return der(0x17, UTC_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] der(int tag, byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int octets = (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | octets);
+            for (int i = octets - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of opening, listing and serializing keystores. Run with {@code ./gradlew jmh}; the
+ * {@code gc} profiler reports the allocation rate next to each score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KeystoreReadBenchmarks {
+
+    @Param({"JKS", "PKCS12"})
+    public String type;
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int size;
+
+    private Path file;
+    private KeystoreManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = KeystoreFixtures.keystore(type, size);
+        manager = KeystoreFixtures.manager();
+        manager.loadKeystore(file.toString(), KeystoreFixtures.PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public KeystoreManager loadKeystore() throws Exception {
+        manager.loadKeystore(file.toString(), KeystoreFixtures.PASSWORD);
+        return manager;
+    }
+
+    @Benchmark
+    public List<KeystoreEntry> getKeystoreEntries() throws Exception {
+        return manager.getKeystoreEntries();
+    }
+
+    @Benchmark
+    public void storeKeystore() throws Exception {
+        manager.getSnapshot().store(OutputStream.nullOutputStream(), KeystoreFixtures.PASSWORD.toCharArray());
+    }
+}
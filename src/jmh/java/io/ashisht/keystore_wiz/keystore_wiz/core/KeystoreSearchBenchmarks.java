@@ -0,0 +1,104 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Latency of searching the entries of a keystore as the user types, which has to stay below a
+ * frame (16 ms) at 100k entries. Each operation resolves the query and applies the predicate to
+ * every alias, as the filtered list on the details screen does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KeystoreSearchBenchmarks {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private KeystoreManager manager;
+    private SearchIndex index;
+    private List<String> aliases;
+    private String[] keystrokes;
+    private String[] serials;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        manager = KeystoreFixtures.manager();
+        manager.loadKeystore(KeystoreFixtures.keystore("JKS", size).toString(), KeystoreFixtures.PASSWORD);
+        manager.getIndexing().join();
+        index = manager.getSearchIndex();
+        aliases = manager.getSnapshot().aliases();
+        // The fixture certificate cert-i has the serial number i + 1
+        String alias = "cert-" + size / 2;
+        keystrokes = new String[alias.length()];
+        for (int i = 0; i < keystrokes.length; i++) {
+            keystrokes[i] = alias.substring(0, i + 1);
+        }
+        serials = new String[]{String.format("%08X", size / 2 + 1), String.format("%08X", size / 2 + 2)};
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    /**
+     * A single word matching every entry, so no previous result can be narrowed.
+     */
+    @Benchmark
+    public int broadQuery() {
+        return filter("cert");
+    }
+
+    /**
+     * Every prefix of an alias in turn; the score is for the whole word, not per keystroke.
+     */
+    @Benchmark
+    public int typedQuery() {
+        int matches = 0;
+        for (String keystroke : keystrokes) {
+            matches = filter(keystroke);
+        }
+        return matches;
+    }
+
+    /**
+     * A zero-padded serial number. Two serials alternate, so neither narrows the previous result.
+     */
+    @Benchmark
+    public int serialQuery() {
+        return filter(serials[next++ & 1]);
+    }
+
+    private int filter(String query) {
+        Predicate<String> matches = index.search(query);
+        int count = 0;
+        for (String alias : aliases) {
+            if (matches.test(alias)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
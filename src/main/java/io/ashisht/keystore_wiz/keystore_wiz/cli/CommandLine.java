@@ -0,0 +1,100 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.cli;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parsed arguments of a {@link KeystoreWizCli} invocation.
+ *
+ * <p>Arguments take the form {@code [--name=value ...] <command> [--name=value ...] <argument>...}.
+ * Options whose name contains a dot, such as {@code --keystore.backend=index}, are passed on to
+ * the application context as properties; all others are command options. Options given without
+ * a value are flags.
+ *
+ * @param command    The subcommand.
+ * @param options    The command options, in the order given; options may be repeated.
+ * @param arguments  The positional arguments following the command.
+ * @param properties The application properties to override.
+ */
+record CommandLine(String command, Map<String, List<String>> options, List<String> arguments,
+                   Map<String, Object> properties) {
+
+    static CommandLine parse(String[] args) {
+        String command = null;
+        Map<String, List<String>> options = new LinkedHashMap<>();
+        List<String> arguments = new ArrayList<>();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.length() > 2) {
+                int equals = arg.indexOf('=');
+                String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+                String value = equals < 0 ? "" : arg.substring(equals + 1);
+                if (name.contains(".")) {
+                    properties.put(name, value);
+                } else {
+                    options.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+                }
+            } else if (command == null) {
+                command = arg;
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (command == null) {
+            throw new IllegalArgumentException("No command given.");
+        }
+        return new CommandLine(command, options, arguments, properties);
+    }
+
+    boolean hasOption(String name) {
+        return options.containsKey(name);
+    }
+
+    /**
+     * @return The last value of an option, or {@code null} if it was not given.
+     */
+    String option(String name) {
+        List<String> values = options.get(name);
+        return values == null ? null : values.getLast();
+    }
+
+    /**
+     * @return Every value of an option, with comma separated values split up.
+     */
+    List<String> optionValues(String name) {
+        List<String> values = new ArrayList<>();
+        for (String value : options.getOrDefault(name, List.of())) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    String requireOption(String name) {
+        String value = option(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing --" + name + " for " + command + ".");
+        }
+        return value;
+    }
+}
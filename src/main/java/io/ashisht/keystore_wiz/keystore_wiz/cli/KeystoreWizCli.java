@@ -0,0 +1,492 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.cli;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
+import io.ashisht.keystore_wiz.keystore_wiz.core.SaveResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportPlan;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import io.ashisht.keystore_wiz.keystore_wiz.core.probe.ProbeResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.probe.TlsProbeHarness;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.CrlIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.CrlStore;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.Revocation;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.KeystoreDiff;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.Workspace;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.WorkspaceKeystore;
+import io.ashisht.keystore_wiz.keystore_wiz.models.CertificateDetails;
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.Console;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStoreException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Headless entry point for scripting keystore audits, for example in CI.
+ *
+ * <p>Unlike {@link io.ashisht.keystore_wiz.keystore_wiz.KeystoreWizApplication}, this neither
+ * starts the JavaFX toolkit nor a Spring Boot application: it creates a plain application context
+ * holding only a lazily initialized {@link KeystoreManager}, configured from
+ * {@code application.properties} and any {@code --property=value} arguments. Background indexing
+ * is deferred until a command needs the indexes, and edits are not journaled since every command
+ * saves them before it completes. Several keystores can be processed in one
+ * invocation; the result for each one is written as soon as it is ready.
+ */
+public final class KeystoreWizCli {
+    private static final String USAGE = """
+            Usage: keystore-wiz-cli [options] <command> [command options] <keystore>...
+
+            Commands:
+              list    [--expiring-days=N]             List certificate entries
+              inspect --alias=A... | --fingerprint=F  Show certificate details
+              import  --source=PATH                   Import certificates from a directory, zip, PEM or P7B bundle
+              delete  --alias=A...                    Delete entries
+              export  --target=PATH                   Write the keystore to another file
+              test    [--alias=A...]                  Probe certificates with local TLS clients (JVM, Python, Node.js),
+                                                      all of them unless aliases are given
+              diff    --with=PATH [--merge=KIND...]   Compare with another keystore with the same password; merge
+                      [--replace-key-entries]         the differences of the given kinds (added, removed, changed,
+                                                      moved, key_entry) from it and save; key entries are only
+                                                      replaced by certificates with --replace-key-entries
+              revoked [--crl=PATH...] [--fetch]       Check certificates against CRL files, the CRLs of their
+                                                      distribution points, and the CRLs imported before
+
+            Options:
+              --password-env=VAR   Read the keystore password from an environment variable (default KEYSTORE_PASSWORD)
+              --password-file=PATH Read the keystore password from the first line of a file
+              --json               Write one JSON object per keystore instead of text
+              --timing             Report startup and processing times on standard error
+              --metrics            Write the timings of the read, parse, verify, decode, index, store, import and CRL phases
+                                   after the results, with percentiles and the most recent runs
+              --some.property=X    Override an application property, e.g. --keystore.backend=index or
+                                   --keystore.probe.handshakes=3
+            """;
+
+    private final KeystoreManager keystoreManager;
+    private final TlsProbeHarness tlsProbeHarness;
+    private final Workspace workspace;
+    private final CrlStore crlStore;
+    private final CommandLine commandLine;
+    private final ResultWriter out;
+    private boolean failed;
+
+    private KeystoreWizCli(KeystoreManager keystoreManager, TlsProbeHarness tlsProbeHarness, Workspace workspace,
+                           CrlStore crlStore, CommandLine commandLine, ResultWriter out) {
+        this.keystoreManager = keystoreManager;
+        this.tlsProbeHarness = tlsProbeHarness;
+        this.workspace = workspace;
+        this.crlStore = crlStore;
+        this.commandLine = commandLine;
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        // Keep standard output for results; must be set before the first logger is created
+        System.setProperty("logback.configurationFile", "logback-cli.xml");
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @return The exit status: 0 on success, 1 if any keystore failed and 2 on invalid usage.
+     */
+    static int run(String[] args, PrintStream stdout, PrintStream stderr) {
+        long start = System.nanoTime();
+        CommandLine commandLine;
+        char[] password;
+        try {
+            commandLine = CommandLine.parse(args);
+            if (commandLine.arguments().isEmpty()) {
+                throw new IllegalArgumentException("No keystore given.");
+            }
+            password = password(commandLine);
+        } catch (IllegalArgumentException e) {
+            stderr.println(e.getMessage());
+            stderr.print(USAGE);
+            return 2;
+        }
+
+        ResultWriter out = new ResultWriter(stdout, commandLine.hasOption("json"));
+        int status;
+        long contextReady;
+        try (AnnotationConfigApplicationContext context = createContext(commandLine.properties())) {
+            contextReady = System.nanoTime();
+            KeystoreWizCli cli = new KeystoreWizCli(context.getBean(KeystoreManager.class),
+                    context.getBean(TlsProbeHarness.class), context.getBean(Workspace.class),
+                    context.getBean(CrlStore.class), commandLine, out);
+            status = cli.runCommand(password);
+            if (commandLine.hasOption("metrics")) {
+                out.write(Map.of("metrics", context.getBean(OperationMetrics.class).export()));
+            }
+        } catch (IllegalArgumentException e) {
+            stderr.println(e.getMessage());
+            stderr.print(USAGE);
+            return 2;
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+
+        if (commandLine.hasOption("timing")) {
+            long end = System.nanoTime();
+            long sinceJvmStart = ProcessHandle.current().info().startInstant()
+                    .map(jvmStart -> Duration.between(jvmStart, Instant.now()).toMillis() - (end - start) / 1_000_000)
+                    .orElse(0L);
+            stderr.println("keystore-wiz: JVM startup " + sinceJvmStart + " ms, context ready after "
+                    + millis(start, contextReady) + " ms, first output after "
+                    + (out.firstOutputNanos() == 0 ? "-" : millis(start, out.firstOutputNanos())) + " ms, done after "
+                    + millis(start, end) + " ms");
+        }
+        return status;
+    }
+
+    private static AnnotationConfigApplicationContext createContext(Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        MutablePropertySources sources = context.getEnvironment().getPropertySources();
+        Map<String, Object> cliProperties = new HashMap<>();
+        cliProperties.put("keystore.indexing.background", "false");
+        cliProperties.put("keystore.journal.enabled", "false");
+        cliProperties.putAll(properties);
+        sources.addFirst(new MapPropertySource("commandLine", cliProperties));
+        try {
+            sources.addLast(new ResourcePropertySource("application", "classpath:application.properties"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read application.properties", e);
+        }
+        context.registerBean(OperationMetrics.class);
+        context.registerBean(KeystoreManager.class, definition -> definition.setLazyInit(true));
+        context.registerBean(TlsProbeHarness.class, definition -> definition.setLazyInit(true));
+        context.registerBean(Workspace.class, definition -> definition.setLazyInit(true));
+        context.registerBean(CrlStore.class, definition -> definition.setLazyInit(true));
+        context.refresh();
+        return context;
+    }
+
+    private static char[] password(CommandLine commandLine) {
+        // The password is never taken from an argument, where other users could read it from the process list
+        if (commandLine.option("password-file") != null) {
+            Path file = Path.of(commandLine.option("password-file"));
+            try {
+                return Files.readAllLines(file).stream().findFirst().orElse("").toCharArray();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the password file " + file + ": " + e.getMessage());
+            }
+        }
+        String variable = Objects.requireNonNullElse(commandLine.option("password-env"), "KEYSTORE_PASSWORD");
+        String value = System.getenv(variable);
+        if (value != null) {
+            return value.toCharArray();
+        }
+        Console console = System.console();
+        if (console == null) {
+            throw new IllegalArgumentException("No keystore password: set " + variable + " or pass --password-file.");
+        }
+        return console.readPassword("Keystore password: ");
+    }
+
+    private int runCommand(char[] password) {
+        Command command = switch (commandLine.command()) {
+            case "list" -> this::list;
+            case "inspect" -> this::inspect;
+            case "import" -> this::importCertificates;
+            case "delete" -> this::delete;
+            case "export" -> this::export;
+            case "test" -> this::test;
+            case "diff" -> this::diff;
+            case "revoked" -> this::revoked;
+            default -> throw new IllegalArgumentException("Unknown command " + commandLine.command() + ".");
+        };
+        if (commandLine.command().equals("export") && commandLine.arguments().size() > 1) {
+            throw new IllegalArgumentException("export writes a single keystore.");
+        }
+        int status = 0;
+        for (String keystore : commandLine.arguments()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("keystore", keystore);
+            try {
+                keystoreManager.openKeystore(Path.of(keystore), password);
+                command.run(result, password);
+            } catch (Exception e) {
+                // Invalid options, such as a missing --crl file, fail this keystore rather than the whole run
+                result.put("error", e.getMessage() == null ? e.toString() : e.getMessage());
+                status = 1;
+            }
+            out.write(result);
+        }
+        return failed ? 1 : status;
+    }
+
+    @FunctionalInterface
+    private interface Command {
+        void run(Map<String, Object> result, char[] password) throws Exception;
+    }
+
+    private void list(Map<String, Object> result, char[] password) throws Exception {
+        List<KeystoreEntry> entries = keystoreManager.getKeystoreEntries();
+        if (commandLine.option("expiring-days") != null) {
+            // The entries are decoded anyway, so filtering them is cheaper than indexing the keystore
+            long cutoff = Instant.now().plus(Duration.ofDays(Long.parseLong(commandLine.requireOption("expiring-days"))))
+                    .toEpochMilli();
+            entries = entries.stream().filter(entry -> entry.getEndDate() < cutoff).toList();
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        for (KeystoreEntry entry : entries) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("alias", entry.getAlias());
+            row.put("type", entry.isKeyEntry() ? "privateKey" : "certificate");
+            row.put("subject", entry.getSubject());
+            row.put("issuer", entry.getIssuer());
+            row.put("validFrom", Instant.ofEpochMilli(entry.getStartDate()).toString());
+            row.put("validUntil", Instant.ofEpochMilli(entry.getEndDate()).toString());
+            row.put("publicKey", entry.getPublicKey());
+            rows.add(row);
+        }
+        result.put("count", rows.size());
+        result.put("entries", rows);
+    }
+
+    private void inspect(Map<String, Object> result, char[] password) throws Exception {
+        List<String> aliases = new ArrayList<>(commandLine.optionValues("alias"));
+        for (String fingerprint : commandLine.optionValues("fingerprint")) {
+            keystoreManager.getIndexing().join();
+            aliases.addAll(keystoreManager.getFingerprintIndex().aliasesFor(fingerprint));
+        }
+        if (aliases.isEmpty() && commandLine.optionValues("fingerprint").isEmpty()) {
+            throw new IllegalArgumentException("Missing --alias or --fingerprint for inspect.");
+        }
+        List<Map<String, Object>> certificates = new ArrayList<>();
+        for (String alias : aliases) {
+            X509Certificate cert = keystoreManager.getCertificate(alias);
+            if (cert == null) {
+                Map<String, Object> missing = new LinkedHashMap<>();
+                missing.put("alias", alias);
+                missing.put("error", "not found");
+                certificates.add(missing);
+            } else {
+                certificates.add(describe(alias, cert));
+            }
+        }
+        result.put("certificates", certificates);
+    }
+
+    private Map<String, Object> describe(String alias, X509Certificate cert) throws KeyStoreException {
+        CertificateDetails certificateDetails = keystoreManager.getCertificateDetails(alias);
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("alias", alias);
+        details.put("subject", cert.getSubjectX500Principal().getName());
+        details.put("issuer", cert.getIssuerX500Principal().getName());
+        details.put("validFrom", cert.getNotBefore().toInstant().toString());
+        details.put("validUntil", cert.getNotAfter().toInstant().toString());
+        details.put("serialNumber", certificateDetails.getSerialNumber());
+        details.put("signatureAlgorithm", certificateDetails.getSignatureAlgorithm());
+        details.put("publicKey", certificateDetails.getPublicKey());
+        details.put("sha256", certificateDetails.getSha256());
+        details.put("sha1", certificateDetails.getSha1());
+        details.put("subjectAlternativeNames", certificateDetails.getSubjectAlternativeNames());
+        details.put("keyUsage", certificateDetails.getKeyUsage());
+        details.put("extendedKeyUsage", certificateDetails.getExtendedKeyUsage());
+        details.put("basicConstraints", certificateDetails.getBasicConstraints());
+        details.put("extensions", certificateDetails.getExtensions());
+        return details;
+    }
+
+    private void importCertificates(Map<String, Object> result, char[] password) throws Exception {
+        ImportPlan plan = keystoreManager.planImport(Path.of(commandLine.requireOption("source")));
+        if (!plan.batch().isEmpty()) {
+            keystoreManager.addCertificateEntries(plan.batch());
+        }
+        result.put("imported", new ArrayList<>(plan.batch().keySet()));
+        result.put("duplicates", plan.duplicates());
+        result.put("failures", plan.failures());
+        result.put("saved", keystoreManager.saveKeystore().join());
+    }
+
+    private void delete(Map<String, Object> result, char[] password) throws Exception {
+        List<String> deleted = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String alias : requireAliases()) {
+            if (keystoreManager.getAliases().contains(alias)) {
+                keystoreManager.deleteKeystoreEntry(alias);
+                deleted.add(alias);
+            } else {
+                missing.add(alias);
+            }
+        }
+        result.put("deleted", deleted);
+        result.put("missing", missing);
+        result.put("saved", keystoreManager.saveKeystore().join());
+    }
+
+    private void export(Map<String, Object> result, char[] password) throws Exception {
+        Path target = Path.of(commandLine.requireOption("target"));
+        SaveResult saved = keystoreManager.saveKeystore(target, password.clone()).join();
+        result.put("target", target.toString());
+        result.put("saved", saved);
+    }
+
+    private void test(Map<String, Object> result, char[] password) throws Exception {
+        List<String> aliases = commandLine.optionValues("alias");
+        Map<String, X509Certificate> certificates = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String alias : aliases.isEmpty() ? keystoreManager.getAliases() : aliases) {
+            X509Certificate cert = keystoreManager.getCertificate(alias);
+            if (cert == null) {
+                missing.add(alias);
+            } else {
+                certificates.put(alias, cert);
+            }
+        }
+        List<Map<String, Object>> probes = new ArrayList<>();
+        int failures = 0;
+        for (ProbeResult probe : tlsProbeHarness.probe(certificates)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("alias", probe.alias());
+            row.put("runtime", probe.runtime());
+            row.put("status", probe.status());
+            row.put("handshakes", probe.handshakes());
+            row.put("failures", probe.failures());
+            if (probe.latency() != null) {
+                row.put("p50Ms", round(probe.latency().p50()));
+                row.put("p90Ms", round(probe.latency().p90()));
+                row.put("p99Ms", round(probe.latency().p99()));
+            }
+            if (!probe.errors().isEmpty()) {
+                row.put("errors", probe.errors());
+            }
+            probes.add(row);
+            if (probe.status() == ProbeResult.Status.FAILED) {
+                failures++;
+            }
+        }
+        result.put("probes", probes);
+        result.put("failed", failures);
+        result.put("missing", missing);
+        failed |= failures > 0 || !missing.isEmpty();
+    }
+
+    private void diff(Map<String, Object> result, char[] password) throws Exception {
+        Path with = Path.of(commandLine.requireOption("with"));
+        Set<KeystoreDiff.Kind> kinds = EnumSet.noneOf(KeystoreDiff.Kind.class);
+        for (String kind : commandLine.optionValues("merge")) {
+            try {
+                kinds.add(KeystoreDiff.Kind.valueOf(kind.toUpperCase(Locale.ENGLISH)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown difference " + kind + " for --merge.");
+            }
+        }
+        WorkspaceKeystore source = workspace.open(List.of(with), password.clone()).join().getFirst();
+        KeystoreDiff diff = workspace.diffWithCurrent(source).join();
+        List<Map<String, Object>> differences = new ArrayList<>(diff.differences().size());
+        for (KeystoreDiff.Difference difference : diff.differences()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("kind", difference.kind());
+            row.put("alias", difference.alias());
+            if (difference.targetAlias() != null) {
+                row.put("currentAlias", difference.targetAlias());
+            }
+            row.put("sha256", Objects.requireNonNullElse(difference.sourceFingerprint(), difference.targetFingerprint()));
+            if (difference.kind() == KeystoreDiff.Kind.CHANGED || difference.kind() == KeystoreDiff.Kind.KEY_ENTRY) {
+                row.put("currentSha256", difference.targetFingerprint());
+            }
+            differences.add(row);
+        }
+        result.put("with", with.toString());
+        result.put("count", differences.size());
+        result.put("differences", differences);
+        if (!kinds.isEmpty()) {
+            List<KeystoreDiff.Difference> selected = diff.differences().stream()
+                    .filter(difference -> kinds.contains(difference.kind()))
+                    .toList();
+            KeystoreDiff.Merge merge = workspace.mergeIntoCurrent(selected, source, commandLine.hasOption("replace-key-entries"));
+            result.put("merged", new ArrayList<>(merge.additions().keySet()));
+            result.put("removed", new ArrayList<>(merge.removals()));
+            result.put("saved", keystoreManager.saveKeystore().join());
+        }
+    }
+
+    private void revoked(Map<String, Object> result, char[] password) throws Exception {
+        List<CrlIndex> crls = new ArrayList<>();
+        List<String> crlFiles = commandLine.optionValues("crl");
+        if (!crlFiles.isEmpty()) {
+            crls.addAll(crlStore.importCrls(crlFiles.stream().map(Path::of).toList()).join());
+        }
+        if (commandLine.hasOption("fetch")) {
+            crls.addAll(crlStore.fetchDistributionPoints().join());
+        }
+        keystoreManager.getIndexing().join();
+        List<Map<String, Object>> revoked = new ArrayList<>();
+        int unknown = 0;
+        for (String alias : keystoreManager.getAliases()) {
+            Revocation revocation = crlStore.check(alias);
+            switch (revocation.status()) {
+                case REVOKED -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("alias", alias);
+                    row.put("serialNumber", keystoreManager.getRevocationIndex().serialOf(alias).serial().toString(16));
+                    row.put("crl", revocation.crl().source());
+                    row.put("crlIssued", revocation.crl().thisUpdate().toString());
+                    row.put("crlVerified", revocation.crl().verifiedBy() != null);
+                    revoked.add(row);
+                }
+                case UNKNOWN -> unknown++;
+                case NOT_REVOKED -> {
+                }
+            }
+        }
+        List<Map<String, Object>> read = new ArrayList<>(crls.size());
+        for (CrlIndex crl : crls) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("issuer", crl.issuer().getName());
+            row.put("source", crl.source());
+            row.put("issued", crl.thisUpdate().toString());
+            row.put("revokedSerials", crl.size());
+            row.put("verifiedBy", crl.verifiedBy());
+            read.add(row);
+        }
+        result.put("crls", read);
+        result.put("count", revoked.size());
+        result.put("revoked", revoked);
+        result.put("unknown", unknown);
+        failed |= !revoked.isEmpty();
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+
+    private List<String> requireAliases() {
+        List<String> aliases = commandLine.optionValues("alias");
+        if (aliases.isEmpty()) {
+            throw new IllegalArgumentException("Missing --alias for " + commandLine.command() + ".");
+        }
+        return aliases;
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
+    }
+}
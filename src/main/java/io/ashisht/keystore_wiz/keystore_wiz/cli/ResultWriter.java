@@ -0,0 +1,147 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.cli;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes command results, built from maps, lists and scalars, either as one JSON object per line
+ * or as indented text, and records when the first result was written.
+ */
+class ResultWriter {
+    private final PrintStream out;
+    private final boolean json;
+    private long firstOutputNanos;
+
+    ResultWriter(PrintStream out, boolean json) {
+        this.out = out;
+        this.json = json;
+    }
+
+    void write(Map<String, ?> result) {
+        StringBuilder text = new StringBuilder();
+        if (json) {
+            appendJson(text, result);
+        } else {
+            appendText(text, result, 0);
+        }
+        out.println(text);
+        out.flush();
+        if (firstOutputNanos == 0) {
+            firstOutputNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the first result was written, or 0 if none was.
+     */
+    long firstOutputNanos() {
+        return firstOutputNanos;
+    }
+
+    private static void appendJson(StringBuilder json, Object value) {
+        switch (value) {
+            case null -> json.append("null");
+            case Map<?, ?> map -> {
+                json.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!first) {
+                        json.append(',');
+                    }
+                    first = false;
+                    appendJsonString(json, String.valueOf(entry.getKey()));
+                    json.append(':');
+                    appendJson(json, entry.getValue());
+                }
+                json.append('}');
+            }
+            case List<?> list -> {
+                json.append('[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    appendJson(json, list.get(i));
+                }
+                json.append(']');
+            }
+            // JSON has no NaN or infinity, e.g. for percentiles over no runs
+            case Double number when !Double.isFinite(number) -> json.append("null");
+            case Float number when !Float.isFinite(number) -> json.append("null");
+            case Number number -> json.append(number);
+            case Boolean bool -> json.append(bool);
+            default -> appendJsonString(json, value.toString());
+        }
+    }
+
+    private static void appendJsonString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static void appendText(StringBuilder text, Map<?, ?> map, int depth) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            indent(text, depth).append(entry.getKey()).append(':');
+            appendTextValue(text, entry.getValue(), depth);
+        }
+    }
+
+    private static void appendTextValue(StringBuilder text, Object value, int depth) {
+        if (value instanceof Map<?, ?> map) {
+            text.append('\n');
+            appendText(text, map, depth + 1);
+        } else if (value instanceof List<?> list) {
+            text.append(list.isEmpty() ? " []\n" : "\n");
+            for (Object element : list) {
+                indent(text, depth + 1).append('-');
+                if (element instanceof Map<?, ?> map) {
+                    // Start the first key on the dash line, like YAML
+                    StringBuilder nested = new StringBuilder();
+                    appendText(nested, map, depth + 2);
+                    text.append(' ').append(nested.toString().stripLeading());
+                } else {
+                    appendTextValue(text, element, depth + 1);
+                }
+            }
+        } else {
+            text.append(' ').append(value).append('\n');
+        }
+    }
+
+    private static StringBuilder indent(StringBuilder text, int depth) {
+        return text.append("  ".repeat(depth));
+    }
+}
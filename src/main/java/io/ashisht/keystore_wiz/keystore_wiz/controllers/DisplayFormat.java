@@ -0,0 +1,99 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.controllers;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import io.ashisht.keystore_wiz.keystore_wiz.core.probe.ProbeResult;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats entry metadata for display. Entries keep raw values, which are only formatted when a
+ * cell or label is rendered.
+ */
+final class DisplayFormat {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z");
+
+    private DisplayFormat() {
+    }
+
+    /**
+     * @param epochMillis A point in time in milliseconds since the epoch.
+     * @return The point in time in the local time zone.
+     */
+    static String dateTime(long epochMillis) {
+        return DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * @param result The outcome of a TLS probe.
+     * @return One line naming the runtime, the status and either the latency or the errors.
+     */
+    static String probeResult(ProbeResult result) {
+        String line = result.runtime() + ": " + result.status().name().toLowerCase();
+        if (result.status() == ProbeResult.Status.SKIPPED) {
+            return line + ", " + String.join(", ", result.errors());
+        }
+        if (result.latency() != null) {
+            line += String.format(", %d handshakes, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms", result.handshakes(),
+                    result.latency().p50(), result.latency().p90(), result.latency().p99());
+        }
+        if (result.failures() > 0) {
+            line += ", " + result.failures() + " of " + result.handshakes() + " failed: " + String.join("; ", result.errors());
+        }
+        return line;
+    }
+
+    /**
+     * @param sample A timed run of an operation phase.
+     * @return One line with the end time, the phase, its duration and what it worked on.
+     */
+    static String operationSample(OperationMetrics.Sample sample) {
+        return String.format("%s  %s: %.2f ms, %d items, %s", dateTime(sample.endedAt()), sample.phase(),
+                sample.millis(), sample.items(), sample.subject());
+    }
+
+    /**
+     * @return A cell factory rendering durations in milliseconds with two decimals.
+     */
+    static <S> Callback<TableColumn<S, Double>, TableCell<S, Double>> millisCells() {
+        return column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double millis, boolean empty) {
+                super.updateItem(millis, empty);
+                setText(empty || millis == null ? null : String.format("%.2f", millis));
+            }
+        };
+    }
+
+    /**
+     * @return A cell factory rendering epoch milliseconds with {@link #dateTime(long)}.
+     */
+    static <S> Callback<TableColumn<S, Long>, TableCell<S, Long>> dateTimeCells() {
+        return column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Long epochMillis, boolean empty) {
+                super.updateItem(epochMillis, empty);
+                setText(empty || epochMillis == null ? null : dateTime(epochMillis));
+            }
+        };
+    }
+}
@@ -15,11 +15,14 @@
  */
 package io.ashisht.keystore_wiz.keystore_wiz.controllers;
 
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreLoadTask;
 import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
 import io.ashisht.keystore_wiz.keystore_wiz.events.SceneChangeEvent;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -46,10 +49,20 @@ public class KeystoreController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private Button loadButton;
+
+    @FXML
+    private Button cancelButton;
+
+    @FXML
+    private ProgressBar loadProgress;
+
     private final KeystoreManager keystoreManager;
     private final KeystoreDetailsController keystoreDetailsController;
     private final ApplicationContext context;
     private final Resource fxmlKeystoreDetails;
+    private KeystoreLoadTask loadTask;
 
     public KeystoreController(KeystoreManager keystoreManager, KeystoreDetailsController sceneService,
                               ApplicationContext context, @Value("classpath:/keystore_details.fxml") Resource fxmlKeystoreDetails) {
@@ -89,16 +102,51 @@ public class KeystoreController {
             return;
         }
 
-        try {
-            keystoreManager.loadKeystore(filePath, password);
+        statusLabel.textProperty().unbind();
+        statusLabel.setTextFill(javafx.scene.paint.Color.BLACK);
+        loadTask = keystoreManager.loadKeystoreAsync(filePath, password);
+        statusLabel.textProperty().bind(loadTask.messageProperty());
+        loadProgress.progressProperty().bind(loadTask.progressProperty());
+        setLoading(true);
+
+        loadTask.setOnSucceeded(event -> {
+            setLoading(false);
             if (keystoreManager.isKeystoreLoaded()) {
                 this.context.publishEvent(new SceneChangeEvent<>((Stage) keystorePathField.getScene().getWindow(), fxmlKeystoreDetails, false));
                 keystoreDetailsController.setKeystoreFilePath(filePath);
             }
-        } catch (Exception e) {
+        });
+        loadTask.setOnCancelled(event -> {
+            setLoading(false);
+            statusLabel.setText("Loading cancelled.");
+        });
+        loadTask.setOnFailed(event -> {
+            setLoading(false);
+            Throwable e = loadTask.getException();
             log.atError().log("Failed to load keystore: " + e.getMessage());
             statusLabel.setText("Failed to load keystore: " + e.getMessage());
             statusLabel.setTextFill(javafx.scene.paint.Color.RED);
+        });
+    }
+
+    /**
+     * Cancels the keystore load that is currently in progress, if any.
+     */
+    @FXML
+    public void onCancelLoad() {
+        if (loadTask != null && loadTask.isRunning()) {
+            loadTask.cancel();
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        if (!loading) {
+            statusLabel.textProperty().unbind();
+            loadProgress.progressProperty().unbind();
+            loadProgress.setProgress(0);
         }
+        loadButton.setDisable(loading);
+        cancelButton.setDisable(!loading);
+        loadProgress.setVisible(loading);
     }
 }
@@ -15,29 +15,64 @@
  */
 package io.ashisht.keystore_wiz.keystore_wiz.controllers;
 
+import io.ashisht.keystore_wiz.keystore_wiz.core.CertificateImportTask;
 import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreReload;
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreWatcher;
+import io.ashisht.keystore_wiz.keystore_wiz.core.LazyEntryList;
+import io.ashisht.keystore_wiz.keystore_wiz.core.SaveResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.ChainIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import io.ashisht.keystore_wiz.keystore_wiz.core.probe.ProbeResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.probe.TlsProbeHarness;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.CrlIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.CrlStore;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.Revocation;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.KeystoreDiff;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.Workspace;
+import io.ashisht.keystore_wiz.keystore_wiz.core.workspace.WorkspaceKeystore;
 import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.HBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.util.Callback;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.security.KeyStoreException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Component
-public class KeystoreDetailsController {
+public class KeystoreDetailsController implements Rebindable {
     @FXML
     public Label keystorePathLabel;
 
@@ -54,10 +89,19 @@ public class KeystoreDetailsController {
     private TableColumn<KeystoreEntry, String> subjectColumn;
 
     @FXML
-    private TableColumn<KeystoreEntry, String> validFromColumn;
+    private TableColumn<KeystoreEntry, Long> validFromColumn;
 
     @FXML
-    private TableColumn<KeystoreEntry, String> validUntilColumn;
+    private TableColumn<KeystoreEntry, Long> validUntilColumn;
+
+    @FXML
+    private TableColumn<KeystoreEntry, ChainIndex.Chain> chainColumn;
+
+    @FXML
+    private TableColumn<KeystoreEntry, String> typeColumn;
+
+    @FXML
+    private TableColumn<KeystoreEntry, String> publicKeyColumn;
 
     @FXML
     private TableColumn<KeystoreEntry, Void> actionsColumn;
@@ -68,40 +112,444 @@ public class KeystoreDetailsController {
     @FXML
     private Button addCert;
 
+    @FXML
+    private Button saveKeystore;
+
+    @FXML
+    private Button importCerts;
+
+    @FXML
+    private Button importCrls;
+
+    @FXML
+    private Button fetchCrls;
+
+    @FXML
+    private Button undoEdit;
+
+    @FXML
+    private Button redoEdit;
+
+    @FXML
+    private TextField searchField;
+
+    @FXML
+    private CheckBox expiringSoon;
+
+    @FXML
+    private Button openWorkspaceKeystores;
+
+    @FXML
+    private ComboBox<WorkspaceKeystore> compareWith;
+
+    @FXML
+    private Label diffSummary;
+
+    @FXML
+    private TableView<KeystoreDiff.Difference> differencesTable;
+
+    @FXML
+    private TableColumn<KeystoreDiff.Difference, KeystoreDiff.Kind> differenceKindColumn;
+
+    @FXML
+    private TableColumn<KeystoreDiff.Difference, String> differenceAliasColumn;
+
+    @FXML
+    private TableColumn<KeystoreDiff.Difference, String> differenceCurrentAliasColumn;
+
+    @FXML
+    private TableColumn<KeystoreDiff.Difference, String> differenceSourceColumn;
+
+    @FXML
+    private TableColumn<KeystoreDiff.Difference, String> differenceTargetColumn;
+
+    @FXML
+    private Button mergeDifferences;
+
+    @FXML
+    private Tab diagnosticsTab;
+
+    @FXML
+    private Button refreshDiagnostics;
+
+    @FXML
+    private TableView<OperationMetrics.Summary> phaseTable;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, OperationMetrics.Phase> phaseColumn;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Long> phaseCountColumn;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Long> phaseItemsColumn;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Double> phaseTotalColumn;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Double> phaseP50Column;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Double> phaseP90Column;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Double> phaseP99Column;
+
+    @FXML
+    private TableColumn<OperationMetrics.Summary, Double> phaseMaxColumn;
+
+    @FXML
+    private ListView<String> recentOperations;
+
+    private FilteredList<String> filteredAliases;
+
+    /**
+     * The values of the sorted columns per alias, for the current sort order. Only the column
+     * values are kept, not the decoded entries, so sorting keeps no rows beyond the row cache.
+     */
+    private final Map<String, Object[]> sortKeys = new HashMap<>();
+
+    /**
+     * Drops the sort keys of aliases replaced, reloaded, undone or removed in the alias list.
+     */
+    private final ListChangeListener<String> sortKeyInvalidation = change -> {
+        while (change.next()) {
+            change.getRemoved().forEach(sortKeys::remove);
+            change.getAddedSubList().forEach(sortKeys::remove);
+        }
+    };
+
+    /**
+     * The alias list of the keystore the shown differences were computed against.
+     */
+    private List<String> comparedAliases;
+
+    /**
+     * The alias list of the keystore whose edits restored from its journal were reported.
+     */
+    private List<String> restoredAliases;
+
     private final KeystoreManager keystoreManager;
     private final ListController listController;
+    private final TlsProbeHarness tlsProbeHarness;
+    private final Workspace workspace;
+    private final KeystoreWatcher keystoreWatcher;
+    private final CrlStore crlStore;
+    private final int expiryWarningDays;
 
-    public KeystoreDetailsController(KeystoreManager keystoreManager, ListController listController) {
+    /**
+     * @param expiryWarningDays The number of days ahead the "expiring soon" filter looks.
+     */
+    public KeystoreDetailsController(KeystoreManager keystoreManager, ListController listController,
+                                     TlsProbeHarness tlsProbeHarness, Workspace workspace,
+                                     KeystoreWatcher keystoreWatcher, CrlStore crlStore,
+                                     @Value("${keystore.expiry.warning-days:30}") int expiryWarningDays) {
         this.keystoreManager = keystoreManager;
         this.listController = listController;
+        this.tlsProbeHarness = tlsProbeHarness;
+        this.workspace = workspace;
+        this.keystoreWatcher = keystoreWatcher;
+        this.crlStore = crlStore;
+        this.expiryWarningDays = expiryWarningDays;
     }
 
-    public void initialize() throws KeyStoreException {
-        List<KeystoreEntry> keystoreEntries = keystoreManager.getKeystoreEntries();
-        ObservableList<KeystoreEntry> data = FXCollections.observableArrayList(
-                keystoreEntries
-        );
-
+    public void initialize() {
         // Configure the columns
         aliasColumn.setCellValueFactory(new PropertyValueFactory<>("alias"));
         issuerColumn.setCellValueFactory(new PropertyValueFactory<>("issuer"));
         subjectColumn.setCellValueFactory(new PropertyValueFactory<>("subject"));
         validFromColumn.setCellValueFactory(new PropertyValueFactory<>("startDate"));
         validUntilColumn.setCellValueFactory(new PropertyValueFactory<>("endDate"));
-        tableView.setItems(data);
+        validFromColumn.setCellFactory(DisplayFormat.dateTimeCells());
+        validUntilColumn.setCellFactory(DisplayFormat.dateTimeCells());
+        typeColumn.setCellValueFactory(cell ->
+                new ReadOnlyObjectWrapper<>(cell.getValue().isKeyEntry() ? "Private key" : "Certificate"));
+        publicKeyColumn.setCellValueFactory(new PropertyValueFactory<>("publicKey"));
+        configureChainColumn();
         configureActionsColumn();
+        configureRowHighlighting();
+
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> applySearch());
+        expiringSoon.setText("Expiring within " + expiryWarningDays + " days");
+        expiringSoon.selectedProperty().addListener((observable, oldValue, newValue) -> applySearch());
 
         // Add action handler for exportToFile button
         exportToFile.setOnAction(event -> exportKeystoreToFile());
 
         // Add action handler for addCert button
         addCert.setOnAction(event -> addCertificate());
+
+        // Add action handler for saveKeystore button
+        saveKeystore.setOnAction(event -> saveKeystore());
+
+        // Add action handler for importCerts button
+        importCerts.setOnAction(event -> importCertificates());
+
+        // Check the entries against CRL files, or against the CRLs of their distribution points
+        importCrls.setOnAction(event -> importCrls());
+        fetchCrls.setOnAction(event -> fetchCrls());
+
+        // Undo and redo edits, also with the usual shortcuts once the table is in a scene
+        undoEdit.setOnAction(event -> moveInHistory(true));
+        redoEdit.setOnAction(event -> moveInHistory(false));
+        tableView.sceneProperty().addListener((observable, oldScene, scene) -> {
+            if (scene != null) {
+                scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN),
+                        () -> moveInHistory(true));
+                scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN,
+                        KeyCombination.SHIFT_DOWN), () -> moveInHistory(false));
+                scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN),
+                        () -> moveInHistory(false));
+            }
+        });
+
+        configureCompareTab();
+        configureDiagnosticsTab();
+    }
+
+    /**
+     * Binds the table to the aliases of the currently loaded keystore.
+     */
+    @Override
+    public void rebind() {
+        // Rows are decoded lazily as the table's virtual flow requests them, and searching
+        // filters the aliases through the search index without decoding any rows
+        ObservableList<String> aliases = keystoreManager.getAliases();
+        // Listen before the filtered list does, so changed keys are dropped before the aliases are sorted again
+        aliases.removeListener(sortKeyInvalidation);
+        aliases.addListener(sortKeyInvalidation);
+        filteredAliases = new FilteredList<>(aliases);
+        SortedList<String> sortedAliases = new SortedList<>(filteredAliases);
+        LazyEntryList data = keystoreManager.lazyEntries(sortedAliases);
+        tableView.setItems(data);
+        tableView.setSortPolicy(table -> {
+            sortAliases(sortedAliases, data, table.getSortOrder());
+            return true;
+        });
+        tableView.sort();
+        applySearch();
+
+        // Restyle duplicates and revoked entries and search again once the indexes of this keystore are complete
+        FilteredList<String> bound = filteredAliases;
+        keystoreManager.getIndexing().thenRun(() -> Platform.runLater(() -> {
+            if (filteredAliases == bound) {
+                applySearch();
+                tableView.refresh();
+            }
+        }));
+        validateChains();
+        compareWithSelected();
+        updateHistoryButtons();
+        keystoreWatcher.watch(reload -> Platform.runLater(() -> applyReload(reload)));
+        if (keystoreManager.getRestoredEdits() > 0 && restoredAliases != keystoreManager.getAliases()) {
+            restoredAliases = keystoreManager.getAliases();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Unsaved Changes Restored");
+            alert.setHeaderText(null);
+            alert.setContentText("Restored " + keystoreManager.getRestoredEdits() + " unsaved edits from the last "
+                    + "session. Undo them to discard them, or save the keystore to keep them.");
+            Platform.runLater(alert::show);
+        }
+    }
+
+    /**
+     * Undoes or redoes the last edit, like an edit made through the table.
+     */
+    private void moveInHistory(boolean undo) {
+        try {
+            if (undo ? keystoreManager.undo() : keystoreManager.redo()) {
+                applySearch();
+                tableView.refresh();
+                validateChains();
+            }
+        } catch (KeyStoreException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle(undo ? "Undo Failed" : "Redo Failed");
+            alert.setHeaderText(null);
+            alert.setContentText("Failed to " + (undo ? "undo" : "redo") + " the edit: " + e.getMessage());
+            alert.showAndWait();
+        }
+        updateHistoryButtons();
+    }
+
+    private void updateHistoryButtons() {
+        undoEdit.setDisable(!keystoreManager.canUndo());
+        redoEdit.setDisable(!keystoreManager.canRedo());
+    }
+
+    /**
+     * Applies changes another process made to the keystore file. The alias list is updated in
+     * place, so the table keeps its selection and scroll position.
+     */
+    private void applyReload(KeystoreReload reload) {
+        try {
+            if (keystoreManager.applyReload(reload)) {
+                if (filteredAliases.getPredicate() != null) {
+                    // Search results are computed from the indexes, so match the new entries too
+                    applySearch();
+                }
+                tableView.refresh();
+                validateChains();
+                compareWithSelected();
+            }
+        } catch (KeyStoreException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Reload Keystore Failed");
+            alert.setHeaderText(null);
+            alert.setContentText("Failed to apply changes made to " + reload.path() + ": " + e.getMessage());
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Shows the chain status of an entry once it is resolved. Chains are resolved in the
+     * background by {@link #validateChains()}, so neither rendering nor sorting the column
+     * verifies any signature; sorting in ascending order lists broken and orphaned chains first.
+     */
+    private void configureChainColumn() {
+        chainColumn.setCellValueFactory(cell ->
+                new ReadOnlyObjectWrapper<>(keystoreManager.getChainIndex().peek(cell.getValue().getAlias())));
+        chainColumn.setComparator(Comparator.nullsLast(Comparator.comparing(ChainIndex.Chain::status)));
+        chainColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(ChainIndex.Chain chain, boolean empty) {
+                super.updateItem(chain, empty);
+                if (empty || chain == null) {
+                    setText(null);
+                    setStyle("");
+                    setTooltip(null);
+                    return;
+                }
+                setText(chain.status().name().toLowerCase());
+                setStyle(switch (chain.status()) {
+                    case BROKEN -> "-fx-text-fill: #b02a37;";
+                    case ORPHANED -> "-fx-text-fill: #997404;";
+                    case COMPLETE -> "";
+                });
+                setTooltip(new Tooltip(String.join(" \u2192 ", chain.aliases())
+                        + (chain.problem() == null ? "" : "\n" + chain.problem())));
+            }
+        });
+    }
+
+    /**
+     * Resolves the chains not resolved yet, e.g. after an edit, and shows them once done.
+     */
+    private void validateChains() {
+        FilteredList<String> bound = filteredAliases;
+        keystoreManager.validateChains().thenRun(() -> Platform.runLater(() -> {
+            if (filteredAliases == bound) {
+                tableView.refresh();
+            }
+        }));
+    }
+
+    /**
+     * Highlights rows whose certificate is revoked by an imported CRL, or else is also stored
+     * under another alias. The fingerprint and revocation indexes are filled in the background, so
+     * {@link #rebind()} restyles the rows once indexing completes.
+     */
+    private void configureRowHighlighting() {
+        tableView.setRowFactory(table -> new TableRow<>() {
+            @Override
+            protected void updateItem(KeystoreEntry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                if (empty || entry == null) {
+                    setStyle("");
+                    setTooltip(null);
+                    return;
+                }
+                Revocation revocation = crlStore.check(entry.getAlias());
+                if (revocation.status() == Revocation.Status.REVOKED) {
+                    setStyle("-fx-background-color: #f8d7da;");
+                    setTooltip(new Tooltip(revocation.describe()));
+                    return;
+                }
+                boolean duplicate = keystoreManager.getFingerprintIndex().isDuplicate(entry.getAlias());
+                setStyle(duplicate ? "-fx-background-color: #fff3cd;" : "");
+                setTooltip(duplicate ? new Tooltip("The same certificate is stored under "
+                        + String.join(", ", otherAliases(entry.getAlias()))) : null);
+            }
+        });
+    }
+
+    /**
+     * Filters the table to the entries matching the search field and, if selected, expiring
+     * within the warning period, including those that already expired.
+     */
+    private void applySearch() {
+        if (filteredAliases == null) {
+            return;
+        }
+        Predicate<String> matches = keystoreManager.getSearchIndex().search(searchField.getText());
+        if (expiringSoon.isSelected()) {
+            Set<String> expiring = new HashSet<>(keystoreManager.getExpiryIndex()
+                    .expiringBetween(null, Instant.now().plus(Duration.ofDays(expiryWarningDays))));
+            matches = matches == null ? expiring::contains : matches.and(expiring::contains);
+        }
+        filteredAliases.setPredicate(matches);
+    }
+
+    private List<String> otherAliases(String alias) {
+        FingerprintIndex.Fingerprints fingerprints = keystoreManager.getFingerprintIndex().fingerprintsOf(alias);
+        if (fingerprints == null) {
+            return List.of();
+        }
+        return keystoreManager.getFingerprintIndex().aliasesFor(fingerprints.sha256()).stream()
+                .filter(other -> !other.equals(alias)).sorted().toList();
     }
 
     public void setKeystoreFilePath(String filePath) {
         keystorePathLabel.setText(filePath);
     }
 
+    /**
+     * Sorts the alias list backing the table by the values of the sorted columns, compared with
+     * the comparators of the columns. The values are read once per alias and kept in
+     * {@link #sortKeys} until the sort order changes or the alias changes; rows are decoded
+     * through the bounded row cache, and not at all when sorting by alias.
+     */
+    private void sortAliases(SortedList<String> sortedAliases, LazyEntryList entries,
+                             List<TableColumn<KeystoreEntry, ?>> sortOrder) {
+        sortKeys.clear();
+        if (sortOrder.isEmpty()) {
+            sortedAliases.setComparator(null);
+            return;
+        }
+        List<TableColumn<KeystoreEntry, ?>> columns = List.copyOf(sortOrder);
+        sortedAliases.setComparator((a, b) -> {
+            Object[] keysA = sortKeys.computeIfAbsent(a, alias -> sortKey(alias, entries, columns));
+            Object[] keysB = sortKeys.computeIfAbsent(b, alias -> sortKey(alias, entries, columns));
+            for (int i = 0; i < columns.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Comparator<Object> comparator = (Comparator<Object>) columns.get(i).getComparator();
+                int result = comparator.compare(keysA[i], keysB[i]);
+                if (result != 0) {
+                    return columns.get(i).getSortType() == TableColumn.SortType.DESCENDING ? -result : result;
+                }
+            }
+            return 0;
+        });
+    }
+
+    private Object[] sortKey(String alias, LazyEntryList entries, List<TableColumn<KeystoreEntry, ?>> columns) {
+        Object[] key = new Object[columns.size()];
+        KeystoreEntry entry = null;
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i) == aliasColumn) {
+                key[i] = alias;
+                continue;
+            }
+            if (entry == null) {
+                entry = entries.entryFor(alias);
+            }
+            ObservableValue<?> value = columns.get(i).getCellObservableValue(entry);
+            key[i] = value == null ? null : value.getValue();
+        }
+        return key;
+    }
+
     private void configureActionsColumn() {
         actionsColumn.setCellFactory(new Callback<>() {
             @Override
@@ -128,6 +576,7 @@ public class KeystoreDetailsController {
                         // Action for Test Button
                         testButton.setOnAction(event -> {
                             KeystoreEntry rowData = getTableView().getItems().get(getIndex());
+                            testCertificate(rowData);
                         });
                     }
 
@@ -146,11 +595,49 @@ public class KeystoreDetailsController {
         });
     }
 
+    /**
+     * Probes the certificate of an entry with every available TLS client runtime and shows the
+     * outcome of each once all of them finished.
+     */
+    private void testCertificate(KeystoreEntry entry) {
+        keystoreManager.getCertificateAsync(entry.getAlias())
+                .thenCompose(certificate -> {
+                    if (certificate == null) {
+                        throw new CompletionException(
+                                new KeyStoreException("No certificate stored under " + entry.getAlias()));
+                    }
+                    return tlsProbeHarness.probeAsync(Map.of(entry.getAlias(), certificate));
+                })
+                .whenComplete((results, error) -> Platform.runLater(() -> {
+                    if (error != null) {
+                        showTestFailure(error);
+                        return;
+                    }
+                    boolean passed = results.stream().noneMatch(result -> result.status() == ProbeResult.Status.FAILED);
+                    Alert alert = new Alert(passed ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+                    alert.setTitle("Test Certificate");
+                    alert.setHeaderText(entry.getAlias() + (passed ? " is trusted by every TLS client tested."
+                            : " is rejected by some TLS clients."));
+                    alert.setContentText(results.stream().map(DisplayFormat::probeResult).collect(Collectors.joining("\n")));
+                    alert.showAndWait();
+                }));
+    }
+
+    private void showTestFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Test Certificate Failed");
+        alert.setHeaderText(null);
+        alert.setContentText("Failed to test certificate: " + cause.getMessage());
+        alert.showAndWait();
+    }
+
     private void showDeleteConfirmationDialog(KeystoreEntry entry) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Delete Confirmation");
         alert.setHeaderText("Are you sure you want to delete this keystore entry?");
-        alert.setContentText("Alias: " + entry.getAlias());
+        alert.setContentText("Alias: " + entry.getAlias() + (entry.isKeyEntry()
+                ? "\nThis entry holds a private key, which is deleted with it once the keystore is saved." : ""));
 
         ButtonType buttonTypeYes = new ButtonType("Yes");
         ButtonType buttonTypeNo = new ButtonType("No", ButtonBar.ButtonData.CANCEL_CLOSE);
@@ -161,7 +648,11 @@ public class KeystoreDetailsController {
         if (result.isPresent() && result.get() == buttonTypeYes) {
             try {
                 keystoreManager.deleteKeystoreEntry(entry.getAlias());
-                tableView.getItems().remove(entry);
+                // A remaining copy of the certificate may no longer be a duplicate, and chains
+                // through it have to be resolved again
+                tableView.refresh();
+                validateChains();
+                updateHistoryButtons();
             } catch (KeyStoreException e) {
                 throw new RuntimeException(e);
             }
@@ -185,24 +676,53 @@ public class KeystoreDetailsController {
             File file = fileChooser.showSaveDialog(exportToFile.getScene().getWindow());
 
             if (file != null) {
-                try (FileOutputStream fos = new FileOutputStream(file)) {
-                    keystoreManager.getKeystore().store(fos, password.toCharArray());
-                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                    alert.setTitle("Export Successful");
-                    alert.setHeaderText(null);
-                    alert.setContentText("Keystore exported successfully to " + file.getAbsolutePath());
-                    alert.showAndWait();
-                } catch (Exception e) {
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Export Failed");
-                    alert.setHeaderText(null);
-                    alert.setContentText("Failed to export keystore: " + e.getMessage());
-                    alert.showAndWait();
-                }
+                exportToFile.setDisable(true);
+                keystoreManager.saveKeystore(file.toPath(), password.toCharArray())
+                        .whenComplete((result, error) -> Platform.runLater(() -> {
+                            exportToFile.setDisable(false);
+                            if (error == null) {
+                                showSaveSuccess("Export Successful",
+                                        "Keystore exported successfully to " + file.getAbsolutePath());
+                            } else {
+                                showSaveFailure("Export Failed", "Failed to export keystore: ", error);
+                            }
+                        }));
             }
         }
     }
 
+    private void saveKeystore() {
+        saveKeystore.setDisable(true);
+        keystoreManager.saveKeystore().whenComplete((result, error) -> Platform.runLater(() -> {
+            saveKeystore.setDisable(false);
+            updateHistoryButtons();
+            if (error != null) {
+                showSaveFailure("Save Failed", "Failed to save keystore: ", error);
+            } else if (result == SaveResult.UNCHANGED) {
+                showSaveSuccess("Save Keystore", "There are no changes to save.");
+            } else {
+                showSaveSuccess("Save Successful", "Keystore saved successfully to " + keystorePathLabel.getText());
+            }
+        }));
+    }
+
+    private void showSaveSuccess(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    private void showSaveFailure(String title, String message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message + cause.getMessage());
+        alert.showAndWait();
+    }
+
     private void addCertificate() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Select Certificate");
@@ -222,16 +742,17 @@ public class KeystoreDetailsController {
                 Optional<String> aliasResult = aliasDialog.showAndWait();
                 if (aliasResult.isPresent()) {
                     String alias = aliasResult.get();
-                    keystoreManager.getKeystore().setCertificateEntry(alias, cert);
+                    keystoreManager.addCertificateEntry(alias, cert);
+                    applySearch();
+                    tableView.refresh();
+                    validateChains();
+                    updateHistoryButtons();
 
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
                     alert.setTitle("Add Certificate");
                     alert.setHeaderText(null);
                     alert.setContentText("Certificate added successfully.");
                     alert.showAndWait();
-
-                    // Refresh the table view
-                    tableView.getItems().setAll(keystoreManager.getKeystoreEntries());
                 }
             } catch (Exception e) {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -242,4 +763,285 @@ public class KeystoreDetailsController {
             }
         }
     }
+
+    private void importCertificates() {
+        ButtonType directory = new ButtonType("Directory");
+        ButtonType file = new ButtonType("File or Archive");
+        Alert choice = new Alert(Alert.AlertType.CONFIRMATION);
+        choice.setTitle("Import Certificates");
+        choice.setHeaderText("Import certificates from a directory, or from a zip, PEM or P7B bundle?");
+        choice.getButtonTypes().setAll(directory, file, ButtonType.CANCEL);
+
+        Optional<ButtonType> choiceResult = choice.showAndWait();
+        File source = null;
+        if (choiceResult.isPresent() && choiceResult.get() == directory) {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("Select Certificate Directory");
+            source = directoryChooser.showDialog(importCerts.getScene().getWindow());
+        } else if (choiceResult.isPresent() && choiceResult.get() == file) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select Certificate Bundle");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Certificate Bundles",
+                    "*.zip", "*.pem", "*.p7b", "*.p7c", "*.cer", "*.crt", "*.der"));
+            source = fileChooser.showOpenDialog(importCerts.getScene().getWindow());
+        }
+        if (source == null) {
+            return;
+        }
+
+        importCerts.setDisable(true);
+        CertificateImportTask task = keystoreManager.importCertificatesAsync(source.toPath());
+        task.setOnSucceeded(event -> {
+            importCerts.setDisable(false);
+            try {
+                keystoreManager.addCertificateEntries(task.getValue());
+                applySearch();
+                tableView.refresh();
+                validateChains();
+                updateHistoryButtons();
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Import Certificates");
+                alert.setHeaderText(null);
+                alert.setContentText("Imported " + task.getValue().size() + " certificates."
+                        + (task.getDuplicates() == 0 ? "" : "\nSkipped " + task.getDuplicates()
+                        + " certificates already in the keystore.")
+                        + (task.getFailures().isEmpty() ? "" : "\nSkipped " + task.getFailures().size()
+                        + " unreadable files:\n"
+                        + String.join("\n", task.getFailures().subList(0, Math.min(10, task.getFailures().size())))));
+                alert.showAndWait();
+            } catch (KeyStoreException e) {
+                showImportFailure(e);
+            }
+        });
+        task.setOnFailed(event -> {
+            importCerts.setDisable(false);
+            showImportFailure(task.getException());
+        });
+    }
+
+    /**
+     * Imports CRL files and highlights the entries they revoke.
+     */
+    private void importCrls() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import CRLs");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CRL Files", "*.crl", "*.pem", "*.der"));
+        List<File> files = fileChooser.showOpenMultipleDialog(importCrls.getScene().getWindow());
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        importCrls.setDisable(true);
+        crlStore.importCrls(files.stream().map(File::toPath).toList())
+                .whenComplete((imported, error) -> Platform.runLater(() -> {
+                    importCrls.setDisable(false);
+                    tableView.refresh();
+                    showCrlResult("Import CRLs", imported, error);
+                }));
+    }
+
+    /**
+     * Fetches the CRLs of the distribution points named by the entries and highlights the entries
+     * they revoke.
+     */
+    private void fetchCrls() {
+        fetchCrls.setDisable(true);
+        crlStore.fetchDistributionPoints()
+                .whenComplete((fetched, error) -> Platform.runLater(() -> {
+                    fetchCrls.setDisable(false);
+                    tableView.refresh();
+                    showCrlResult("Fetch CRLs", fetched, error);
+                }));
+    }
+
+    private void showCrlResult(String title, List<CrlIndex> crls, Throwable error) {
+        Alert alert = new Alert(error == null ? Alert.AlertType.INFORMATION : Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            alert.setContentText("Failed to read the CRLs: " + cause.getMessage());
+        } else if (crls.isEmpty()) {
+            alert.setContentText("No CRL was fetched: the certificates name no HTTP CRL distribution points, "
+                    + "or none of them could be reached.");
+        } else {
+            // Counted from the aliases, which unlike the rows need no decoding
+            Map<Revocation.Status, Long> statuses = keystoreManager.getAliases().stream()
+                    .collect(Collectors.groupingBy(alias -> crlStore.check(alias).status(), Collectors.counting()));
+            long unverified = crls.stream().filter(crl -> crl.verifiedBy() == null).count();
+            alert.setContentText("Read " + crls.size() + " CRLs:\n" + crls.stream().map(CrlIndex::toString)
+                    .collect(Collectors.joining("\n")) + "\n"
+                    + statuses.getOrDefault(Revocation.Status.REVOKED, 0L) + " certificates of the keystore are revoked"
+                    + " and the status of " + statuses.getOrDefault(Revocation.Status.UNKNOWN, 0L) + " is unknown."
+                    + (unverified == 0 ? "" : "\n" + unverified + " CRLs could not be verified with a CA certificate"
+                    + " of the keystore, so the certificates they do not list are reported as unknown."));
+        }
+        alert.showAndWait();
+    }
+
+    private void configureCompareTab() {
+        differenceKindColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().kind()));
+        differenceAliasColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().alias()));
+        differenceCurrentAliasColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(
+                cell.getValue().kind() == KeystoreDiff.Kind.MOVED ? cell.getValue().targetAlias() : null));
+        differenceSourceColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().sourceFingerprint()));
+        differenceTargetColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().targetFingerprint()));
+        differencesTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        mergeDifferences.disableProperty().bind(differencesTable.getSelectionModel().selectedItemProperty().isNull());
+
+        openWorkspaceKeystores.setOnAction(event -> openWorkspaceKeystores());
+        compareWith.setOnAction(event -> compareWithSelected());
+        mergeDifferences.setOnAction(event -> mergeSelectedDifferences());
+    }
+
+    /**
+     * Opens keystores sharing one password into the workspace and compares the first of them with
+     * the current keystore.
+     */
+    private void openWorkspaceKeystores() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Keystores to Compare");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Keystore Files",
+                "*.jks", "*.p12", "*.pfx", "*.keystore", "*.truststore"));
+        List<File> files = fileChooser.showOpenMultipleDialog(openWorkspaceKeystores.getScene().getWindow());
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        TextInputDialog passwordDialog = new TextInputDialog();
+        passwordDialog.setTitle("Keystore Password");
+        passwordDialog.setHeaderText("Enter the password of the selected keystores:");
+        passwordDialog.setContentText("Password:");
+        Optional<String> passwordResult = passwordDialog.showAndWait();
+        if (passwordResult.isEmpty()) {
+            return;
+        }
+
+        openWorkspaceKeystores.setDisable(true);
+        diffSummary.setText("Opening " + files.size() + " keystores...");
+        workspace.open(files.stream().map(File::toPath).toList(), passwordResult.get().toCharArray())
+                .whenComplete((opened, error) -> Platform.runLater(() -> {
+                    openWorkspaceKeystores.setDisable(false);
+                    compareWith.getItems().setAll(workspace.getKeystores());
+                    if (error != null) {
+                        diffSummary.setText("");
+                        showCompareFailure("Failed to open keystores", error);
+                        return;
+                    }
+                    compareWith.getSelectionModel().select(opened.getFirst());
+                }));
+    }
+
+    private void compareWithSelected() {
+        WorkspaceKeystore source = compareWith.getValue();
+        if (source == null || !keystoreManager.isKeystoreLoaded()) {
+            differencesTable.getItems().clear();
+            return;
+        }
+        List<String> aliases = keystoreManager.getAliases();
+        workspace.diffWithCurrent(source).whenComplete((diff, error) -> Platform.runLater(() -> {
+            if (compareWith.getValue() != source || keystoreManager.getAliases() != aliases) {
+                return;
+            }
+            if (error != null) {
+                showCompareFailure("Failed to compare keystores", error);
+                return;
+            }
+            comparedAliases = aliases;
+            differencesTable.getItems().setAll(diff.differences());
+            diffSummary.setText(diff.differences().isEmpty() ? "The keystores hold the same certificates."
+                    : diff.count(KeystoreDiff.Kind.ADDED) + " added, " + diff.count(KeystoreDiff.Kind.REMOVED)
+                    + " removed, " + diff.count(KeystoreDiff.Kind.CHANGED) + " changed and "
+                    + diff.count(KeystoreDiff.Kind.MOVED) + " moved in " + source.path().getFileName() + "."
+                    + (diff.count(KeystoreDiff.Kind.KEY_ENTRY) > 0 ? " " + diff.count(KeystoreDiff.Kind.KEY_ENTRY)
+                    + " private key entries hold other certificates." : ""));
+        }));
+    }
+
+    /**
+     * Applies the selected differences to the current keystore in one batch, then compares again.
+     */
+    private void mergeSelectedDifferences() {
+        WorkspaceKeystore source = compareWith.getValue();
+        List<KeystoreDiff.Difference> selected = List.copyOf(differencesTable.getSelectionModel().getSelectedItems());
+        if (source == null || selected.isEmpty()) {
+            return;
+        }
+        if (keystoreManager.getAliases() != comparedAliases) {
+            // Another keystore was opened since the comparison
+            compareWithSelected();
+            return;
+        }
+        List<String> keyEntries = KeystoreDiff.keyEntriesReplacedBy(selected);
+        if (!keyEntries.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+            alert.setTitle("Replace Key Entries");
+            alert.setHeaderText("Are you sure you want to replace these private key entries with certificates?");
+            alert.setContentText("Aliases: " + String.join(", ", keyEntries)
+                    + "\nTheir private keys are deleted once the keystore is saved.");
+            ButtonType buttonTypeYes = new ButtonType("Yes");
+            ButtonType buttonTypeNo = new ButtonType("No", ButtonBar.ButtonData.CANCEL_CLOSE);
+            alert.getButtonTypes().setAll(buttonTypeYes, buttonTypeNo);
+            Optional<ButtonType> result = alert.showAndWait();
+            if (result.isEmpty() || result.get() != buttonTypeYes) {
+                return;
+            }
+        }
+        try {
+            KeystoreDiff.Merge merge = workspace.mergeIntoCurrent(selected, source, !keyEntries.isEmpty());
+            applySearch();
+            tableView.refresh();
+            validateChains();
+            updateHistoryButtons();
+            compareWithSelected();
+            diffSummary.setText("Merged " + merge.additions().size() + " certificates and removed "
+                    + merge.removals().size() + " entries. Save the keystore to keep the changes.");
+        } catch (KeyStoreException e) {
+            showCompareFailure("Failed to merge differences", e);
+        }
+    }
+
+    private void configureDiagnosticsTab() {
+        phaseColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().phase()));
+        phaseCountColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().count()));
+        phaseItemsColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().items()));
+        phaseTotalColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().totalMillis()));
+        phaseP50Column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().p50Millis()));
+        phaseP90Column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().p90Millis()));
+        phaseP99Column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().p99Millis()));
+        phaseMaxColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().maxMillis()));
+        for (TableColumn<OperationMetrics.Summary, Double> column : List.of(phaseTotalColumn, phaseP50Column,
+                phaseP90Column, phaseP99Column, phaseMaxColumn)) {
+            column.setCellFactory(DisplayFormat.millisCells());
+        }
+        refreshDiagnostics.setOnAction(event -> refreshDiagnostics());
+        diagnosticsTab.setOnSelectionChanged(event -> {
+            if (diagnosticsTab.isSelected()) {
+                refreshDiagnostics();
+            }
+        });
+    }
+
+    private void refreshDiagnostics() {
+        OperationMetrics metrics = keystoreManager.getMetrics();
+        phaseTable.getItems().setAll(metrics.summaries());
+        recentOperations.getItems().setAll(metrics.recentSamples().stream()
+                .map(DisplayFormat::operationSample)
+                .toList());
+    }
+
+    private void showCompareFailure(String message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Compare Keystores Failed");
+        alert.setHeaderText(null);
+        alert.setContentText(message + ": " + cause.getMessage());
+        alert.showAndWait();
+    }
+
+    private void showImportFailure(Throwable e) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Import Certificates Failed");
+        alert.setHeaderText(null);
+        alert.setContentText("Failed to import certificates: " + e.getMessage());
+        alert.showAndWait();
+    }
 }
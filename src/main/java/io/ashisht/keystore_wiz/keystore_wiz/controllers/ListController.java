@@ -15,20 +15,54 @@
  */
 package io.ashisht.keystore_wiz.keystore_wiz.controllers;
 
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
+import io.ashisht.keystore_wiz.keystore_wiz.core.UnlockedKey;
+import io.ashisht.keystore_wiz.keystore_wiz.core.asn1.Asn1Node;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.ChainIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.CrlStore;
 import io.ashisht.keystore_wiz.keystore_wiz.events.SceneChangeEvent;
+import io.ashisht.keystore_wiz.keystore_wiz.models.CertificateDetails;
 import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.PasswordField;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import java.security.UnrecoverableKeyException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Controls the certificate detail window. A single window is reused for every certificate and
+ * rebound to the selected entry; the details beyond the table columns are extracted on a
+ * background thread and cached per alias by the {@link KeystoreManager}, as is the DER structure
+ * tree of the Structure tab. The private key of a key entry is only decrypted when the user
+ * unlocks it.
+ */
 @Component
 public class ListController {
     private final ApplicationContext context;
     private final Resource detailFxml;
+    private final KeystoreManager keystoreManager;
+    private final CrlStore crlStore;
+    private Stage detailStage;
+    private String shownAlias;
 
     @FXML
     private Label aliasLabel;
@@ -48,18 +82,235 @@ public class ListController {
     @FXML
     private Label validUntil;
 
-    public ListController(ApplicationContext context, @Value("classpath:/detail.fxml") Resource detailFxml) {
+    @FXML
+    private ListView<String> detailsList;
+
+    @FXML
+    private Button unlockKey;
+
+    @FXML
+    private Tab structureTab;
+
+    @FXML
+    private TreeView<Asn1Node> structureTree;
+
+    public ListController(ApplicationContext context, @Value("classpath:/detail.fxml") Resource detailFxml,
+                          KeystoreManager keystoreManager, CrlStore crlStore) {
         this.context = context;
         this.detailFxml = detailFxml;
+        this.keystoreManager = keystoreManager;
+        this.crlStore = crlStore;
     }
 
+    /**
+     * Shows an entry in the detail window, opening the window if it is not showing yet.
+     *
+     * @param rowData The entry to show.
+     */
     public void addSecondaryStage(KeystoreEntry rowData) {
-        this.context.publishEvent(new SceneChangeEvent<>(new Stage(), detailFxml, true));
+        if (detailStage == null) {
+            detailStage = new Stage();
+        }
+        if (detailStage.isShowing()) {
+            detailStage.toFront();
+        } else {
+            this.context.publishEvent(new SceneChangeEvent<>(detailStage, detailFxml, true));
+        }
+        detailStage.setTitle(rowData.getAlias());
         this.aliasLabel.setText(rowData.getAlias());
         this.certName.setText(rowData.getAlias());
         this.issuedTo.setText(rowData.getSubject());
         this.issuedBy.setText(rowData.getIssuer());
-        this.validFrom.setText(rowData.getStartDate());
-        this.validUntil.setText(rowData.getEndDate());
+        this.validFrom.setText(DisplayFormat.dateTime(rowData.getStartDate()));
+        this.validUntil.setText(DisplayFormat.dateTime(rowData.getEndDate()));
+        this.unlockKey.setVisible(rowData.isKeyEntry());
+        this.unlockKey.setDisable(false);
+        this.unlockKey.setOnAction(event -> unlockKey(rowData.getAlias(), null));
+        showDetails(rowData.getAlias(), rowData.isKeyEntry());
+        structureTree.setRoot(null);
+        structureTab.setOnSelectionChanged(event -> showStructure(rowData.getAlias()));
+        showStructure(rowData.getAlias());
+    }
+
+    /**
+     * Shows the DER structure of the certificate once the Structure tab is selected. Nodes are
+     * decoded as they are expanded, and stay decoded for as long as the manager caches the tree.
+     */
+    private void showStructure(String alias) {
+        if (!structureTab.isSelected() || structureTree.getRoot() != null) {
+            return;
+        }
+        keystoreManager.getCertificateStructureAsync(alias).whenComplete((structure, e) -> Platform.runLater(() -> {
+            // A failure is reported by the Details tab, which reads the same certificate
+            if (alias.equals(shownAlias) && structureTree.getRoot() == null && structure != null) {
+                TreeItem<Asn1Node> root = new Asn1TreeItem(structure);
+                root.setExpanded(true);
+                structureTree.setRoot(root);
+            }
+        }));
+    }
+
+    private void showDetails(String alias, boolean keyEntry) {
+        shownAlias = alias;
+        detailsList.getItems().setAll("Loading...");
+        keystoreManager.getCertificateDetailsAsync(alias).whenComplete((details, e) -> Platform.runLater(() -> {
+            if (!alias.equals(shownAlias)) {
+                return;
+            }
+            if (e != null) {
+                detailsList.getItems().setAll("Failed to read certificate: " + e.getMessage());
+            } else if (details != null) {
+                detailsList.getItems().setAll(describe(details));
+                showChain(alias);
+                if (keyEntry) {
+                    showKeyChain(alias);
+                }
+            } else {
+                detailsList.getItems().clear();
+            }
+        }));
+    }
+
+    /**
+     * Prepends the certificate chain and the revocation status to the details once the indexes
+     * are complete and the chain is resolved.
+     */
+    private void showChain(String alias) {
+        keystoreManager.getChainAsync(alias).whenComplete((chain, e) -> Platform.runLater(() -> {
+            if (!alias.equals(shownAlias)) {
+                return;
+            }
+            List<String> lines = chain == null ? new ArrayList<>() : describe(chain);
+            lines.add("Revocation: " + crlStore.check(alias).describe());
+            detailsList.getItems().addAll(0, lines);
+        }));
+    }
+
+    /**
+     * Appends the certificate chain stored with a key entry, which is read without decrypting
+     * the key.
+     */
+    private void showKeyChain(String alias) {
+        keystoreManager.getCertificateChainAsync(alias).whenComplete((chain, e) -> Platform.runLater(() -> {
+            if (!alias.equals(shownAlias)) {
+                return;
+            }
+            if (e != null) {
+                detailsList.getItems().add("Failed to read the key chain: " + e.getMessage());
+            } else if (chain != null) {
+                detailsList.getItems().add("Key chain:");
+                for (int i = 0; i < chain.size(); i++) {
+                    X509Certificate cert = chain.get(i);
+                    detailsList.getItems().add("    ".repeat(i + 1) + cert.getSubjectX500Principal().getName());
+                }
+            }
+        }));
+    }
+
+    /**
+     * Decrypts the private key of a key entry, first with the keystore password and then with
+     * the password the user enters until it is right or the prompt is cancelled.
+     *
+     * @param alias    The alias of the key entry.
+     * @param password The password to try, or {@code null} for the keystore password.
+     */
+    private void unlockKey(String alias, char[] password) {
+        unlockKey.setDisable(true);
+        keystoreManager.unlockKeyAsync(alias, password).whenComplete((key, e) -> Platform.runLater(() -> {
+            if (!alias.equals(shownAlias)) {
+                return;
+            }
+            unlockKey.setDisable(false);
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause instanceof UnrecoverableKeyException) {
+                askKeyPassword(alias, password != null).ifPresent(entered -> unlockKey(alias, entered));
+            } else if (cause != null) {
+                detailsList.getItems().add(0, "Failed to unlock the private key: " + cause.getMessage());
+            } else if (key != null) {
+                unlockKey.setDisable(true);
+                detailsList.getItems().add(0, describe(key));
+            }
+        }));
+    }
+
+    private Optional<char[]> askKeyPassword(String alias, boolean retry) {
+        PasswordField passwordField = new PasswordField();
+        Dialog<char[]> dialog = new Dialog<>();
+        dialog.setTitle("Key Password");
+        dialog.setHeaderText((retry ? "Wrong password. " : "The keystore password does not unlock this key. ")
+                + "Enter the password of " + alias + ":");
+        dialog.getDialogPane().setContent(passwordField);
+        dialog.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> button == ButtonType.OK ? passwordField.getText().toCharArray() : null);
+        Platform.runLater(passwordField::requestFocus);
+        return dialog.showAndWait();
+    }
+
+    private static String describe(UnlockedKey key) {
+        String check;
+        if (key.matchesCertificate() == null) {
+            check = "cannot be checked against the certificate";
+        } else {
+            check = key.matchesCertificate() ? "matches the certificate" : "does not match the certificate";
+        }
+        return "Private key: " + key.key().getAlgorithm() + ", unlocked, " + check;
+    }
+
+    /**
+     * A tree item that creates the items of its children the first time they are asked for, which
+     * is when it is first expanded.
+     */
+    private static final class Asn1TreeItem extends TreeItem<Asn1Node> {
+        private boolean childrenCreated;
+
+        Asn1TreeItem(Asn1Node node) {
+            super(node);
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return !getValue().hasChildren();
+        }
+
+        @Override
+        public ObservableList<TreeItem<Asn1Node>> getChildren() {
+            if (!childrenCreated) {
+                childrenCreated = true;
+                List<TreeItem<Asn1Node>> items = new ArrayList<>();
+                for (Asn1Node child : getValue().children()) {
+                    items.add(new Asn1TreeItem(child));
+                }
+                super.getChildren().setAll(items);
+            }
+            return super.getChildren();
+        }
+    }
+
+    private static List<String> describe(ChainIndex.Chain chain) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Chain: " + chain.status().name().toLowerCase()
+                + (chain.problem() == null ? "" : " - " + chain.problem()));
+        for (int i = 0; i < chain.aliases().size(); i++) {
+            lines.add("    ".repeat(i + 1) + chain.aliases().get(i));
+        }
+        return lines;
+    }
+
+    private static List<String> describe(CertificateDetails details) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Serial number: " + details.getSerialNumber());
+        lines.add("Signature algorithm: " + details.getSignatureAlgorithm());
+        lines.add("Public key: " + details.getPublicKey());
+        lines.add("SHA-256: " + details.getSha256());
+        lines.add("SHA-1: " + details.getSha1());
+        lines.add("Subject alternative names: " + String.join(", ", details.getSubjectAlternativeNames()));
+        lines.add("Key usage: " + String.join(", ", details.getKeyUsage()));
+        lines.add("Extended key usage: " + String.join(", ", details.getExtendedKeyUsage()));
+        lines.add("Basic constraints: " + details.getBasicConstraints());
+        lines.add("Extensions:");
+        for (String extension : details.getExtensions()) {
+            lines.add("    " + extension);
+        }
+        return lines;
     }
 }
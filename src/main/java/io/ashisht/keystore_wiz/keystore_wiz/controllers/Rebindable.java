@@ -0,0 +1,31 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.controllers;
+
+/**
+ * A controller whose scene is cached and shown again on later navigations.
+ *
+ * <p>{@code initialize()} runs only once, possibly on a background thread while the scene is
+ * preloaded, so it must not depend on the loaded keystore. Anything that does belongs in
+ * {@link #rebind()}, which runs on the JavaFX application thread every time the scene is shown.
+ */
+public interface Rebindable {
+
+    /**
+     * Binds the controller's scene to the current state of the application before it is shown.
+     */
+    void rebind();
+}
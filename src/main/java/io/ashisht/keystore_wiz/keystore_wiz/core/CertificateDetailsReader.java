@@ -0,0 +1,132 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.asn1.OidNames;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.models.CertificateDetails;
+
+import java.security.PublicKey;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.DSAKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts the {@link CertificateDetails} of a certificate.
+ */
+final class CertificateDetailsReader {
+    private static final String[] KEY_USAGES = {"digitalSignature", "nonRepudiation", "keyEncipherment",
+            "dataEncipherment", "keyAgreement", "keyCertSign", "cRLSign", "encipherOnly", "decipherOnly"};
+
+    private CertificateDetailsReader() {
+    }
+
+    static CertificateDetails read(String alias, X509Certificate cert) {
+        FingerprintIndex.Fingerprints fingerprints = FingerprintIndex.fingerprints(cert);
+        return CertificateDetails.builder().alias(alias)
+                .serialNumber(cert.getSerialNumber().toString(16))
+                .signatureAlgorithm(cert.getSigAlgName())
+                .publicKey(describeKey(cert.getPublicKey()))
+                .sha256(fingerprints.sha256())
+                .sha1(fingerprints.sha1())
+                .subjectAlternativeNames(subjectAlternativeNames(cert))
+                .keyUsage(keyUsage(cert))
+                .extendedKeyUsage(extendedKeyUsage(cert))
+                .basicConstraints(basicConstraints(cert))
+                .extensions(extensions(cert)).build();
+    }
+
+    static String describeKey(PublicKey key) {
+        int bits = switch (key) {
+            case RSAKey rsa -> rsa.getModulus().bitLength();
+            case ECKey ec -> ec.getParams().getCurve().getField().getFieldSize();
+            case DSAKey dsa -> dsa.getParams().getP().bitLength();
+            default -> 0;
+        };
+        return bits > 0 ? key.getAlgorithm() + " " + bits + " bits" : key.getAlgorithm();
+    }
+
+    private static List<String> subjectAlternativeNames(X509Certificate cert) {
+        List<String> names = new ArrayList<>();
+        try {
+            Collection<List<?>> sans = cert.getSubjectAlternativeNames();
+            if (sans != null) {
+                for (List<?> san : sans) {
+                    String type = switch ((Integer) san.get(0)) {
+                        case 1 -> "email";
+                        case 2 -> "DNS";
+                        case 6 -> "URI";
+                        case 7 -> "IP";
+                        default -> "other";
+                    };
+                    names.add(type + ":" + san.get(1));
+                }
+            }
+        } catch (CertificateParsingException e) {
+            names.add("unparseable: " + e.getMessage());
+        }
+        return names;
+    }
+
+    private static List<String> keyUsage(X509Certificate cert) {
+        List<String> usages = new ArrayList<>();
+        boolean[] bits = cert.getKeyUsage();
+        if (bits != null) {
+            for (int i = 0; i < bits.length && i < KEY_USAGES.length; i++) {
+                if (bits[i]) {
+                    usages.add(KEY_USAGES[i]);
+                }
+            }
+        }
+        return usages;
+    }
+
+    private static List<String> extendedKeyUsage(X509Certificate cert) {
+        try {
+            List<String> oids = cert.getExtendedKeyUsage();
+            return oids == null ? List.of() : oids.stream().map(OidNames::describe).toList();
+        } catch (CertificateParsingException e) {
+            return List.of("unparseable: " + e.getMessage());
+        }
+    }
+
+    private static String basicConstraints(X509Certificate cert) {
+        int pathLength = cert.getBasicConstraints();
+        if (pathLength < 0) {
+            return "end entity";
+        }
+        return pathLength == Integer.MAX_VALUE ? "CA, unlimited path length" : "CA, path length " + pathLength;
+    }
+
+    private static List<String> extensions(X509Certificate cert) {
+        List<String> extensions = new ArrayList<>();
+        addExtensions(extensions, cert.getCriticalExtensionOIDs(), " (critical)");
+        addExtensions(extensions, cert.getNonCriticalExtensionOIDs(), "");
+        return extensions;
+    }
+
+    private static void addExtensions(List<String> extensions, Set<String> oids, String suffix) {
+        if (oids != null) {
+            oids.stream().sorted().forEach(oid -> extensions.add(OidNames.describe(oid) + suffix));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.AliasTemplate;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.CertificateImporter;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportPlan;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import javafx.concurrent.Task;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Parses certificates for a bulk import off the JavaFX application thread and plans the import
+ * with {@link ImportPlan}: certificates already in the keystore, or repeated within the batch, are
+ * skipped, and the rest get aliases that do not clash with the keystore or with each other.
+ *
+ * <p>The task does not modify the keystore; its value is the batch to pass to
+ * {@link KeystoreManager#addCertificateEntries(Map)}.
+ */
+public class CertificateImportTask extends Task<Map<String, X509Certificate>> {
+    private final CertificateImporter importer;
+    private final AliasTemplate aliasTemplate;
+    private final Path source;
+    private final Set<String> existingAliases;
+    private final FingerprintIndex fingerprintIndex;
+    private final CompletableFuture<Void> indexing;
+    private final OperationMetrics metrics;
+
+    /**
+     * -- GETTER --
+     *  Returns the sources that could not be parsed, once the task has succeeded.
+     */
+    @Getter
+    private volatile List<String> failures = List.of();
+
+    /**
+     * -- GETTER --
+     *  Returns the number of certificates skipped because they are already in the keystore, once the task has succeeded.
+     */
+    @Getter
+    private volatile int duplicates;
+
+    CertificateImportTask(CertificateImporter importer, AliasTemplate aliasTemplate, Path source, Set<String> existingAliases,
+                          FingerprintIndex fingerprintIndex, CompletableFuture<Void> indexing, OperationMetrics metrics) {
+        this.importer = importer;
+        this.aliasTemplate = aliasTemplate;
+        this.source = source;
+        this.existingAliases = existingAliases;
+        this.fingerprintIndex = fingerprintIndex;
+        this.indexing = indexing;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected Map<String, X509Certificate> call() throws Exception {
+        updateMessage("Reading certificates from " + source + "...");
+        ImportResult result;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.IMPORT, source)) {
+            result = importer.parse(source);
+            span.items(result.certificates().size());
+        }
+        failures = result.failures();
+        if (!indexing.isDone()) {
+            // Duplicates can only be told apart once every certificate in the keystore is indexed
+            updateMessage("Waiting for the keystore to be indexed...");
+            indexing.exceptionally(e -> null).join();
+        }
+
+        ImportPlan plan = ImportPlan.of(result, aliasTemplate, existingAliases, fingerprintIndex, this::isCancelled);
+        if (isCancelled()) {
+            return null;
+        }
+        Map<String, X509Certificate> batch = plan.batch();
+        duplicates = plan.duplicates();
+        updateMessage("Parsed " + batch.size() + " certificates.");
+        return batch;
+    }
+}
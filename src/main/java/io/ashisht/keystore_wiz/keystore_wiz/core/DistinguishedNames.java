@@ -0,0 +1,46 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import javax.security.auth.x500.X500Principal;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the string form of issuer names between entries.
+ *
+ * <p>Large keystores typically hold thousands of certificates from a few dozen issuers. Names
+ * are looked up by their DER encoding, so an issuer seen before is neither formatted again nor
+ * stored twice. Subject names are only shared if they were seen as an issuer, which covers the
+ * CA certificates without keeping every unique subject in the pool.
+ */
+class DistinguishedNames {
+    private final Map<ByteBuffer, String> names = new ConcurrentHashMap<>();
+
+    String issuer(X500Principal principal) {
+        return names.computeIfAbsent(ByteBuffer.wrap(principal.getEncoded()), key -> principal.getName());
+    }
+
+    String subject(X500Principal principal) {
+        String shared = names.get(ByteBuffer.wrap(principal.getEncoded()));
+        return shared != null ? shared : principal.getName();
+    }
+
+    void clear() {
+        names.clear();
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A sidecar file next to a keystore recording the edits made to it since it was last saved, so
+ * that they survive a crash and are replayed when the keystore is opened again.
+ *
+ * <p>The file is only ever appended to. Every edit is written as one transaction, a line per
+ * deleted and per added alias between a {@code begin} and a {@code commit} line, and forced to
+ * disk before the edit is published; undo and redo are recorded as lines of their own. A
+ * transaction cut short by a crash is ignored on replay. The file is rewritten once the keystore is saved to its own
+ * file, keeping only the edits made while the save was running.
+ */
+final class EditJournal implements Closeable {
+    private static final String HEADER = "keystore-wiz-journal 1";
+
+    /**
+     * One transaction of the journal.
+     *
+     * @param additions The certificates stored, keyed by alias.
+     * @param removals  The aliases deleted, applied before the additions.
+     */
+    record Edit(Map<String, ? extends Certificate> additions, Collection<String> removals) {
+    }
+
+    /**
+     * The edits read from a journal.
+     *
+     * @param edits    The edits in the order they were made, including those undone.
+     * @param position The number of edits in effect; the following ones were undone and can be redone.
+     */
+    record Replay(List<Edit> edits, int position) {
+    }
+
+    private final Path file;
+    private FileChannel channel;
+
+    /**
+     * @param keystore The keystore file the journal belongs to.
+     */
+    EditJournal(Path keystore) {
+        this.file = keystore.resolveSibling("." + keystore.getFileName() + ".journal");
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the edits recorded in the journal.
+     *
+     * @return The edits, or {@code null} if there is no journal.
+     * @throws IOException If the journal cannot be read or is not a journal.
+     */
+    Replay read() throws IOException {
+        List<Edit> edits = new ArrayList<>();
+        int position = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException(file + " is not an edit journal");
+            }
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            // Null outside a transaction, and after a line left incomplete by a crash
+            Map<String, Certificate> additions = null;
+            Set<String> removals = null;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(" ");
+                try {
+                    switch (fields[0]) {
+                        case "begin" -> {
+                            additions = new LinkedHashMap<>();
+                            removals = new LinkedHashSet<>();
+                        }
+                        case "add" -> {
+                            if (additions != null) {
+                                additions.put(decodeAlias(fields[1]), factory.generateCertificate(
+                                        new ByteArrayInputStream(Base64.getDecoder().decode(fields[2]))));
+                            }
+                        }
+                        case "delete" -> {
+                            if (removals != null) {
+                                removals.add(decodeAlias(fields[1]));
+                            }
+                        }
+                        case "commit" -> {
+                            if (additions != null) {
+                                edits.subList(position, edits.size()).clear();
+                                edits.add(new Edit(additions, removals));
+                                position++;
+                            }
+                            additions = null;
+                            removals = null;
+                        }
+                        case "undo" -> position = Math.max(position - 1, 0);
+                        case "redo" -> position = Math.min(position + 1, edits.size());
+                        default -> {
+                            additions = null;
+                            removals = null;
+                        }
+                    }
+                } catch (CertificateException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    additions = null;
+                    removals = null;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (CertificateException e) {
+            throw new IOException("Failed to read edit journal " + file, e);
+        }
+        return new Replay(edits, position);
+    }
+
+    /**
+     * Records an edit.
+     *
+     * @throws IOException If the edit cannot be written.
+     */
+    void append(Edit edit) throws IOException {
+        write(format(edit));
+    }
+
+    /**
+     * Records that the last edit in effect was undone.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    void appendUndo() throws IOException {
+        write("undo\n");
+    }
+
+    /**
+     * Records that the first undone edit was redone.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    void appendRedo() throws IOException {
+        write("redo\n");
+    }
+
+    /**
+     * Replaces the journal after the keystore was saved to its own file.
+     *
+     * @param pending The edits not included in the save, or {@code null} to delete the journal.
+     * @throws IOException If the journal cannot be written.
+     */
+    synchronized void reset(Edit pending) throws IOException {
+        close();
+        if (pending == null) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, HEADER + "\n" + format(pending), StandardCharsets.US_ASCII);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private synchronized void write(String transaction) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            if (channel.size() == 0) {
+                transaction = HEADER + "\n" + transaction;
+            } else {
+                // Start on a line of its own if the last write was cut short
+                ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, channel.size() - 1);
+                if (last.get(0) != '\n') {
+                    transaction = "\n" + transaction;
+                }
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(transaction.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private static String format(Edit edit) throws IOException {
+        StringBuilder transaction = new StringBuilder("begin\n");
+        for (String alias : edit.removals()) {
+            transaction.append("delete ").append(encodeAlias(alias)).append('\n');
+        }
+        try {
+            for (Map.Entry<String, ? extends Certificate> entry : edit.additions().entrySet()) {
+                transaction.append("add ").append(encodeAlias(entry.getKey())).append(' ')
+                        .append(Base64.getEncoder().encodeToString(entry.getValue().getEncoded())).append('\n');
+            }
+        } catch (CertificateEncodingException e) {
+            throw new IOException("Failed to encode certificate for the edit journal", e);
+        }
+        return transaction.append("commit\n").toString();
+    }
+
+    private static String encodeAlias(String alias) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(alias.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeAlias(String encoded) {
+        return new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork-join task that decodes a range of keystore aliases into {@link KeystoreEntry} objects.
+ *
+ * <p>The range is split in halves until it is small enough to decode sequentially. The left half
+ * is always joined before the right half, so the merged result keeps the order of the alias list.
+ */
+class EntryDecodeTask extends RecursiveTask<List<KeystoreEntry>> {
+    static final int LEAF_SIZE = 128;
+
+    private final Function<String, KeystoreEntry> decoder;
+    private final List<String> aliases;
+    private final int from;
+    private final int to;
+    private final IntConsumer onDecoded;
+    private final BooleanSupplier cancelled;
+
+    EntryDecodeTask(Function<String, KeystoreEntry> decoder, List<String> aliases, int from, int to,
+                    IntConsumer onDecoded, BooleanSupplier cancelled) {
+        this.decoder = decoder;
+        this.aliases = aliases;
+        this.from = from;
+        this.to = to;
+        this.onDecoded = onDecoded;
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    protected List<KeystoreEntry> compute() {
+        if (to - from <= LEAF_SIZE) {
+            return decodeRange();
+        }
+        int mid = (from + to) >>> 1;
+        EntryDecodeTask left = new EntryDecodeTask(decoder, aliases, from, mid, onDecoded, cancelled);
+        EntryDecodeTask right = new EntryDecodeTask(decoder, aliases, mid, to, onDecoded, cancelled);
+        right.fork();
+        List<KeystoreEntry> result = left.compute();
+        result.addAll(right.join());
+        return result;
+    }
+
+    private List<KeystoreEntry> decodeRange() {
+        List<KeystoreEntry> entries = new ArrayList<>(to - from);
+        for (int i = from; i < to && !cancelled.getAsBoolean(); i++) {
+            entries.add(decoder.apply(aliases.get(i)));
+            onDecoded.accept(1);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.cache.EntryMetadataCache;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Loads a keystore off the JavaFX application thread with a {@link KeystoreLoader}, exposing its
+ * progress through the task's message and progress properties.
+ *
+ * <p>Cancelling the task aborts loading and leaves the previously loaded keystore in place.
+ */
+public class KeystoreLoadTask extends Task<List<String>> {
+    private final KeystoreLoader loader;
+
+    KeystoreLoadTask(KeystoreManager keystoreManager, Path path, char[] password, boolean useIndex,
+                     EntryMetadataCache metadataCache) {
+        this.loader = new KeystoreLoader(keystoreManager, path, password, useIndex, metadataCache,
+                new KeystoreLoader.Listener() {
+                    @Override
+                    public void message(String message) {
+                        updateMessage(message);
+                    }
+
+                    @Override
+                    public void progress(double done) {
+                        updateProgress(done, 1.0);
+                    }
+                }, this::isCancelled);
+    }
+
+    @Override
+    protected List<String> call() throws Exception {
+        return loader.load();
+    }
+}
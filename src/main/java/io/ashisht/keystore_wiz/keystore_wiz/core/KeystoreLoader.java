@@ -0,0 +1,196 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.cache.EntryMetadataCache;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.IndexedKeystore;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.KeystoreIndexReader;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reads a keystore file and indexes its aliases, reporting progress through a {@link Listener}.
+ *
+ * <p>Progress is reported in two equally weighted phases: the bytes read from disk and the
+ * parsing of the keystore, followed by the number of entries indexed. Certificate metadata is not
+ * decoded here; the details view decodes rows lazily as they are displayed. Cancelling aborts
+ * either phase and leaves the previously loaded keystore in place.
+ *
+ * <p>With the index backend the file is read and scanned by {@link KeystoreIndexReader}
+ * instead; files it cannot index are loaded through {@link KeyStore} as usual.
+ *
+ * <p>Before either, the on-disk {@link EntryMetadataCache} is consulted. On a hit the table is
+ * filled from the cached metadata and the keystore file is not parsed at all.
+ *
+ * <p>The file is read into memory before it is parsed, so that {@link OperationMetrics} tell the
+ * time spent on I/O apart from the time spent parsing the keystore and verifying its MAC.
+ */
+@Slf4j
+class KeystoreLoader {
+    /**
+     * Receives progress updates; may be called from the loading thread only.
+     */
+    interface Listener {
+        void message(String message);
+
+        void progress(double done);
+    }
+
+    private final KeystoreManager keystoreManager;
+    private final Path path;
+    private final char[] password;
+    private final boolean useIndex;
+    private final EntryMetadataCache metadataCache;
+    private final Listener listener;
+    private final BooleanSupplier cancelled;
+
+    /**
+     * @param password  The keystore password; cleared once loading completes.
+     * @param cancelled Checked while loading; loading stops early once it returns {@code true}.
+     */
+    KeystoreLoader(KeystoreManager keystoreManager, Path path, char[] password, boolean useIndex,
+                   EntryMetadataCache metadataCache, Listener listener, BooleanSupplier cancelled) {
+        this.keystoreManager = keystoreManager;
+        this.path = path;
+        this.password = password;
+        this.useIndex = useIndex;
+        this.metadataCache = metadataCache;
+        this.listener = listener;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Loads the keystore and makes it the current one of the {@link KeystoreManager}.
+     *
+     * @return The certificate aliases, or {@code null} if loading was cancelled.
+     * @throws Exception If the keystore cannot be read.
+     */
+    List<String> load() throws Exception {
+        try {
+            if (metadataCache != null) {
+                listener.message("Checking metadata cache...");
+                Optional<List<KeystoreEntry>> cached;
+                try (OperationMetrics.Span span = metrics().start(OperationMetrics.Phase.CACHE_LOOKUP, path)) {
+                    cached = metadataCache.lookup(path, password);
+                    span.items(cached.map(List::size).orElse(0));
+                }
+                if (cached.isPresent() && !cancelled.getAsBoolean()) {
+                    keystoreManager.onKeystoreLoadedFromCache(path, cached.get(), password.clone());
+                    listener.progress(1.0);
+                    listener.message("Loaded " + cached.get().size() + " entries from cache.");
+                    return cached.get().stream().map(KeystoreEntry::getAlias).toList();
+                }
+            }
+            if (useIndex) {
+                List<String> aliases = openIndexed();
+                if (aliases != null || cancelled.getAsBoolean()) {
+                    return aliases;
+                }
+            }
+            KeyStore keystore = readKeystore();
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            List<String> aliases = indexAliases(keystore);
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            keystoreManager.onKeystoreLoaded(path, keystore, null, aliases, password.clone());
+            listener.message("Loaded " + aliases.size() + " entries.");
+            return aliases;
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    /**
+     * Opens the keystore through the index reader.
+     *
+     * @return The certificate aliases, or {@code null} if the file cannot be indexed and has to
+     * be loaded through {@link KeyStore} instead.
+     */
+    private List<String> openIndexed() throws Exception {
+        listener.message("Indexing keystore...");
+        IndexedKeystore index;
+        try {
+            index = KeystoreIndexReader.open(path, password, metrics());
+        } catch (KeyStoreException e) {
+            log.atInfo().log("Falling back to KeyStore for " + path + ": " + e.getMessage());
+            return null;
+        }
+        List<String> aliases = new ArrayList<>(index.size());
+        for (String alias : index.aliases()) {
+            if (index.isCertificateEntry(alias) || index.isKeyEntry(alias) && index.getEntry(alias).length() > 0) {
+                aliases.add(alias);
+            }
+        }
+        listener.progress(1.0);
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+        keystoreManager.onKeystoreLoaded(path, null, index, aliases, password.clone());
+        listener.message("Loaded " + aliases.size() + " entries.");
+        return aliases;
+    }
+
+    private KeyStore readKeystore() throws Exception {
+        long totalBytes = Math.max(Files.size(path), 1);
+        listener.message("Reading keystore...");
+        byte[] content;
+        try (OperationMetrics.Span span = metrics().start(OperationMetrics.Phase.READ, path);
+             InputStream in = new ProgressInputStream(Files.newInputStream(path), bytesRead -> {
+                 listener.progress(0.4 * bytesRead / totalBytes);
+                 listener.message("Read " + bytesRead / 1024 + " of " + totalBytes / 1024 + " KB");
+             }, cancelled)) {
+            content = in.readAllBytes();
+            span.items(content.length);
+        }
+        listener.message("Verifying keystore...");
+        KeyStore keystore = keystoreManager.parseKeystore(content, password, path);
+        listener.progress(0.5);
+        log.atInfo().log("Keystore read from " + path);
+        return keystore;
+    }
+
+    private List<String> indexAliases(KeyStore keystore) throws Exception {
+        int total = Math.max(keystore.size(), 1);
+        AtomicInteger indexed = new AtomicInteger();
+        try (OperationMetrics.Span span = metrics().start(OperationMetrics.Phase.LIST_ALIASES, path).items(total)) {
+            return keystoreManager.certificateAliases(keystore, count -> {
+                int done = indexed.addAndGet(count);
+                listener.progress(0.5 + 0.5 * done / total);
+                listener.message("Indexed " + done + " of " + total + " entries");
+            }, cancelled);
+        }
+    }
+
+    private OperationMetrics metrics() {
+        return keystoreManager.getMetrics();
+    }
+}
@@ -15,32 +15,299 @@
  */
 package io.ashisht.keystore_wiz.keystore_wiz.core;
 
+import io.ashisht.keystore_wiz.keystore_wiz.core.asn1.Asn1Node;
+import io.ashisht.keystore_wiz.keystore_wiz.core.cache.EntryMetadataCache;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.AliasTemplate;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.CertificateImporter;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportPlan;
+import io.ashisht.keystore_wiz.keystore_wiz.core.importer.ImportResult;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.CertificateIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.ChainIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.ExpiryIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.IndexedKeystore;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.SearchIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import io.ashisht.keystore_wiz.keystore_wiz.core.revocation.RevocationIndex;
+import io.ashisht.keystore_wiz.keystore_wiz.models.CertificateDetails;
 import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import jakarta.annotation.PreDestroy;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.FileInputStream;
+import javax.security.auth.x500.X500Principal;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
-@Getter
 @Component
 @Slf4j
 public class KeystoreManager {
+    private static final int DETAILS_CACHE_SIZE = 256;
 
     /**
      * -- GETTER --
-     *  Returns the loaded keystore.
-     *
+     *  Returns the current version of the loaded keystore. It can be read from any thread without
+     *  locking and stays the same however the keystore is edited afterwards, as every edit
+     *  publishes a new snapshot.
+     */
+    @Getter
+    private volatile KeystoreSnapshot snapshot = KeystoreSnapshot.EMPTY;
+
+    /**
+     * The keystore last loaded for editing in place of a read-only base, either the index of the
+     * {@code index} backend or the metadata cache, and the snapshot it was loaded for.
+     */
+    private KeystoreSnapshot promotedFrom;
+    private KeyStore promoted;
+
+    /**
+     * Entries read from the on-disk metadata cache. When the keystore was opened from the cache,
+     * the snapshot has no base until an entry is needed that the cache cannot provide.
+     */
+    private volatile Map<String, KeystoreEntry> cachedEntries = new ConcurrentHashMap<>();
+
+    private final DistinguishedNames distinguishedNames = new DistinguishedNames();
+
+    /**
+     * Recently viewed certificate details, dropped when their alias is modified.
+     */
+    private final Map<String, CertificateDetails> certificateDetails = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CertificateDetails> eldest) {
+                    return size() > DETAILS_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * The structure trees of recently viewed certificates, which keep the nodes decoded so far,
+     * dropped when their alias is modified.
+     */
+    private final Map<String, Asn1Node> certificateStructures = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Asn1Node> eldest) {
+                    return size() > DETAILS_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * -- GETTER --
+     *  Returns the certificate aliases of the loaded keystore. The list is bound to the UI and
+     *  must only be modified on the JavaFX application thread.
+     */
+    @Getter
+    private volatile ObservableList<String> aliases = FXCollections.observableArrayList();
+
+    /**
+     * -- GETTER --
+     *  Returns the file the loaded keystore was read from, or {@code null} if none is loaded.
+     */
+    @Getter
+    private volatile Path keystorePath;
+    private volatile char[] keystorePassword;
+
+    /**
+     * The size and modification time of the keystore file when it was last read or written by
+     * this manager, so {@link #reloadFromDisk()} skips reading it again after its own saves.
+     */
+    private volatile FileState fileState;
+
+    private record FileState(long size, long modified) {
+        static FileState of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ForkJoinPool decodePool;
+    private final int parallelThreshold;
+    private final int entryCacheSize;
+    private final boolean indexBackend;
+    private final EntryMetadataCache metadataCache;
+    private final CertificateImporter certificateImporter;
+    private final AliasTemplate importAliasTemplate;
+    private final UnlockedKeyCache unlockedKeys;
+
+    /**
+     * -- GETTER --
+     *  Returns the timings of the load, decode, index, store and import phases.
+     */
+    @Getter
+    private final OperationMetrics metrics;
+
+    /**
+     * Held while a new snapshot is published, so concurrent edits never lose one another.
+     * Readers never take it.
+     */
+    private final ReentrantLock editLock = new ReentrantLock();
+
+    /**
+     * The snapshots before and after each of the last {@link #maxUndoDepth} edits since the
+     * keystore was loaded or last saved to its own file, for undo and redo. They share their base
+     * and differ only in their overlays, which share the edits they have in common. Guarded by
+     * {@link #editLock}.
+     */
+    private final List<KeystoreSnapshot> history = new ArrayList<>();
+    private int historyPosition;
+    private final int maxUndoDepth;
+
+    /**
+     * Records the edits of the loaded keystore, or {@code null} if journaling is disabled or failed.
+     */
+    private volatile EditJournal journal;
+    private final boolean journalEnabled;
+
+    /**
+     * -- GETTER --
+     *  Returns the number of edits restored from the edit journal when the keystore was loaded.
+     */
+    @Getter
+    private volatile int restoredEdits;
+
+    /**
+     * -- GETTER --
+     *  Returns the index of certificate fingerprints, for duplicate detection and lookup by
+     *  fingerprint. It is complete once {@link #getIndexing()} has completed.
+     */
+    @Getter
+    private final FingerprintIndex fingerprintIndex = new FingerprintIndex();
+
+    /**
+     * -- GETTER --
+     *  Returns the inverted index used to search entries by alias, DN, SAN or serial number.
+     */
+    @Getter
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    /**
+     * -- GETTER --
+     *  Returns the index of certificate expiry dates, for range queries over the expiry timeline.
      */
-    private KeyStore keystore; // Holds the loaded keystore
+    @Getter
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
+
+    /**
+     * -- GETTER --
+     *  Returns the index linking certificates to their issuers, which resolves and memoizes
+     *  certificate chains.
+     */
+    @Getter
+    private final ChainIndex chainIndex = new ChainIndex();
+
+    /**
+     * -- GETTER --
+     *  Returns the index of certificate issuers and serial numbers, for revocation checks against
+     *  imported CRLs.
+     */
+    @Getter
+    private final RevocationIndex revocationIndex = new RevocationIndex();
+    private final List<CertificateIndex> indexes = List.of(fingerprintIndex, searchIndex, expiryIndex, chainIndex,
+            revocationIndex);
+
+    /**
+     * The background indexing pass holds the read lock while adding an entry, edits hold the
+     * write lock, so the pass never overwrites an edit with a certificate it read earlier.
+     */
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final Set<String> editedWhileIndexing = ConcurrentHashMap.newKeySet();
+
+    private volatile CompletableFuture<Void> indexing = CompletableFuture.completedFuture(null);
+
+    /**
+     * Starts the indexing pass of the loaded keystore when indexing is deferred until first use.
+     */
+    private volatile Runnable pendingIndexing;
+    private final boolean backgroundIndexing;
+
+    /**
+     * @param parallelThreshold The number of aliases from which entries are decoded in parallel.
+     * @param parallelism       The number of worker threads used for parallel decoding.
+     * @param entryCacheSize    The number of decoded entries kept in memory by {@link #lazyEntries(ObservableList)}.
+     * @param backend           {@code jca} to load keystores through {@link KeyStore}, or {@code index} to
+     *                          open them with the read-only {@link IndexedKeystore}.
+     * @param cacheDirectory    The directory of the on-disk metadata cache, or empty to disable it.
+     * @param cacheMaxSizeMb    The size the metadata cache may grow to before old files are evicted.
+     * @param importAliasTemplate The {@link AliasTemplate} used to name certificates imported in bulk.
+     * @param backgroundIndexing {@code true} to index every keystore as soon as it is loaded, {@code false}
+     *                          to defer indexing until {@link #getIndexing()} is first called.
+     * @param journalEnabled    {@code true} to record edits in a sidecar {@link EditJournal} next to the
+     *                          keystore, and replay them when it is loaded again before being saved.
+     * @param maxUndoDepth      The number of edits that can be undone; older ones are forgotten.
+     * @param unlockedKeyTtlSeconds How long decrypted private keys are kept in memory for reuse, or 0 to
+     *                          decrypt them on every use.
+     * @param metrics           Records the timings of keystore operations.
+     */
+    public KeystoreManager(@Value("${keystore.entries.parallel-threshold:1024}") int parallelThreshold,
+                           @Value("${keystore.entries.parallelism:0}") int parallelism,
+                           @Value("${keystore.entries.cache-size:2048}") int entryCacheSize,
+                           @Value("${keystore.backend:jca}") String backend,
+                           @Value("${keystore.metadata-cache.directory:}") String cacheDirectory,
+                           @Value("${keystore.metadata-cache.max-size-mb:64}") long cacheMaxSizeMb,
+                           @Value("${keystore.import.alias-template:{cn}-{sha256:8}}") String importAliasTemplate,
+                           @Value("${keystore.indexing.background:true}") boolean backgroundIndexing,
+                           @Value("${keystore.journal.enabled:true}") boolean journalEnabled,
+                           @Value("${keystore.undo.max-depth:100}") int maxUndoDepth,
+                           @Value("${keystore.keys.unlocked-ttl-seconds:120}") long unlockedKeyTtlSeconds,
+                           OperationMetrics metrics) {
+        this.parallelThreshold = parallelThreshold;
+        this.entryCacheSize = entryCacheSize;
+        this.indexBackend = "index".equalsIgnoreCase(backend);
+        this.metadataCache = cacheDirectory.isBlank() ? null
+                : new EntryMetadataCache(Path.of(cacheDirectory), cacheMaxSizeMb * 1024 * 1024);
+        this.decodePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.certificateImporter = new CertificateImporter(decodePool);
+        this.importAliasTemplate = new AliasTemplate(importAliasTemplate);
+        this.backgroundIndexing = backgroundIndexing;
+        this.journalEnabled = journalEnabled;
+        this.maxUndoDepth = Math.max(0, maxUndoDepth);
+        this.unlockedKeys = new UnlockedKeyCache(Duration.ofSeconds(unlockedKeyTtlSeconds));
+        this.metrics = metrics;
+    }
 
     /**
      * Loads a keystore from the specified file path.
@@ -53,22 +320,539 @@ public class KeystoreManager {
      * @throws CertificateException     If any certificate in the keystore cannot be loaded.
      */
     public void loadKeystore(String filePath, String password) throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
-        // Step 1: Create a KeyStore instance for the desired type (e.g., JKS)
-        keystore = KeyStore.getInstance("JKS"); // Replace "JKS" with "PKCS12" if needed
+        // Step 1: Read the keystore file
+        byte[] content;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.READ, filePath)) {
+            content = Files.readAllBytes(Path.of(filePath));
+            span.items(content.length);
+        }
 
-        // Step 2: Load the keystore from the file
-        try (FileInputStream fis = new FileInputStream(filePath)) {
-            keystore.load(fis, password.toCharArray());
+        // Step 2: Verify and parse it
+        KeyStore loaded;
+        try {
+            loaded = parseKeystore(content, password.toCharArray(), filePath);
             log.atInfo().log("Keystore loaded successfully.");
         } catch (IOException e) {
             log.atError().log("Error loading keystore: " + e.getMessage());
             throw e;
         }
+        List<String> certificateAliases;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.LIST_ALIASES, filePath)) {
+            certificateAliases = certificateAliases(loaded, indexed -> {}, () -> false);
+            span.items(certificateAliases.size());
+        }
+        onKeystoreLoaded(Path.of(filePath), loaded, null, certificateAliases, password.toCharArray());
+    }
+
+    /**
+     * Loads a keystore on the calling thread, through the metadata cache and the configured backend
+     * like {@link #loadKeystoreAsync(String, String)}, but without a JavaFX task.
+     *
+     * @param path     The path to the keystore file.
+     * @param password The password to access the keystore.
+     * @return The certificate aliases.
+     * @throws Exception If the keystore cannot be read.
+     */
+    public List<String> openKeystore(Path path, char[] password) throws Exception {
+        KeystoreLoader.Listener silent = new KeystoreLoader.Listener() {
+            @Override
+            public void message(String message) {
+            }
+
+            @Override
+            public void progress(double done) {
+            }
+        };
+        return new KeystoreLoader(this, path, password.clone(), indexBackend, metadataCache, silent, () -> false).load();
+    }
+
+    /**
+     * Starts loading a keystore on a virtual thread.
+     *
+     * <p>The returned task reports progress while the file is read and while its aliases are
+     * indexed, and can be cancelled at any time. The loaded keystore only replaces the current
+     * one once the task has completed successfully.
+     *
+     * @param filePath The path to the keystore file.
+     * @param password The password to access the keystore.
+     * @return The running load task, whose value is the list of certificate aliases.
+     */
+    public KeystoreLoadTask loadKeystoreAsync(String filePath, String password) {
+        KeystoreLoadTask task = new KeystoreLoadTask(this, Path.of(filePath), password.toCharArray(), indexBackend,
+                metadataCache);
+        loadExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Makes a freshly loaded keystore the current one. Exactly one of {@code keystore} and
+     * {@code index} is expected to be non-null.
+     */
+    void onKeystoreLoaded(Path path, KeyStore keystore, IndexedKeystore index, List<String> certificateAliases, char[] password) {
+        KeystoreSnapshot loaded = KeystoreSnapshot.of(keystore, index, certificateAliases);
+        KeystoreSnapshot current = openJournal(path, loaded);
+        ObservableList<String> loadedAliases = FXCollections.observableArrayList(current.aliases());
+        char[] previousPassword = this.keystorePassword;
+        this.keystorePath = path;
+        this.keystorePassword = password;
+        this.fileState = FileState.of(path);
+        this.cachedEntries = new ConcurrentHashMap<>();
+        this.snapshot = current;
+        certificateDetails.clear();
+        certificateStructures.clear();
+        distinguishedNames.clear();
+        unlockedKeys.clear();
+        this.aliases = loadedAliases;
+        synchronized (this) {
+            promotedFrom = null;
+            promoted = null;
+        }
+        if (previousPassword != null) {
+            Arrays.fill(previousPassword, '\0');
+        }
+        log.atInfo().log("Keystore loaded successfully from " + path);
+        if (metadataCache != null && current == loaded) {
+            cacheEntriesInBackground(path, loaded);
+        }
+        indexInBackground(current);
+    }
+
+    /**
+     * Makes a keystore whose entries were found in the metadata cache the current one. The
+     * keystore file itself is only loaded once something beyond the cached metadata is needed.
+     */
+    void onKeystoreLoadedFromCache(Path path, List<KeystoreEntry> entries, char[] password) {
+        Map<String, KeystoreEntry> byAlias = new ConcurrentHashMap<>(entries.size() * 2);
+        List<String> certificateAliases = new ArrayList<>(entries.size());
+        for (KeystoreEntry entry : entries) {
+            byAlias.put(entry.getAlias(), entry);
+            certificateAliases.add(entry.getAlias());
+        }
+        KeystoreSnapshot current = openJournal(path, KeystoreSnapshot.of(null, null, certificateAliases));
+        ObservableList<String> loadedAliases = FXCollections.observableArrayList(current.aliases());
+        char[] previousPassword = this.keystorePassword;
+        this.keystorePath = path;
+        this.keystorePassword = password;
+        this.fileState = FileState.of(path);
+        this.cachedEntries = byAlias;
+        this.snapshot = current;
+        certificateDetails.clear();
+        certificateStructures.clear();
+        distinguishedNames.clear();
+        unlockedKeys.clear();
+        this.aliases = loadedAliases;
+        synchronized (this) {
+            promotedFrom = null;
+            promoted = null;
+        }
+        if (previousPassword != null) {
+            Arrays.fill(previousPassword, '\0');
+        }
+        log.atInfo().log("Keystore " + path + " opened from the metadata cache");
+        indexInBackground(current);
+    }
+
+    /**
+     * Starts the undo history of a freshly loaded keystore and replays the edits recorded in its
+     * journal, unless journaling is disabled.
+     *
+     * @param path   The keystore file.
+     * @param loaded The snapshot of the keystore as read from the file.
+     * @return The snapshot with the replayed edits in effect, or {@code loaded} if there were none.
+     */
+    private KeystoreSnapshot openJournal(Path path, KeystoreSnapshot loaded) {
+        editLock.lock();
+        try {
+            closeJournal();
+            history.clear();
+            history.add(loaded);
+            historyPosition = 0;
+            restoredEdits = 0;
+            if (!journalEnabled) {
+                return loaded;
+            }
+            EditJournal opened = new EditJournal(path);
+            EditJournal.Replay replay;
+            try {
+                replay = opened.read();
+            } catch (IOException e) {
+                // Leave a journal that cannot be read as it is rather than appending to it
+                log.atError().log("Failed to replay " + opened.getFile() + ", edits will not be recorded: " + e.getMessage());
+                return loaded;
+            }
+            journal = opened;
+            if (replay == null) {
+                return loaded;
+            }
+            long start = System.nanoTime();
+            KeystoreSnapshot replayed = loaded;
+            for (EditJournal.Edit edit : replay.edits()) {
+                replayed = replayed.withEdits(edit.additions(), edit.removals());
+                history.add(replayed);
+            }
+            historyPosition = replay.position();
+            restoredEdits = replay.position();
+            trimHistory();
+            log.atInfo().log("Replayed " + replay.position() + " unsaved edits from " + opened.getFile() + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return history.get(historyPosition);
+        } finally {
+            editLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalWriter {
+        void write(EditJournal journal) throws IOException;
+    }
+
+    /**
+     * Writes to the edit journal, if any. Once a write fails, edits are no longer recorded until
+     * another keystore is loaded. Must be called while holding the edit lock.
+     */
+    private void record(JournalWriter writer) {
+        EditJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            writer.write(current);
+        } catch (IOException e) {
+            log.atError().log("Failed to record edit in " + current.getFile() + ", unsaved edits will not be restored: "
+                    + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        EditJournal current = journal;
+        journal = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.atError().log("Failed to close " + current.getFile() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Publishes a snapshot with an edit applied after recording the edit in the journal, dropping
+     * the edits undone before. Must be called while holding the edit lock.
+     */
+    private void publish(Map<String, ? extends Certificate> additions, Collection<String> removals) {
+        KeystoreSnapshot next = snapshot.withEdits(additions, removals);
+        record(current -> current.append(new EditJournal.Edit(additions, removals)));
+        history.subList(historyPosition + 1, history.size()).clear();
+        history.add(next);
+        historyPosition++;
+        trimHistory();
+        snapshot = next;
     }
 
+    /**
+     * Forgets the oldest edits of the history beyond the undo depth, and the undone edits beyond it
+     * that are left when all later ones were undone. Must be called while holding the edit lock.
+     */
+    private void trimHistory() {
+        int excess = history.size() - maxUndoDepth - 1;
+        if (excess <= 0) {
+            return;
+        }
+        int forgotten = Math.min(excess, historyPosition);
+        history.subList(0, forgotten).clear();
+        historyPosition -= forgotten;
+        if (history.size() > maxUndoDepth + 1) {
+            history.subList(maxUndoDepth + 1, history.size()).clear();
+        }
+    }
+
+    /**
+     * @return {@code true} if unsaved edits are recorded in the edit journal of the keystore.
+     */
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * Decodes all entries of a freshly loaded keystore and writes them to the metadata cache,
+     * unless the keystore is modified or replaced before decoding finishes.
+     */
+    private void cacheEntriesInBackground(Path path, KeystoreSnapshot loaded) {
+        char[] password = keystorePassword.clone();
+        loadExecutor.execute(() -> {
+            try {
+                List<KeystoreEntry> entries = decodeEntries(loaded, loaded.aliases(), decoded -> {},
+                        () -> snapshot != loaded);
+                if (snapshot == loaded) {
+                    metadataCache.store(path, password, entries);
+                }
+            } catch (KeyStoreException | RuntimeException e) {
+                log.atError().log("Failed to cache entries of " + path + ": " + e.getMessage());
+            } finally {
+                Arrays.fill(password, '\0');
+            }
+        });
+    }
+
+    /**
+     * Returns the pass filling the certificate indexes of the loaded keystore, starting it if
+     * indexing was deferred.
+     *
+     * @return A future completing once the indexes are complete.
+     */
+    public CompletableFuture<Void> getIndexing() {
+        Runnable pending = pendingIndexing;
+        if (pending != null) {
+            synchronized (this) {
+                if (pendingIndexing == pending) {
+                    pendingIndexing = null;
+                    pending.run();
+                }
+            }
+        }
+        return indexing;
+    }
+
+    /**
+     * Looks up certificates of the loaded keystore by subject once the indexes are complete, for
+     * example the CA certificates a CRL may be signed by.
+     *
+     * @param subject A distinguished name.
+     * @return The certificates with that subject, ordered by alias.
+     */
+    public List<X509Certificate> getCertificatesWithSubject(X500Principal subject) {
+        getIndexing().exceptionally(e -> null).join();
+        return chainIndex.certificatesWithSubject(subject);
+    }
+
+    /**
+     * Clears the certificate indexes and fills them again from a freshly loaded keystore on the
+     * decode pool, either right away or on the first call to {@link #getIndexing()}. A pass still
+     * running for the previous keystore stops at its next entry.
+     */
+    private void indexInBackground(KeystoreSnapshot loaded) {
+        CompletableFuture<Void> pass = new CompletableFuture<>();
+        indexLock.writeLock().lock();
+        try {
+            indexes.forEach(CertificateIndex::clear);
+            editedWhileIndexing.clear();
+            indexing = pass;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        Runnable start = () -> startIndexing(loaded, pass);
+        if (backgroundIndexing) {
+            pendingIndexing = null;
+            start.run();
+        } else {
+            pendingIndexing = start;
+        }
+    }
+
+    private void startIndexing(KeystoreSnapshot loaded, CompletableFuture<Void> pass) {
+        loadExecutor.execute(() -> {
+            long start = System.nanoTime();
+            List<String> certificateAliases = loaded.aliases();
+            try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.INDEX, keystorePath)) {
+                KeystoreSnapshot readable = loaded(loaded, false);
+                decodePool.submit(() -> certificateAliases.parallelStream()
+                        .forEach(alias -> indexCertificate(readable, alias, pass))).join();
+                span.items(certificateAliases.size());
+                log.atInfo().log("Indexed " + certificateAliases.size() + " certificates in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms.");
+                pass.complete(null);
+            } catch (KeyStoreException | RuntimeException e) {
+                log.atError().log("Failed to index keystore entries: " + e.getMessage());
+                pass.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void indexCertificate(KeystoreSnapshot loaded, String alias, CompletableFuture<Void> pass) {
+        if (indexing != pass) {
+            return;
+        }
+        X509Certificate cert;
+        try {
+            cert = loaded.getCertificate(alias);
+        } catch (KeyStoreException | RuntimeException e) {
+            log.atError().log("Failed to index keystore entry " + alias + ": " + e.getMessage());
+            return;
+        }
+        if (cert == null) {
+            return;
+        }
+        indexLock.readLock().lock();
+        try {
+            if (indexing == pass && !editedWhileIndexing.contains(alias)) {
+                indexes.forEach(index -> index.add(alias, cert));
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the certificate indexes after an edit.
+     *
+     * @param alias The alias that was added, replaced or deleted.
+     * @param cert  The certificate now stored under the alias, or {@code null} if it was deleted.
+     */
+    private void reindex(String alias, Certificate cert) {
+        certificateDetails.remove(alias);
+        certificateStructures.remove(alias);
+        unlockedKeys.remove(alias);
+        indexLock.writeLock().lock();
+        try {
+            if (!indexing.isDone()) {
+                editedWhileIndexing.add(alias);
+            }
+            for (CertificateIndex index : indexes) {
+                if (cert instanceof X509Certificate x509Cert) {
+                    index.add(alias, x509Cert);
+                } else {
+                    index.remove(alias);
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads keystore content through {@link KeyStore}, timed as the parse phase. {@link KeyStore#load}
+     * also verifies the JKS integrity digest or the PKCS12 MAC, which is only timed apart from
+     * parsing by the index backend.
+     *
+     * @param content  The keystore file content.
+     * @param password The keystore password.
+     * @param subject  The keystore file, for the metrics.
+     * @return The loaded keystore.
+     * @throws IOException If the content is corrupt or the password is wrong.
+     */
+    KeyStore parseKeystore(byte[] content, char[] password, Object subject)
+            throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
+        KeyStore keystore = KeyStore.getInstance("JKS");
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.PARSE, subject)) {
+            keystore.load(new ByteArrayInputStream(content), password);
+            span.items(keystore.size());
+        }
+        return keystore;
+    }
+
+    /**
+     * Lists the aliases of the entries of a keystore that hold a certificate, trusted certificates
+     * and private keys with their chain, without decoding them.
+     *
+     * @param keystore  The keystore to index.
+     * @param onIndexed Receives the number of aliases processed since the previous call.
+     * @param cancelled Checked between aliases; indexing stops early once it returns {@code true}.
+     * @return The certificate aliases, in keystore order.
+     * @throws KeyStoreException If there is a problem accessing the keystore.
+     */
+    List<String> certificateAliases(KeyStore keystore, IntConsumer onIndexed, BooleanSupplier cancelled) throws KeyStoreException {
+        List<String> certificateAliases = new ArrayList<>(keystore.size());
+        Enumeration<String> all = keystore.aliases();
+        while (all.hasMoreElements() && !cancelled.getAsBoolean()) {
+            String alias = all.nextElement();
+            if (hasCertificate(keystore, alias)) {
+                certificateAliases.add(alias);
+            }
+            onIndexed.accept(1);
+        }
+        return certificateAliases;
+    }
+
+    /**
+     * @return {@code true} if the entry is listed: a trusted certificate, or a private key with a
+     * certificate chain. Secret keys are not.
+     */
+    private static boolean hasCertificate(KeyStore keystore, String alias) throws KeyStoreException {
+        return keystore.isCertificateEntry(alias) || keystore.isKeyEntry(alias) && keystore.getCertificate(alias) != null;
+    }
 
     public boolean isKeystoreLoaded() {
-        return keystore != null;
+        return keystorePath != null;
+    }
+
+    /**
+     * Returns a version of the keystore whose certificates can be read, or which can also be
+     * stored if {@code editable} is set.
+     *
+     * <p>When the keystore was opened from the metadata cache, or through the read-only index
+     * backend and is to be stored, the keystore file is loaded through {@link KeyStore} on first
+     * use and becomes the base of the current snapshot as well.
+     *
+     * @param version  A snapshot of the loaded keystore.
+     * @param editable {@code true} if the snapshot must be backed by a {@link KeyStore}.
+     * @return The snapshot itself, or one holding the same entries on top of the loaded file.
+     * @throws KeyStoreException If the keystore file cannot be loaded.
+     */
+    private KeystoreSnapshot loaded(KeystoreSnapshot version, boolean editable) throws KeyStoreException {
+        if (version.keystore() != null || !editable && version.isReadable() || keystorePath == null) {
+            return version;
+        }
+        KeyStore base;
+        synchronized (this) {
+            if (promotedFrom == null || !promotedFrom.sharesBase(version)) {
+                Path path = keystorePath;
+                KeyStore loading;
+                try {
+                    byte[] content;
+                    try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.READ, path)) {
+                        content = Files.readAllBytes(path);
+                        span.items(content.length);
+                    }
+                    loading = parseKeystore(content, keystorePassword, path);
+                } catch (IOException | NoSuchAlgorithmException | CertificateException e) {
+                    throw new KeyStoreException("Failed to open " + path + " for editing", e);
+                }
+                log.atInfo().log("Keystore " + path + " loaded for editing.");
+                promotedFrom = version;
+                promoted = loading;
+            }
+            base = promoted;
+        }
+        editLock.lock();
+        try {
+            if (snapshot.sharesBase(version)) {
+                snapshot = snapshot.withBase(base);
+            }
+        } finally {
+            editLock.unlock();
+        }
+        return version.withBase(base);
+    }
+
+    /**
+     * Returns the certificate stored under an alias in the current snapshot.
+     *
+     * @param alias The alias of the entry.
+     * @return The certificate, or {@code null} if the alias has no certificate.
+     * @throws KeyStoreException If there is a problem accessing the keystore.
+     */
+    public X509Certificate getCertificate(String alias) throws KeyStoreException {
+        return loaded(snapshot, false).getCertificate(alias);
+    }
+
+    /**
+     * Returns the certificate stored under an alias like {@link #getCertificate(String)}, on a
+     * background thread, as a keystore opened from the metadata cache is loaded and verified on
+     * first use.
+     *
+     * @param alias The alias of the entry.
+     * @return A future completing with the certificate, or with {@code null} if the alias has no certificate.
+     */
+    public CompletableFuture<X509Certificate> getCertificateAsync(String alias) {
+        KeystoreSnapshot version = snapshot;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loaded(version, false).getCertificate(alias);
+            } catch (KeyStoreException e) {
+                throw new CompletionException(e);
+            }
+        }, loadExecutor);
     }
 
     /**
@@ -78,29 +862,843 @@ public class KeystoreManager {
      * @throws KeyStoreException If there is a problem accessing the keystore.
      */
     public List<KeystoreEntry> getKeystoreEntries() throws KeyStoreException {
-        Enumeration<String> aliases = keystore.aliases();
-        List<KeystoreEntry> keystoreEntries = new ArrayList<>();
-        while (aliases.hasMoreElements()) {
-            String alias = aliases.nextElement();
-            if (keystore.isCertificateEntry(alias)) {
-                Certificate cert = keystore.getCertificate(alias);
-                X509Certificate x509Cert = (X509Certificate) cert;
-                KeystoreEntry entry = KeystoreEntry.builder().alias(alias)
-                        .issuer(x509Cert.getIssuerX500Principal().getName())
-                        .subject(x509Cert.getSubjectX500Principal().getName())
-                        .startDate(x509Cert.getNotBefore().toString())
-                        .endDate(x509Cert.getNotAfter().toString()).build();
-                keystoreEntries.add(entry);
-            } else if (keystore.isKeyEntry(alias)) {
-                log.atError().log("The alias is associated with a key entry.");
-            }
-        }
-        return keystoreEntries;
+        KeystoreSnapshot current = snapshot;
+        return decodeEntries(current, current.aliases(), decoded -> {}, () -> false);
+    }
+
+    /**
+     * Decodes certificate entries, in alias order.
+     *
+     * <p>Fewer aliases than the configured parallel threshold are decoded on the calling thread;
+     * more are split across the decode fork-join pool.
+     *
+     * @param version            The snapshot to decode the entries of.
+     * @param certificateAliases The aliases of the certificate entries to decode.
+     * @param onDecoded          Receives the number of aliases processed since the previous call; may be called concurrently.
+     * @param cancelled          Checked between aliases; decoding stops early once it returns {@code true}.
+     * @return The decoded certificate entries.
+     * @throws KeyStoreException If there is a problem accessing the keystore.
+     */
+    List<KeystoreEntry> decodeEntries(KeystoreSnapshot version, List<String> certificateAliases, IntConsumer onDecoded,
+                                      BooleanSupplier cancelled) throws KeyStoreException {
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.DECODE, keystorePath)
+                .items(certificateAliases.size())) {
+            if (certificateAliases.size() < parallelThreshold) {
+                List<KeystoreEntry> keystoreEntries = new ArrayList<>(certificateAliases.size());
+                for (String alias : certificateAliases) {
+                    if (cancelled.getAsBoolean()) {
+                        break;
+                    }
+                    keystoreEntries.add(decodeEntry(version, alias));
+                    onDecoded.accept(1);
+                }
+                return keystoreEntries;
+            }
+            return decodePool.invoke(new EntryDecodeTask(alias -> decodeEntry(version, alias), certificateAliases, 0,
+                    certificateAliases.size(), onDecoded, cancelled));
+        } catch (IllegalStateException e) {
+            // Fork-join may wrap the worker's exception again when rethrowing it on this thread
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof KeyStoreException keyStoreException) {
+                    throw keyStoreException;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Extracts the displayed metadata of a certificate.
+     */
+    KeystoreEntry toKeystoreEntry(String alias, X509Certificate x509Cert, boolean keyEntry) {
+        return KeystoreEntry.builder().alias(alias)
+                .issuer(distinguishedNames.issuer(x509Cert.getIssuerX500Principal()))
+                .subject(distinguishedNames.subject(x509Cert.getSubjectX500Principal()))
+                .startDate(x509Cert.getNotBefore().getTime())
+                .endDate(x509Cert.getNotAfter().getTime())
+                .keyEntry(keyEntry)
+                .publicKey(CertificateDetailsReader.describeKey(x509Cert.getPublicKey())).build();
+    }
+
+    /**
+     * Creates a view of the loaded keystore that decodes entries only when they are accessed.
+     *
+     * @param aliasView The aliases to expose, usually a sorted or filtered view of {@link #getAliases()}.
+     * @return A lazily decoded entry list backed by a bounded cache.
+     */
+    public LazyEntryList lazyEntries(ObservableList<String> aliasView) {
+        return new LazyEntryList(aliasView, this::decodeEntry, entryCacheSize);
+    }
+
+    /**
+     * Returns the details of a certificate shown in the detail window, extracting them on first
+     * use and caching them for recently viewed aliases.
+     *
+     * @param alias The alias of the certificate.
+     * @return The details, or {@code null} if the alias has no certificate.
+     * @throws KeyStoreException If there is a problem accessing the keystore.
+     */
+    public CertificateDetails getCertificateDetails(String alias) throws KeyStoreException {
+        CertificateDetails details = certificateDetails.get(alias);
+        if (details == null) {
+            X509Certificate cert = getCertificate(alias);
+            if (cert == null) {
+                return null;
+            }
+            details = CertificateDetailsReader.read(alias, cert);
+            certificateDetails.put(alias, details);
+        }
+        return details;
+    }
+
+    /**
+     * Returns the details of a certificate like {@link #getCertificateDetails(String)}, extracting
+     * them on a background thread if they are not cached.
+     *
+     * @param alias The alias of the certificate.
+     * @return A future completing with the details, or with {@code null} if the alias has no certificate.
+     */
+    public CompletableFuture<CertificateDetails> getCertificateDetailsAsync(String alias) {
+        CertificateDetails cached = certificateDetails.get(alias);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return getCertificateDetails(alias);
+            } catch (KeyStoreException e) {
+                throw new CompletionException(e);
+            }
+        }, loadExecutor);
+    }
+
+    /**
+     * Returns the DER structure of a certificate for the detail window. Only the outermost element
+     * is read here; nodes decode their children when first expanded, and the tree is cached for
+     * recently viewed aliases so that expanded nodes stay decoded.
+     *
+     * @param alias The alias of the certificate.
+     * @return A future completing with the root node, or with {@code null} if the alias has no certificate.
+     */
+    public CompletableFuture<Asn1Node> getCertificateStructureAsync(String alias) {
+        Asn1Node cached = certificateStructures.get(alias);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                X509Certificate cert = getCertificate(alias);
+                if (cert == null) {
+                    return null;
+                }
+                Asn1Node structure = Asn1Node.certificate(cert.getEncoded());
+                Asn1Node previous = certificateStructures.putIfAbsent(alias, structure);
+                return previous == null ? structure : previous;
+            } catch (KeyStoreException | CertificateException e) {
+                throw new CompletionException(e);
+            }
+        }, loadExecutor);
+    }
+
+    /**
+     * Reads the certificate chain of a key entry on a background thread, without decrypting the
+     * key. With the {@code index} backend, the keystore file is loaded through {@link KeyStore}
+     * on first use, as the index only records the first certificate of each chain.
+     *
+     * @param alias The alias of the key entry.
+     * @return A future completing with the chain, starting with the certificate of the key, or
+     * with {@code null} if the alias is not a key entry.
+     */
+    public CompletableFuture<List<X509Certificate>> getCertificateChainAsync(String alias) {
+        KeystoreSnapshot version = snapshot;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                KeystoreSnapshot readable = loaded(version, false);
+                return readable.isKeyEntry(alias) ? loaded(readable, true).getCertificateChain(alias) : null;
+            } catch (KeyStoreException e) {
+                throw new CompletionException(e);
+            }
+        }, loadExecutor);
+    }
+
+    /**
+     * Decrypts the private key of a key entry on a background thread, as the password-based key
+     * derivation of PKCS12 keystores is slow by design. The key is then kept in memory for the
+     * configured time, so that unlocking it again does not need the password.
+     *
+     * @param alias    The alias of the key entry.
+     * @param password The password of the entry, or {@code null} to use the keystore password, which
+     *                 protects the keys of most keystores. It is cleared once the key is decrypted.
+     * @return A future completing with the key, or with {@code null} if the alias is not a key
+     * entry. It completes with an {@link UnrecoverableKeyException} if the password is wrong.
+     */
+    public CompletableFuture<UnlockedKey> unlockKeyAsync(String alias, char[] password) {
+        UnlockedKey cached = unlockedKeys.get(alias);
+        if (cached != null) {
+            if (password != null) {
+                Arrays.fill(password, '\0');
+            }
+            return CompletableFuture.completedFuture(cached);
+        }
+        KeystoreSnapshot version = snapshot;
+        return CompletableFuture.supplyAsync(() -> {
+            char[] entryPassword = password != null ? password : keystorePassword.clone();
+            try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.UNLOCK_KEY, keystorePath)) {
+                KeystoreSnapshot readable = loaded(version, false);
+                if (!readable.isKeyEntry(alias)) {
+                    return null;
+                }
+                readable = loaded(readable, true);
+                PrivateKey key = readable.getPrivateKey(alias, entryPassword);
+                if (key == null) {
+                    return null;
+                }
+                UnlockedKey unlocked = UnlockedKey.of(alias, key, readable.getCertificate(alias));
+                span.items(1);
+                // Keys of entries edited meanwhile are not cached, as the edit has already been reindexed
+                if (!snapshot.isEdited(alias)) {
+                    unlockedKeys.put(unlocked);
+                }
+                log.atInfo().log("Unlocked the private key of " + alias + ".");
+                return unlocked;
+            } catch (GeneralSecurityException e) {
+                throw new CompletionException(e);
+            } finally {
+                Arrays.fill(entryPassword, '\0');
+            }
+        }, loadExecutor);
+    }
+
+    /**
+     * Collects the SHA-256 fingerprint of every trusted certificate entry once the indexes are
+     * complete, for comparison with another keystore. Key entries are left out, as merging their
+     * certificate would not carry over the key.
+     *
+     * @return A future completing with the fingerprints in lower-case hex, keyed by alias.
+     */
+    public CompletableFuture<Map<String, String>> getFingerprints() {
+        return fingerprints(true, false);
+    }
+
+    /**
+     * Collects the SHA-256 fingerprint of the certificate of every private key entry once the
+     * indexes are complete, so that a comparison with another keystore can tell which aliases a
+     * merge must not silently replace.
+     *
+     * @return A future completing with the fingerprints in lower-case hex, keyed by alias.
+     */
+    public CompletableFuture<Map<String, String>> getKeyEntryFingerprints() {
+        return fingerprints(false, true);
+    }
+
+    /**
+     * @param trustedEntries {@code true} to include the certificates of trusted certificate entries.
+     * @param keyEntries     {@code true} to include the certificates of key entries.
+     */
+    private CompletableFuture<Map<String, String>> fingerprints(boolean trustedEntries, boolean keyEntries) {
+        return getIndexing().thenApplyAsync(indexed -> {
+            KeystoreSnapshot current = snapshot;
+            Map<String, String> fingerprints = new HashMap<>();
+            for (String alias : current.aliases()) {
+                FingerprintIndex.Fingerprints indexedFingerprints = fingerprintIndex.fingerprintsOf(alias);
+                if (indexedFingerprints != null
+                        && (trustedEntries && keyEntries || (isKeyEntry(current, alias) ? keyEntries : trustedEntries))) {
+                    fingerprints.put(alias, indexedFingerprints.sha256());
+                }
+            }
+            return fingerprints;
+        }, loadExecutor);
+    }
+
+    private boolean isKeyEntry(KeystoreSnapshot version, String alias) {
+        KeystoreEntry cached = version.isEdited(alias) ? null : cachedEntries.get(alias);
+        try {
+            return cached != null ? cached.isKeyEntry() : loaded(version, false).isKeyEntry(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException("Failed to read keystore entry " + alias, e);
+        }
+    }
+
+    /**
+     * Resolves the certificate chain of an entry once the indexes are complete.
+     *
+     * @param alias The alias of the certificate.
+     * @return A future completing with the chain, or with {@code null} if the alias has no certificate.
+     */
+    public CompletableFuture<ChainIndex.Chain> getChainAsync(String alias) {
+        return getIndexing().thenApplyAsync(indexed -> chainIndex.chainOf(alias), loadExecutor);
+    }
+
+    /**
+     * Resolves the certificate chain of every entry on the decode pool once the indexes are
+     * complete, so that {@link ChainIndex#peek(String)} finds them. Chains still valid from a
+     * previous call are not resolved again.
+     *
+     * @return A future completing once every chain is resolved.
+     */
+    public CompletableFuture<Void> validateChains() {
+        return getIndexing().thenRunAsync(() -> {
+            long start = System.nanoTime();
+            decodePool.submit(chainIndex::resolveAll).join();
+            log.atInfo().log("Validated certificate chains in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        }, loadExecutor);
+    }
+
+    private KeystoreEntry decodeEntry(String alias) {
+        return decodeEntry(snapshot, alias);
+    }
+
+    private KeystoreEntry decodeEntry(KeystoreSnapshot version, String alias) {
+        KeystoreEntry cached = version.isEdited(alias) ? null : cachedEntries.get(alias);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            KeystoreSnapshot readable = loaded(version, false);
+            X509Certificate cert = readable.getCertificate(alias);
+            if (cert == null) {
+                throw new KeyStoreException("No certificate stored under alias " + alias);
+            }
+            return toKeystoreEntry(alias, cert, readable.isKeyEntry(alias));
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException("Failed to decode keystore entry " + alias, e);
+        }
+    }
+
+    /**
+     * Adds or replaces a certificate entry and updates the alias list accordingly.
+     *
+     * @param alias The alias to store the certificate under.
+     * @param cert  The certificate to store.
+     * @throws KeyStoreException If the certificate cannot be stored.
+     */
+    public void addCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+        editLock.lock();
+        try {
+            publish(Map.of(alias, cert), List.of());
+            cachedEntries.remove(alias);
+            reindex(alias, cert);
+        } finally {
+            editLock.unlock();
+        }
+        int index = aliases.indexOf(alias);
+        if (index >= 0) {
+            aliases.set(index, alias);
+        } else {
+            aliases.add(alias);
+        }
+    }
+
+    /**
+     * Starts parsing certificates for a bulk import on a virtual thread.
+     *
+     * @param source A directory, a zip archive, or a certificate file such as a PEM or P7B bundle.
+     * @return The running import task, whose value is the batch of certificates keyed by their new alias.
+     */
+    public CertificateImportTask importCertificatesAsync(Path source) {
+        CertificateImportTask task = new CertificateImportTask(certificateImporter, importAliasTemplate, source,
+                new HashSet<>(aliases), fingerprintIndex, getIndexing(), metrics);
+        loadExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Parses certificates for a bulk import on the calling thread.
+     *
+     * @param source A directory, a zip archive, or a certificate file such as a PEM or P7B bundle.
+     * @return The certificates not in the keystore yet, keyed by their new alias, to pass to
+     * {@link #addCertificateEntries(Map)}.
+     * @throws IOException If the source cannot be read.
+     */
+    public ImportPlan planImport(Path source) throws IOException {
+        ImportResult result;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.IMPORT, source)) {
+            result = certificateImporter.parse(source);
+            span.items(result.certificates().size());
+        }
+        getIndexing().exceptionally(e -> null).join();
+        return ImportPlan.of(result, importAliasTemplate, new HashSet<>(aliases), fingerprintIndex, () -> false);
+    }
+
+    /**
+     * Adds a batch of certificate entries with a single update of the alias list.
+     *
+     * @param batch The certificates to store, keyed by alias.
+     * @throws KeyStoreException If a certificate cannot be stored; nothing is applied then.
+     */
+    public void addCertificateEntries(Map<String, ? extends Certificate> batch) throws KeyStoreException {
+        mergeEntries(batch, Set.of());
+        log.atInfo().log("Imported " + batch.size() + " certificates.");
+    }
+
+    /**
+     * Applies a batch of additions and deletions, such as a merge from another keystore, with a
+     * single update of the alias list. Private key entries are never replaced by a certificate.
+     *
+     * @param additions The certificates to store, keyed by alias.
+     * @param removals  The aliases to delete.
+     * @throws KeyStoreException If an entry cannot be stored or deleted, or an addition would
+     *                           replace a key entry; nothing is applied then.
+     */
+    public void mergeEntries(Map<String, ? extends Certificate> additions, Collection<String> removals) throws KeyStoreException {
+        mergeEntries(additions, removals, false);
+    }
+
+    /**
+     * Applies a batch of additions and deletions, such as a merge from another keystore, with a
+     * single update of the alias list.
+     *
+     * @param additions         The certificates to store, keyed by alias.
+     * @param removals          The aliases to delete.
+     * @param replaceKeyEntries {@code true} if the user confirmed that additions replace the
+     *                          private key entries under their aliases, losing their keys.
+     * @throws KeyStoreException If an entry cannot be stored or deleted, or an addition would
+     *                           replace a key entry without confirmation; nothing is applied then.
+     */
+    public void mergeEntries(Map<String, ? extends Certificate> additions, Collection<String> removals,
+                             boolean replaceKeyEntries) throws KeyStoreException {
+        Set<String> existing = new HashSet<>(aliases);
+        Set<String> removed = new HashSet<>(removals);
+        List<String> added = new ArrayList<>(additions.size());
+        List<String> replaced = new ArrayList<>();
+        if (!replaceKeyEntries) {
+            KeystoreSnapshot current = snapshot;
+            List<String> keyEntries = additions.keySet().stream()
+                    .filter(alias -> existing.contains(alias) && !removed.contains(alias) && isKeyEntry(current, alias))
+                    .sorted()
+                    .toList();
+            if (!keyEntries.isEmpty()) {
+                throw new KeyStoreException("Merging would replace the private key entries "
+                        + String.join(", ", keyEntries) + " with certificates");
+            }
+        }
+        editLock.lock();
+        try {
+            publish(additions, removals);
+            for (String alias : removals) {
+                cachedEntries.remove(alias);
+                reindex(alias, null);
+            }
+            for (Map.Entry<String, ? extends Certificate> entry : additions.entrySet()) {
+                cachedEntries.remove(entry.getKey());
+                reindex(entry.getKey(), entry.getValue());
+                // An alias that is also removed leaves the list, so it is added back rather than replaced
+                String alias = entry.getKey();
+                (existing.contains(alias) && !removed.contains(alias) ? replaced : added).add(alias);
+            }
+        } finally {
+            editLock.unlock();
+        }
+        updateAliases(removed, replaced, added);
     }
 
     // deleteKeystoreEntry method
     public void deleteKeystoreEntry(String alias) throws KeyStoreException {
-        keystore.deleteEntry(alias);
+        editLock.lock();
+        try {
+            publish(Map.of(), List.of(alias));
+            cachedEntries.remove(alias);
+            reindex(alias, null);
+        } finally {
+            editLock.unlock();
+        }
+        aliases.remove(alias);
+    }
+
+    /**
+     * Undoes the last edit made since the keystore was loaded or last saved to its own file. Must
+     * be called on the JavaFX application thread.
+     *
+     * @return {@code true} if an edit was undone, {@code false} if there is none.
+     * @throws KeyStoreException If the keystore file has to be loaded and cannot be.
+     */
+    public boolean undo() throws KeyStoreException {
+        return moveInHistory(-1);
+    }
+
+    /**
+     * Redoes the last undone edit. Must be called on the JavaFX application thread.
+     *
+     * @return {@code true} if an edit was redone, {@code false} if there is none.
+     * @throws KeyStoreException If the keystore file has to be loaded and cannot be.
+     */
+    public boolean redo() throws KeyStoreException {
+        return moveInHistory(1);
     }
-}
 
+    /**
+     * @return {@code true} if there is an edit to undo.
+     */
+    public boolean canUndo() {
+        editLock.lock();
+        try {
+            return historyPosition > 0;
+        } finally {
+            editLock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if there is an undone edit to redo.
+     */
+    public boolean canRedo() {
+        editLock.lock();
+        try {
+            return historyPosition < history.size() - 1;
+        } finally {
+            editLock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of snapshots in the undo history, including the one in effect.
+     */
+    int getHistorySize() {
+        editLock.lock();
+        try {
+            return history.size();
+        } finally {
+            editLock.unlock();
+        }
+    }
+
+    /**
+     * Puts the overlay of an earlier or later snapshot of the history on top of the current base,
+     * which may have been reloaded since, and updates the indexes and the alias list for the
+     * entries that differ.
+     */
+    private boolean moveInHistory(int step) throws KeyStoreException {
+        Set<String> removed = new HashSet<>();
+        List<String> replaced = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        editLock.lock();
+        try {
+            int target = historyPosition + step;
+            if (target < 0 || target >= history.size()) {
+                return false;
+            }
+            KeystoreSnapshot current = loaded(snapshot, false);
+            KeystoreSnapshot next = current.withOverlayOf(history.get(target));
+            Set<String> edited = new LinkedHashSet<>(current.editedAliases());
+            edited.addAll(next.editedAliases());
+            for (String alias : edited) {
+                X509Certificate before = current.getCertificate(alias);
+                X509Certificate after = next.getCertificate(alias);
+                if (Objects.equals(before, after)) {
+                    continue;
+                }
+                cachedEntries.remove(alias);
+                reindex(alias, after);
+                if (before == null) {
+                    added.add(alias);
+                } else if (after == null) {
+                    removed.add(alias);
+                } else {
+                    replaced.add(alias);
+                }
+            }
+            record(step < 0 ? EditJournal::appendUndo : EditJournal::appendRedo);
+            historyPosition = target;
+            snapshot = next;
+        } finally {
+            editLock.unlock();
+        }
+        updateAliases(removed, replaced, added);
+        return true;
+    }
+
+    /**
+     * Updates the alias list after an edit, keeping replaced aliases in place so that views bound
+     * to it keep their selection. Must be called on the JavaFX application thread.
+     */
+    private void updateAliases(Set<String> removed, Collection<String> replaced, Collection<String> added) {
+        if (!removed.isEmpty()) {
+            aliases.removeAll(removed);
+        }
+        for (String alias : replaced) {
+            aliases.set(aliases.indexOf(alias), alias);
+        }
+        aliases.addAll(added);
+    }
+
+    /**
+     * Reads the keystore file again after it changed on disk and compares its certificates with
+     * the loaded keystore by SHA-256 fingerprint. Must not be called on the JavaFX application thread.
+     *
+     * @return The changes, or {@code null} if the file is unchanged since it was last read or
+     * written, or no keystore is loaded.
+     * @throws IOException              If the file cannot be read, for example while it is being written.
+     * @throws GeneralSecurityException If the file is no longer a keystore readable with the loaded password.
+     */
+    public KeystoreReload reloadFromDisk() throws IOException, GeneralSecurityException {
+        Path path = keystorePath;
+        List<String> current = aliases;
+        FileState state = path == null ? null : FileState.of(path);
+        if (state == null || state.equals(fileState)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        KeyStore reloaded = KeyStore.getInstance(path.toFile(), keystorePassword);
+        Map<String, X509Certificate> certificates = new HashMap<>();
+        List<String> reloadedAliases = new ArrayList<>();
+        for (String alias : Collections.list(reloaded.aliases())) {
+            if (hasCertificate(reloaded, alias) && reloaded.getCertificate(alias) instanceof X509Certificate cert) {
+                certificates.put(alias, cert);
+                reloadedAliases.add(alias);
+            }
+        }
+        Map<String, String> fingerprints = fingerprints(true, true).join();
+        Map<String, String> reloadedFingerprints = decodePool.submit(() -> certificates.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> FingerprintIndex.fingerprints(entry.getValue()).sha256()))).join();
+
+        Map<String, X509Certificate> added = new LinkedHashMap<>();
+        Map<String, X509Certificate> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : reloadedFingerprints.entrySet()) {
+            String fingerprint = fingerprints.get(entry.getKey());
+            if (fingerprint == null) {
+                added.put(entry.getKey(), certificates.get(entry.getKey()));
+            } else if (!fingerprint.equals(entry.getValue())) {
+                changed.put(entry.getKey(), certificates.get(entry.getKey()));
+            }
+        }
+        Set<String> removed = new HashSet<>(fingerprints.keySet());
+        removed.removeAll(reloadedFingerprints.keySet());
+        fileState = state;
+        KeystoreReload reload = new KeystoreReload(path, current, reloaded, reloadedAliases, added, changed, removed);
+        log.atInfo().log("Reloaded " + path + " in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + reload);
+        return reload;
+    }
+
+    /**
+     * Applies the changes found by {@link #reloadFromDisk()} with a minimal update of the alias
+     * list, so that views bound to it keep their selection and scroll position. Entries added or
+     * deleted in this application since the last save are kept as they are. Must be called on the
+     * JavaFX application thread.
+     *
+     * @param reload The changes.
+     * @return {@code true} if they were applied, {@code false} if another keystore was loaded since.
+     * @throws KeyStoreException If an entry cannot be updated.
+     */
+    public boolean applyReload(KeystoreReload reload) throws KeyStoreException {
+        if (reload.aliases() != aliases || !reload.path().equals(keystorePath)) {
+            return false;
+        }
+        Map<String, X509Certificate> added = new LinkedHashMap<>(reload.added());
+        Map<String, X509Certificate> changed = new LinkedHashMap<>(reload.changed());
+        Set<String> removed = new HashSet<>(reload.removed());
+
+        editLock.lock();
+        try {
+            // The file as read becomes the base, under the entries edited since the last save
+            KeystoreSnapshot current = snapshot;
+            Set<String> pending = current.editedAliases();
+            added.keySet().removeAll(pending);
+            changed.keySet().removeAll(pending);
+            removed.removeAll(pending);
+            snapshot = current.withBase(reload.keystore(), reload.keystoreAliases());
+            for (String alias : removed) {
+                cachedEntries.remove(alias);
+                reindex(alias, null);
+            }
+            for (Map.Entry<String, X509Certificate> entry : added.entrySet()) {
+                cachedEntries.remove(entry.getKey());
+                reindex(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, X509Certificate> entry : changed.entrySet()) {
+                cachedEntries.remove(entry.getKey());
+                reindex(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            editLock.unlock();
+        }
+        updateAliases(removed, changed.keySet(), added.keySet());
+        return true;
+    }
+
+    /**
+     * @return {@code true} if entries were added or deleted since the keystore was loaded or last saved.
+     */
+    public boolean isModified() {
+        return snapshot.isModified();
+    }
+
+    /**
+     * Saves the keystore back to the file it was loaded from, with the password it was loaded with.
+     *
+     * @return A future completing with the outcome of the save.
+     * @see #saveKeystore(Path, char[])
+     */
+    public CompletableFuture<SaveResult> saveKeystore() {
+        if (keystorePath == null) {
+            return CompletableFuture.failedFuture(new KeyStoreException("No keystore is loaded"));
+        }
+        return saveKeystore(keystorePath, keystorePassword.clone());
+    }
+
+    /**
+     * Saves the keystore to a file on a background thread.
+     *
+     * <p>The keystore is written to a temporary file in the target directory, flushed to disk
+     * and then renamed over the target, so the target is never left truncated. The current
+     * snapshot is written without blocking edits made meanwhile, which remain unsaved. If nothing was
+     * added or deleted since the keystore was loaded and the password is unchanged, the keystore
+     * is not serialized again: saving onto the source file is skipped, and saving elsewhere copies
+     * the source file. The future fails with a {@link KeyStoreException} if no keystore is loaded.
+     *
+     * @param target   The file to write.
+     * @param password The password protecting the written keystore; cleared once the save completes.
+     * @return A future completing with the outcome of the save.
+     */
+    public CompletableFuture<SaveResult> saveKeystore(Path target, char[] password) {
+        Path source = keystorePath;
+        if (source == null) {
+            return CompletableFuture.failedFuture(new KeyStoreException("No keystore is loaded"));
+        }
+        boolean samePassword = Arrays.equals(password, keystorePassword);
+        KeystoreSnapshot saved = snapshot;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean sameFile = Files.exists(target) && Files.isSameFile(source, target);
+                if (!saved.isModified() && samePassword) {
+                    if (sameFile) {
+                        log.atInfo().log("Keystore " + source + " is unchanged, skipping save.");
+                        return SaveResult.UNCHANGED;
+                    }
+                    writeAtomically(target, out -> Files.copy(source, out));
+                    log.atInfo().log("Keystore " + source + " copied to " + target);
+                    return SaveResult.COPIED;
+                }
+                KeystoreSnapshot editable = loaded(saved, true);
+                KeyStore written = editable.materialize();
+                try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.STORE, target)) {
+                    span.items(written.size());
+                    writeAtomically(target, out -> written.store(out, password));
+                }
+                if (sameFile && samePassword) {
+                    editLock.lock();
+                    try {
+                        if (snapshot.sharesBase(editable)) {
+                            snapshot = snapshot.afterSave(editable, written);
+                            fileState = FileState.of(target);
+                            resetHistory();
+                        }
+                    } finally {
+                        editLock.unlock();
+                    }
+                }
+                log.atInfo().log("Keystore saved to " + target);
+                return SaveResult.WRITTEN;
+            } catch (Exception e) {
+                log.atError().log("Failed to save keystore to " + target + ": " + e.getMessage());
+                throw new CompletionException(e);
+            } finally {
+                Arrays.fill(password, '\0');
+            }
+        }, loadExecutor);
+    }
+
+    /**
+     * Starts the undo history and the edit journal again after the keystore was saved to its own
+     * file, keeping the edits made while it was being saved as a single edit. Must be called while
+     * holding the edit lock.
+     */
+    private void resetHistory() {
+        KeystoreSnapshot current = snapshot;
+        history.clear();
+        history.add(current.withOverlayOf(KeystoreSnapshot.EMPTY));
+        historyPosition = 0;
+        Map<String, Certificate> additions = new LinkedHashMap<>();
+        Set<String> removals = new LinkedHashSet<>();
+        try {
+            for (String alias : current.editedAliases()) {
+                X509Certificate cert = current.getCertificate(alias);
+                if (cert == null) {
+                    removals.add(alias);
+                } else {
+                    additions.put(alias, cert);
+                }
+            }
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException("Failed to read edited entry", e);
+        }
+        if (current.isModified()) {
+            history.add(current);
+            historyPosition = 1;
+        }
+        EditJournal.Edit pending = current.isModified() ? new EditJournal.Edit(additions, removals) : null;
+        record(saved -> saved.reset(pending));
+    }
+
+    @FunctionalInterface
+    private interface StreamWriter {
+        void write(OutputStream out) throws Exception;
+    }
+
+    private static void writeAtomically(Path target, StreamWriter writer) throws Exception {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+        try {
+            if (Files.exists(target)) {
+                copyPosixAttributes(target, temp);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory(directory);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gives the temporary file the permissions, owner and group of the file it replaces, on file
+     * systems that have them. Changing the owner or group needs privileges the user may not have,
+     * in which case the file keeps the user's own.
+     */
+    private static void copyPosixAttributes(Path from, Path to) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        PosixFileAttributes attributes = Files.readAttributes(from, PosixFileAttributes.class);
+        view.setPermissions(attributes.permissions());
+        try {
+            view.setGroup(attributes.group());
+        } catch (FileSystemException e) {
+            log.atDebug().log("Cannot keep the group of " + from + ": " + e.getMessage());
+        }
+        try {
+            view.setOwner(attributes.owner());
+        } catch (FileSystemException e) {
+            log.atDebug().log("Cannot keep the owner of " + from + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes the directory to disk, so the rename survives a crash. Directories cannot be opened
+     * for this on every platform, such as Windows, where the rename is left to the file system.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.atDebug().log("Cannot flush directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeJournal();
+        loadExecutor.shutdownNow();
+        decodePool.shutdownNow();
+    }
+}
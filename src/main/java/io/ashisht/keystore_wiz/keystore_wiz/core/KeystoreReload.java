@@ -0,0 +1,52 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The changes found when the loaded keystore file was rewritten by another process, computed by
+ * {@link KeystoreManager#reloadFromDisk()} and applied by {@link KeystoreManager#applyReload(KeystoreReload)}.
+ *
+ * @param path            The keystore file.
+ * @param aliases         The alias list of the keystore the changes were computed against.
+ * @param keystore        The keystore as read from the file.
+ * @param keystoreAliases The aliases of its certificate entries, in keystore order.
+ * @param added           The certificates stored under new aliases.
+ * @param changed         The certificates now stored under existing aliases.
+ * @param removed         The aliases no longer in the file.
+ */
+public record KeystoreReload(Path path, List<String> aliases, KeyStore keystore, List<String> keystoreAliases,
+                             Map<String, X509Certificate> added, Map<String, X509Certificate> changed,
+                             Set<String> removed) {
+
+    /**
+     * @return {@code true} if the file holds the same certificates as the loaded keystore.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + changed.size() + " changed and " + removed.size() + " removed";
+    }
+}
@@ -0,0 +1,568 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.IndexedKeystore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable version of the loaded keystore.
+ *
+ * <p>A snapshot pairs a base, the keystore as last read from or written to its file, with an
+ * overlay of the certificate entries added, replaced or deleted since. The base is never modified
+ * once it is part of a snapshot, and every edit chains its changes onto the overlay instead of
+ * changing it, so a snapshot can be read from any thread without locking while edits publish new
+ * snapshots. The base is shared by all versions and an overlay by the versions edited from it, and
+ * the overlay is emptied again whenever the keystore is saved to its own file.
+ *
+ * <p>The base is either a {@link KeyStore}, a read-only {@link IndexedKeystore}, or neither when
+ * the keystore was opened from the metadata cache; only the first can be stored. Private key
+ * entries of the base are listed with the certificate of their key, and are replaced by a
+ * certificate entry when their alias is edited.
+ */
+public final class KeystoreSnapshot {
+    static final KeystoreSnapshot EMPTY = new KeystoreSnapshot(null, null, List.of(), Set.of(), Overlay.EMPTY);
+
+    private final KeyStore keystore;
+    private final IndexedKeystore index;
+    private final List<String> baseAliases;
+    private final Set<String> baseAliasSet;
+
+    /**
+     * The certificates stored since the base was read, keyed by alias, with {@code null} values
+     * for aliases of the base that were deleted.
+     */
+    private final Overlay overlay;
+    private volatile List<String> aliases;
+
+    private KeystoreSnapshot(KeyStore keystore, IndexedKeystore index, List<String> baseAliases,
+                             Set<String> baseAliasSet, Overlay overlay) {
+        this.keystore = keystore;
+        this.index = index;
+        this.baseAliases = baseAliases;
+        this.baseAliasSet = baseAliasSet;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Creates the snapshot of a freshly loaded keystore, with an empty overlay.
+     *
+     * @param keystore The keystore, which must not be modified afterwards, or {@code null}.
+     * @param index    The read-only index of the keystore file, or {@code null}.
+     * @param aliases  The aliases of the listed entries, in keystore order.
+     */
+    static KeystoreSnapshot of(KeyStore keystore, IndexedKeystore index, List<String> aliases) {
+        List<String> baseAliases = List.copyOf(aliases);
+        return new KeystoreSnapshot(keystore, index, baseAliases, Set.copyOf(baseAliases), Overlay.EMPTY);
+    }
+
+    /**
+     * Returns a snapshot with additions and deletions applied on top of this one.
+     *
+     * @param additions The certificates to store, keyed by alias.
+     * @param removals  The aliases to delete, applied before the additions.
+     */
+    KeystoreSnapshot withEdits(Map<String, ? extends Certificate> additions, Collection<String> removals) {
+        return new KeystoreSnapshot(keystore, index, baseAliases, baseAliasSet,
+                overlay.with(additions, removals, baseAliasSet));
+    }
+
+    /**
+     * Returns a snapshot with the same edits on top of another base of the same file, such as the
+     * file as reloaded after another process rewrote it. Deletions of aliases the new base does
+     * not have are dropped.
+     *
+     * @param base    The new base, which must not be modified afterwards.
+     * @param aliases The aliases of the listed entries of the base, in keystore order.
+     */
+    KeystoreSnapshot withBase(KeyStore base, List<String> aliases) {
+        List<String> rebasedAliases = aliases == baseAliases ? baseAliases : List.copyOf(aliases);
+        Set<String> rebasedAliasSet = aliases == baseAliases ? baseAliasSet : Set.copyOf(rebasedAliases);
+        Map<String, Certificate> edited = overlay.edits();
+        edited.entrySet().removeIf(entry -> entry.getValue() == null && !rebasedAliasSet.contains(entry.getKey()));
+        return new KeystoreSnapshot(base, null, rebasedAliases, rebasedAliasSet, Overlay.of(edited));
+    }
+
+    /**
+     * Returns a snapshot with the same edits on top of the keystore loaded for editing in place
+     * of the read-only base of this one.
+     *
+     * @param base The keystore loaded from the same file, which must not be modified afterwards.
+     */
+    KeystoreSnapshot withBase(KeyStore base) {
+        return withBase(base, baseAliases);
+    }
+
+    /**
+     * Returns a snapshot with the edits of another snapshot of the same keystore on top of the
+     * base of this one, to undo or redo edits. Deletions of aliases the base does not have are
+     * dropped.
+     *
+     * @param other A snapshot of the same keystore file, possibly with another base.
+     */
+    KeystoreSnapshot withOverlayOf(KeystoreSnapshot other) {
+        if (other.baseAliasSet == baseAliasSet) {
+            return new KeystoreSnapshot(keystore, index, baseAliases, baseAliasSet, other.overlay);
+        }
+        Map<String, Certificate> edited = other.overlay.edits();
+        edited.entrySet().removeIf(entry -> entry.getValue() == null && !baseAliasSet.contains(entry.getKey()));
+        return new KeystoreSnapshot(keystore, index, baseAliases, baseAliasSet, Overlay.of(edited));
+    }
+
+    /**
+     * Returns this snapshot after an earlier snapshot was saved to the file of the keystore: the
+     * saved keystore becomes the base, and the overlay keeps only the edits made since.
+     *
+     * @param saved   The snapshot that was saved, which must share the base of this one.
+     * @param written The keystore written by the save, as returned by {@link #materialize()} of {@code saved}.
+     * @throws KeyStoreException If the base cannot be read.
+     */
+    KeystoreSnapshot afterSave(KeystoreSnapshot saved, KeyStore written) throws KeyStoreException {
+        Set<String> edited = new LinkedHashSet<>(overlay.edits().keySet());
+        edited.addAll(saved.overlay.edits().keySet());
+        Map<String, Certificate> remaining = new LinkedHashMap<>();
+        for (String alias : edited) {
+            Certificate current = getCertificate(alias);
+            if (!Objects.equals(current, saved.getCertificate(alias))) {
+                remaining.put(alias, current);
+            }
+        }
+        List<String> savedAliases = saved.aliases();
+        Set<String> savedAliasSet = Set.copyOf(savedAliases);
+        remaining.entrySet().removeIf(entry -> entry.getValue() == null && !savedAliasSet.contains(entry.getKey()));
+        return new KeystoreSnapshot(written, null, savedAliases, savedAliasSet, Overlay.of(remaining));
+    }
+
+    /**
+     * @return {@code true} if both snapshots were derived from the same load of the keystore file.
+     */
+    boolean sharesBase(KeystoreSnapshot other) {
+        return keystore == other.keystore && index == other.index && baseAliases == other.baseAliases;
+    }
+
+    /**
+     * @return The base keystore, or {@code null} if the base is the read-only index or the metadata cache.
+     */
+    KeyStore keystore() {
+        return keystore;
+    }
+
+    /**
+     * @return {@code true} if certificates can be read from the base, {@code false} if the
+     * keystore was opened from the metadata cache and its file has not been loaded yet.
+     */
+    boolean isReadable() {
+        return keystore != null || index != null || baseAliases.isEmpty();
+    }
+
+    /**
+     * @return {@code true} if entries were added, replaced or deleted since the keystore was
+     * loaded or last saved to its own file.
+     */
+    public boolean isModified() {
+        return !overlay.isEmpty();
+    }
+
+    /**
+     * @param alias An alias.
+     * @return {@code true} if the entry under the alias was added, replaced or deleted since the
+     * keystore was loaded or last saved to its own file.
+     */
+    public boolean isEdited(String alias) {
+        return overlay.contains(alias);
+    }
+
+    /**
+     * @return The aliases added, replaced or deleted since the keystore was loaded or last saved
+     * to its own file.
+     */
+    public Set<String> editedAliases() {
+        return Collections.unmodifiableSet(overlay.edits().keySet());
+    }
+
+    /**
+     * Returns the aliases of the listed entries: those of the base in keystore order, then the
+     * added ones in the order they were added.
+     *
+     * @return An unmodifiable list of the aliases.
+     */
+    public List<String> aliases() {
+        List<String> resolved = aliases;
+        if (resolved == null) {
+            if (overlay.isEmpty()) {
+                resolved = baseAliases;
+            } else {
+                Map<String, Certificate> edits = overlay.edits();
+                List<String> merged = new ArrayList<>(baseAliases.size() + edits.size());
+                for (String alias : baseAliases) {
+                    if (!edits.containsKey(alias) || edits.get(alias) != null) {
+                        merged.add(alias);
+                    }
+                }
+                for (Map.Entry<String, Certificate> entry : edits.entrySet()) {
+                    if (entry.getValue() != null && !baseAliasSet.contains(entry.getKey())) {
+                        merged.add(entry.getKey());
+                    }
+                }
+                resolved = Collections.unmodifiableList(merged);
+            }
+            aliases = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * @return The number of listed entries.
+     */
+    public int size() {
+        return aliases().size();
+    }
+
+    /**
+     * Returns the certificate stored under an alias in this version of the keystore.
+     *
+     * @param alias The alias of the entry.
+     * @return The certificate, or {@code null} if the alias has no certificate.
+     * @throws KeyStoreException     If the base cannot be read.
+     * @throws IllegalStateException If the keystore file has not been loaded yet, see {@link #isReadable()}.
+     */
+    public X509Certificate getCertificate(String alias) throws KeyStoreException {
+        if (overlay.contains(alias)) {
+            return (X509Certificate) overlay.get(alias);
+        }
+        if (keystore != null) {
+            return (X509Certificate) keystore.getCertificate(alias);
+        }
+        if (index != null) {
+            return index.getCertificate(alias);
+        }
+        if (!baseAliasSet.contains(alias)) {
+            return null;
+        }
+        throw new IllegalStateException("Keystore file not loaded");
+    }
+
+    /**
+     * @param alias The alias of the entry.
+     * @return {@code true} if the alias holds a private key with its certificate chain rather than
+     * a trusted certificate.
+     * @throws KeyStoreException     If the base cannot be read.
+     * @throws IllegalStateException If the keystore file has not been loaded yet, see {@link #isReadable()}.
+     */
+    public boolean isKeyEntry(String alias) throws KeyStoreException {
+        if (overlay.contains(alias)) {
+            return false;
+        }
+        if (keystore != null) {
+            return keystore.isKeyEntry(alias);
+        }
+        if (index != null) {
+            return index.isKeyEntry(alias);
+        }
+        if (!baseAliasSet.contains(alias)) {
+            return false;
+        }
+        throw new IllegalStateException("Keystore file not loaded");
+    }
+
+    /**
+     * Returns the certificate chain of a key entry. The chain is stored next to the encrypted key
+     * and is read without decrypting it.
+     *
+     * @param alias The alias of the entry.
+     * @return The chain, starting with the certificate of the key, or {@code null} if the alias
+     * is not a key entry.
+     * @throws KeyStoreException If the base is not a {@link KeyStore} or cannot be read.
+     */
+    List<X509Certificate> getCertificateChain(String alias) throws KeyStoreException {
+        if (!isKeyEntry(alias)) {
+            return null;
+        }
+        if (keystore == null) {
+            throw new KeyStoreException("Keystore not loaded for reading key entries");
+        }
+        Certificate[] chain = keystore.getCertificateChain(alias);
+        if (chain == null) {
+            return null;
+        }
+        List<X509Certificate> certificates = new ArrayList<>(chain.length);
+        for (Certificate cert : chain) {
+            certificates.add((X509Certificate) cert);
+        }
+        return certificates;
+    }
+
+    /**
+     * Decrypts the private key of a key entry. For PKCS12 keystores this runs the password-based
+     * key derivation of the entry, which is slow by design.
+     *
+     * @param alias    The alias of the entry.
+     * @param password The password protecting the key.
+     * @return The key, or {@code null} if the alias is not a key entry.
+     * @throws UnrecoverableKeyException If the password is wrong.
+     * @throws GeneralSecurityException  If the base is not a {@link KeyStore} or the key cannot be decrypted.
+     */
+    PrivateKey getPrivateKey(String alias, char[] password) throws GeneralSecurityException {
+        if (!isKeyEntry(alias)) {
+            return null;
+        }
+        if (keystore == null) {
+            throw new KeyStoreException("Keystore not loaded for reading key entries");
+        }
+        return keystore.getKey(alias, password) instanceof PrivateKey key ? key : null;
+    }
+
+    /**
+     * Builds a keystore holding this version, of the type of the base. The base itself is
+     * returned when nothing was edited; otherwise it is copied, so the result may be modified.
+     * A base of certificate entries only is copied entry by entry; one with key entries is
+     * copied through its encoding.
+     *
+     * @return The keystore.
+     * @throws KeyStoreException If the base is not a {@link KeyStore} or cannot be copied.
+     */
+    KeyStore materialize() throws KeyStoreException {
+        if (keystore == null) {
+            throw new KeyStoreException("Keystore not loaded for editing");
+        }
+        if (overlay.isEmpty()) {
+            return keystore;
+        }
+        Map<String, Certificate> edits = overlay.edits();
+        List<String> baseAliases = Collections.list(keystore.aliases());
+        for (String alias : baseAliases) {
+            if (!keystore.isCertificateEntry(alias)) {
+                return copyWithKeyEntries(edits);
+            }
+        }
+        // A truststore is copied entry by entry, without running its PBE encryption or MAC
+        try {
+            KeyStore copy = KeyStore.getInstance(keystore.getType());
+            copy.load(null, null);
+            for (String alias : baseAliases) {
+                if (!edits.containsKey(alias)) {
+                    copy.setCertificateEntry(alias, keystore.getCertificate(alias));
+                }
+            }
+            for (Map.Entry<String, Certificate> entry : edits.entrySet()) {
+                if (entry.getValue() != null) {
+                    copy.setCertificateEntry(entry.getKey(), entry.getValue());
+                }
+            }
+            return copy;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new KeyStoreException("Failed to copy the keystore", e);
+        }
+    }
+
+    /**
+     * Copies the base through its encoding, since key entries cannot be copied without their
+     * passwords, and applies the edits to the copy.
+     */
+    private KeyStore copyWithKeyEntries(Map<String, Certificate> edits) throws KeyStoreException {
+        char[] password = new char[32];
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < password.length; i++) {
+            password[i] = (char) ('!' + random.nextInt(94));
+        }
+        try {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            keystore.store(encoded, password);
+            KeyStore copy = KeyStore.getInstance(keystore.getType());
+            copy.load(new ByteArrayInputStream(encoded.toByteArray()), password);
+            for (Map.Entry<String, Certificate> entry : edits.entrySet()) {
+                if (entry.getValue() == null || copy.isKeyEntry(entry.getKey())) {
+                    // A key entry cannot be overwritten by a certificate
+                    copy.deleteEntry(entry.getKey());
+                }
+                if (entry.getValue() != null) {
+                    copy.setCertificateEntry(entry.getKey(), entry.getValue());
+                }
+            }
+            return copy;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new KeyStoreException("Failed to copy the keystore", e);
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    /**
+     * Writes this version of the keystore.
+     *
+     * @param out      The stream to write to.
+     * @param password The password protecting the written keystore.
+     * @throws KeyStoreException If the base is not a {@link KeyStore}, see {@link KeystoreManager#saveKeystore(java.nio.file.Path, char[])}.
+     * @throws IOException       If the keystore cannot be written.
+     */
+    public void store(OutputStream out, char[] password) throws KeyStoreException, IOException {
+        try {
+            materialize().store(out, password);
+        } catch (GeneralSecurityException e) {
+            throw new KeyStoreException("Failed to store the keystore", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size() + " entries, " + overlay.size() + " edited";
+    }
+
+    /**
+     * The edits of a snapshot, keyed by alias with {@code null} values for deleted aliases of the
+     * base. An edit is chained onto the overlay it was made on rather than copying it, so the
+     * versions kept for undo share their common edits. Once a chain is {@link #MAX_DEPTH} edits
+     * long it is flattened into a single map, which bounds the cost of a lookup.
+     */
+    private static final class Overlay {
+        private static final int MAX_DEPTH = 8;
+        static final Overlay EMPTY = new Overlay(null, Map.of(), Set.of(), 0, 0);
+
+        private final Overlay parent;
+        /**
+         * The certificates stored by this edit, with {@code null} values for deleted aliases of
+         * the base. These take precedence over {@link #dropped}.
+         */
+        private final Map<String, Certificate> changes;
+        /**
+         * The aliases added before and deleted by this edit, which are no longer edited.
+         */
+        private final Set<String> dropped;
+        private final int depth;
+        private final int size;
+
+        private Overlay(Overlay parent, Map<String, Certificate> changes, Set<String> dropped, int depth, int size) {
+            this.parent = parent;
+            this.changes = changes;
+            this.dropped = dropped;
+            this.depth = depth;
+            this.size = size;
+        }
+
+        /**
+         * @param edits The edits in the order they were made, which must not be modified afterwards.
+         */
+        static Overlay of(Map<String, Certificate> edits) {
+            return edits.isEmpty() ? EMPTY : new Overlay(null, Collections.unmodifiableMap(edits), Set.of(), 0, edits.size());
+        }
+
+        /**
+         * Returns the overlay with additions and deletions applied, as
+         * {@link KeystoreSnapshot#withEdits(Map, Collection)} describes them.
+         */
+        Overlay with(Map<String, ? extends Certificate> additions, Collection<String> removals, Set<String> baseAliasSet) {
+            Map<String, Certificate> edited = new LinkedHashMap<>();
+            Set<String> removed = new HashSet<>();
+            int count = size;
+            for (String alias : removals) {
+                boolean before = edited.containsKey(alias) || !removed.contains(alias) && contains(alias);
+                if (baseAliasSet.contains(alias)) {
+                    edited.put(alias, null);
+                    count += before ? 0 : 1;
+                } else if (before) {
+                    edited.remove(alias);
+                    removed.add(alias);
+                    count--;
+                }
+            }
+            for (Map.Entry<String, ? extends Certificate> entry : additions.entrySet()) {
+                String alias = entry.getKey();
+                boolean before = edited.containsKey(alias) || !removed.contains(alias) && contains(alias);
+                edited.put(alias, entry.getValue());
+                count += before ? 0 : 1;
+            }
+            if (edited.isEmpty() && removed.isEmpty()) {
+                return this;
+            }
+            Overlay chained = new Overlay(size == 0 ? null : this, Collections.unmodifiableMap(edited),
+                    Collections.unmodifiableSet(removed), size == 0 ? 0 : depth + 1, count);
+            return chained.depth < MAX_DEPTH ? chained : of(chained.edits());
+        }
+
+        boolean contains(String alias) {
+            for (Overlay overlay = this; overlay != null; overlay = overlay.parent) {
+                if (overlay.changes.containsKey(alias)) {
+                    return true;
+                }
+                if (overlay.dropped.contains(alias)) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        Certificate get(String alias) {
+            for (Overlay overlay = this; overlay != null; overlay = overlay.parent) {
+                if (overlay.changes.containsKey(alias)) {
+                    return overlay.changes.get(alias);
+                }
+                if (overlay.dropped.contains(alias)) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return A new map of the edits, in the order the aliases were first edited.
+         */
+        Map<String, Certificate> edits() {
+            Deque<Overlay> chain = new ArrayDeque<>(depth + 1);
+            for (Overlay overlay = this; overlay != null; overlay = overlay.parent) {
+                chain.push(overlay);
+            }
+            Map<String, Certificate> edits = new LinkedHashMap<>(size * 2);
+            for (Overlay overlay : chain) {
+                edits.keySet().removeAll(overlay.dropped);
+                edits.putAll(overlay.changes);
+            }
+            return edits;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the loaded keystore file for changes made by other processes.
+ *
+ * <p>Editors and build tools often write a file in several steps, or write a temporary file and
+ * rename it over the original, so change events are debounced: the file is only read again once
+ * no event arrived for the configured delay. The changes are then computed off the JavaFX
+ * application thread by {@link KeystoreManager#reloadFromDisk()}; saves of this application are
+ * recognized by the size and modification time of the file and not read again.
+ */
+@Slf4j
+@Component
+public class KeystoreWatcher {
+    private final KeystoreManager keystoreManager;
+    private final long debounceMillis;
+    private final boolean enabled;
+    private Thread watchThread;
+
+    /**
+     * @param debounceMillis The time without change events after which the file is read again.
+     * @param enabled        {@code false} to never watch the keystore file.
+     */
+    public KeystoreWatcher(KeystoreManager keystoreManager,
+                           @Value("${keystore.watch.debounce-ms:500}") long debounceMillis,
+                           @Value("${keystore.watch.enabled:true}") boolean enabled) {
+        this.keystoreManager = keystoreManager;
+        this.debounceMillis = debounceMillis;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts watching the loaded keystore file, replacing the previous watch.
+     *
+     * @param onChange Receives the changes each time the file was rewritten with different
+     *                 certificates, on the watcher thread.
+     */
+    public synchronized void watch(Consumer<KeystoreReload> onChange) {
+        stop();
+        Path path = keystoreManager.getKeystorePath();
+        if (!enabled || path == null) {
+            return;
+        }
+        Path file = path.toAbsolutePath();
+        watchThread = Thread.ofVirtual().name("keystore-watcher").start(() -> run(file, onChange));
+    }
+
+    /**
+     * Stops watching the keystore file.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+    }
+
+    private void run(Path file, Consumer<KeystoreReload> onChange) {
+        try (WatchService service = file.getFileSystem().newWatchService()) {
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            log.atInfo().log("Watching " + file + " for changes.");
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!concerns(service.take(), file)) {
+                    continue;
+                }
+                awaitQuiet(service, file);
+                reload(onChange);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.atInfo().log("Stopped watching " + file);
+        } catch (IOException e) {
+            log.atError().log("Failed to watch " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until no event concerning the file arrived for the debounce delay.
+     */
+    private void awaitQuiet(WatchService service, Path file) throws InterruptedException {
+        long quietAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        long wait;
+        while ((wait = quietAt - System.nanoTime()) > 0) {
+            WatchKey key = service.poll(wait, TimeUnit.NANOSECONDS);
+            if (key == null) {
+                return;
+            }
+            if (concerns(key, file)) {
+                quietAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+            }
+        }
+    }
+
+    private static boolean concerns(WatchKey key, Path file) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            concerns |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return concerns;
+    }
+
+    private void reload(Consumer<KeystoreReload> onChange) {
+        try {
+            KeystoreReload reload = keystoreManager.reloadFromDisk();
+            if (reload != null && !reload.isEmpty()) {
+                onChange.accept(reload);
+            }
+        } catch (Exception e) {
+            // A later event triggers another attempt, e.g. once a partial write completed
+            log.atError().log("Failed to reload " + keystoreManager.getKeystorePath() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A read-only view of keystore entries that decodes each row only when it is requested.
+ *
+ * <p>The view maps a list of aliases one-to-one to {@link KeystoreEntry} rows. A row's
+ * certificate metadata is decoded the first time the row is accessed, typically when the
+ * table's virtual flow lays out a visible cell, and kept in a bounded LRU cache. Memory use
+ * therefore depends on the cache size rather than on the number of entries in the keystore.
+ */
+public class LazyEntryList extends TransformationList<KeystoreEntry, String> {
+    private final Function<String, KeystoreEntry> decoder;
+    private final Map<String, KeystoreEntry> cache;
+
+    /**
+     * @param aliases   The aliases to expose, one row per alias.
+     * @param decoder   Decodes the entry for an alias.
+     * @param cacheSize The maximum number of decoded entries kept in memory.
+     */
+    public LazyEntryList(ObservableList<String> aliases, Function<String, KeystoreEntry> decoder, int cacheSize) {
+        super(aliases);
+        this.decoder = decoder;
+        this.cache = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KeystoreEntry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public KeystoreEntry get(int index) {
+        return entryFor(getSource().get(index));
+    }
+
+    @Override
+    public int size() {
+        return getSource().size();
+    }
+
+    /**
+     * Returns the entry for an alias, decoding it if it is not cached.
+     *
+     * @param alias The alias of the entry.
+     * @return The decoded entry.
+     */
+    public synchronized KeystoreEntry entryFor(Object alias) {
+        return cache.computeIfAbsent((String) alias, decoder);
+    }
+
+    /**
+     * Drops the cached entry for an alias, so that it is decoded again on the next access.
+     *
+     * @param alias The alias whose entry changed.
+     */
+    public synchronized void invalidate(String alias) {
+        cache.remove(alias);
+    }
+
+    @Override
+    public int getSourceIndex(int index) {
+        return index;
+    }
+
+    @Override
+    public int getViewIndex(int index) {
+        return index;
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends String> change) {
+        beginChange();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                int[] permutation = new int[change.getTo() - change.getFrom()];
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    permutation[i - change.getFrom()] = change.getPermutation(i);
+                }
+                nextPermutation(change.getFrom(), change.getTo(), permutation);
+            } else if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    invalidate(getSource().get(i));
+                    nextUpdate(i);
+                }
+            } else {
+                if (change.wasRemoved()) {
+                    nextRemove(change.getFrom(), removedEntries(change.getRemoved()));
+                }
+                if (change.wasAdded()) {
+                    for (String alias : change.getAddedSubList()) {
+                        invalidate(alias);
+                    }
+                    nextAdd(change.getFrom(), change.getTo());
+                }
+            }
+        }
+        endChange();
+    }
+
+    private synchronized List<KeystoreEntry> removedEntries(List<? extends String> aliases) {
+        // Removed aliases may no longer exist in the keystore, so never decode them here
+        List<KeystoreEntry> removed = new ArrayList<>(aliases.size());
+        for (String alias : aliases) {
+            KeystoreEntry entry = cache.remove(alias);
+            removed.add(entry != null ? entry : KeystoreEntry.builder().alias(alias).build());
+        }
+        return removed;
+    }
+}
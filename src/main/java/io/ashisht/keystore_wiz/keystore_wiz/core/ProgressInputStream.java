@@ -0,0 +1,85 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * An {@link InputStream} that reports the number of bytes read so far and aborts the read
+ * as soon as the owning operation has been cancelled.
+ */
+class ProgressInputStream extends FilterInputStream {
+    private final LongConsumer onProgress;
+    private final BooleanSupplier cancelled;
+    private long bytesRead;
+
+    /**
+     * @param in         The stream to read from.
+     * @param onProgress Receives the total number of bytes read after every read call.
+     * @param cancelled  Checked before every read; when it returns {@code true} the read fails.
+     */
+    ProgressInputStream(InputStream in, LongConsumer onProgress, BooleanSupplier cancelled) {
+        super(in);
+        this.onProgress = onProgress;
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkCancelled();
+        int b = super.read();
+        if (b != -1) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkCancelled();
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkCancelled();
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    private void advance(long n) {
+        bytesRead += n;
+        onProgress.accept(bytesRead);
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled.getAsBoolean()) {
+            throw new InterruptedIOException("Keystore load cancelled");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+/**
+ * Outcome of saving a keystore with {@link KeystoreManager#saveKeystore(java.nio.file.Path, char[])}.
+ */
+public enum SaveResult {
+    /** The keystore was serialized and written to the target file. */
+    WRITTEN,
+    /** The keystore was unchanged, so the source file was copied to the target without re-serializing it. */
+    COPIED,
+    /** The target is the unchanged source file, so nothing was written. */
+    UNCHANGED
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+
+/**
+ * A private key decrypted from a key entry.
+ *
+ * @param alias              The alias of the key entry.
+ * @param key                The private key.
+ * @param matchesCertificate {@code true} if a signature made with the key is verified by the
+ *                           certificate of the entry, {@code false} if it is not, or {@code null}
+ *                           if the key cannot sign.
+ */
+public record UnlockedKey(String alias, PrivateKey key, Boolean matchesCertificate) {
+    private static final byte[] CHALLENGE = "keystore-wiz key check".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Checks a decrypted key against the certificate of its entry.
+     *
+     * @param alias The alias of the key entry.
+     * @param key   The private key.
+     * @param cert  The first certificate of the chain of the entry.
+     * @return The key.
+     */
+    static UnlockedKey of(String alias, PrivateKey key, X509Certificate cert) {
+        String algorithm = switch (key.getAlgorithm()) {
+            case "RSA" -> "SHA256withRSA";
+            case "EC" -> "SHA256withECDSA";
+            case "DSA" -> "SHA256withDSA";
+            case "EdDSA", "Ed25519", "Ed448" -> key.getAlgorithm();
+            default -> null;
+        };
+        if (algorithm == null || cert == null) {
+            return new UnlockedKey(alias, key, null);
+        }
+        try {
+            Signature signer = Signature.getInstance(algorithm);
+            signer.initSign(key);
+            signer.update(CHALLENGE);
+            byte[] signature = signer.sign();
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(cert.getPublicKey());
+            verifier.update(CHALLENGE);
+            return new UnlockedKey(alias, key, verifier.verify(signature));
+        } catch (GeneralSecurityException e) {
+            return new UnlockedKey(alias, key, false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return alias + " (" + key.getAlgorithm() + " private key)";
+    }
+}
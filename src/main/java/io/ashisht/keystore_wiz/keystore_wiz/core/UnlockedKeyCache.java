@@ -0,0 +1,78 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps recently decrypted private keys for a short time, so that using a key entry again does
+ * not repeat the password-based key derivation of PKCS12 keystores.
+ *
+ * <p>A key is dropped once its time to live has passed since it was decrypted, so that it does not
+ * stay reachable for longer, and earlier when its alias is edited or another keystore is loaded.
+ */
+final class UnlockedKeyCache {
+    private record Cached(UnlockedKey key, long expiresAt) {
+    }
+
+    private final long ttlNanos;
+    private final Map<String, Cached> keys = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl How long keys are kept; zero or negative disables the cache.
+     */
+    UnlockedKeyCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @param alias The alias of a key entry.
+     * @return The key decrypted for the alias, or {@code null} if none was or it has expired.
+     */
+    UnlockedKey get(String alias) {
+        Cached cached = keys.get(alias);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.expiresAt() >= 0) {
+            keys.remove(alias, cached);
+            return null;
+        }
+        return cached.key();
+    }
+
+    void put(UnlockedKey key) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        Cached cached = new Cached(key, System.nanoTime() + ttlNanos);
+        keys.put(key.alias(), cached);
+        CompletableFuture.delayedExecutor(ttlNanos, TimeUnit.NANOSECONDS)
+                .execute(() -> keys.remove(key.alias(), cached));
+    }
+
+    void remove(String alias) {
+        keys.remove(alias);
+    }
+
+    void clear() {
+        keys.clear();
+    }
+}
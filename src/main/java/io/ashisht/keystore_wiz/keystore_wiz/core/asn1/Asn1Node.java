@@ -0,0 +1,386 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.asn1;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.DerReader;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStoreException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A node of the DER structure of a certificate, decoded on demand.
+ *
+ * <p>Parsing a certificate reads only the outermost element. The children of a node are read
+ * from the shared encoding the first time they are asked for and kept, so expanding a node in
+ * the detail window decodes one level, and a large extension such as a list of signed
+ * certificate timestamps costs nothing until it is expanded. Values are only described with a
+ * short preview, never decoded in full.
+ *
+ * <p>Fields of the X.509 certificate structure are labelled with their RFC 5280 names, extensions
+ * with the name of their identifier, and the DER encoded in OCTET STRING extension values and in
+ * BIT STRING keys and signatures is shown as their children.
+ */
+public final class Asn1Node {
+    private static final int BOOLEAN = 0x01;
+    private static final int BIT_STRING = 0x03;
+    private static final int NULL = 0x05;
+    private static final int PREVIEW_BYTES = 16;
+    private static final HexFormat HEX = HexFormat.ofDelimiter(":");
+
+    private final ByteBuffer der;
+    private final DerReader.Tlv tlv;
+    private final String label;
+    private final Schema schema;
+    private final String error;
+    private volatile List<Asn1Node> children;
+
+    /**
+     * The part of the certificate structure a node stands for, which names its children.
+     */
+    private enum Schema {
+        CERTIFICATE, TBS_CERTIFICATE, ALGORITHM, NAME, VALIDITY, PUBLIC_KEY_INFO, EXTENSIONS, EXTENSION_LIST,
+        EXTENSION, ENCAPSULATING, ANY
+    }
+
+    private Asn1Node(ByteBuffer der, DerReader.Tlv tlv, String label, Schema schema, String error) {
+        this.der = der;
+        this.tlv = tlv;
+        this.label = label;
+        this.schema = schema;
+        this.error = error;
+    }
+
+    /**
+     * Reads the outermost element of a DER encoded certificate.
+     *
+     * @param encoded The encoding, which must not be modified afterwards.
+     * @return The root node, labelled "Certificate".
+     * @throws KeyStoreException If the encoding does not start with a well-formed element.
+     */
+    public static Asn1Node certificate(byte[] encoded) throws KeyStoreException {
+        ByteBuffer der = ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+        return new Asn1Node(der, DerReader.read(der, 0, encoded.length), "Certificate", Schema.CERTIFICATE, null);
+    }
+
+    /**
+     * @return The field name, or the type of elements without one.
+     */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * @return The tag, or -1 for the node reporting a malformed encoding.
+     */
+    public int tag() {
+        return tlv == null ? -1 : tlv.tag();
+    }
+
+    /**
+     * @return The offset of the element within the certificate encoding.
+     */
+    public int offset() {
+        return tlv == null ? -1 : tlv.offset();
+    }
+
+    /**
+     * @return {@code true} if the node has children to expand, which does not decode them.
+     */
+    public boolean hasChildren() {
+        if (tlv == null) {
+            return false;
+        }
+        if (tlv.isConstructed()) {
+            return tlv.contentLength() > 0;
+        }
+        return encapsulatedOffset() >= 0;
+    }
+
+    /**
+     * @return {@code true} once the children have been decoded.
+     */
+    public boolean isDecoded() {
+        return children != null;
+    }
+
+    /**
+     * Decodes the children on first use. Should the encoding turn out malformed, the children read
+     * so far are followed by a node describing the problem.
+     *
+     * @return The child nodes, empty for a primitive element.
+     */
+    public List<Asn1Node> children() {
+        List<Asn1Node> decoded = children;
+        if (decoded == null) {
+            decoded = decodeChildren();
+            children = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * @return A short description of the value, without its children.
+     */
+    public String value() {
+        if (tlv == null) {
+            return error;
+        }
+        try {
+            return switch (schema) {
+                case NAME -> new X500Principal(content(tlv.offset(), tlv.length())).getName();
+                case EXTENSION -> extensionValue();
+                default -> describe();
+            };
+        } catch (KeyStoreException | IllegalArgumentException e) {
+            return "malformed: " + e.getMessage();
+        }
+    }
+
+    @Override
+    public String toString() {
+        String value = value();
+        return value.isEmpty() ? label : label + ": " + value;
+    }
+
+    private List<Asn1Node> decodeChildren() {
+        if (!hasChildren()) {
+            return List.of();
+        }
+        int start = tlv.isConstructed() ? tlv.contentOffset() : encapsulatedOffset();
+        List<Asn1Node> nodes = new ArrayList<>();
+        try {
+            int position = 0;
+            for (int offset = start; offset < tlv.end(); position++) {
+                DerReader.Tlv child = DerReader.read(der, offset, tlv.end());
+                nodes.add(child(child, position));
+                offset = child.end();
+            }
+        } catch (KeyStoreException e) {
+            nodes.add(new Asn1Node(der, null, "Malformed", Schema.ANY, e.getMessage()));
+        }
+        return List.copyOf(nodes);
+    }
+
+    /**
+     * Names a child by its position in the certificate structure.
+     */
+    private Asn1Node child(DerReader.Tlv child, int position) throws KeyStoreException {
+        return switch (schema) {
+            case CERTIFICATE -> switch (position) {
+                case 0 -> node(child, "tbsCertificate", Schema.TBS_CERTIFICATE);
+                case 1 -> node(child, "signatureAlgorithm", Schema.ALGORITHM);
+                case 2 -> node(child, "signatureValue", Schema.ENCAPSULATING);
+                default -> node(child, typeName(child.tag()), Schema.ANY);
+            };
+            case TBS_CERTIFICATE -> tbsField(child, position);
+            case ALGORITHM -> node(child, position == 0 ? "algorithm" : "parameters", Schema.ANY);
+            case VALIDITY -> node(child, position == 0 ? "notBefore" : "notAfter", Schema.ANY);
+            case PUBLIC_KEY_INFO -> position == 0 ? node(child, "algorithm", Schema.ALGORITHM)
+                    : node(child, "subjectPublicKey", Schema.ENCAPSULATING);
+            case EXTENSIONS -> node(child, "Extensions", Schema.EXTENSION_LIST);
+            case EXTENSION_LIST -> node(child, extensionName(child), Schema.EXTENSION);
+            case EXTENSION -> switch (child.tag()) {
+                case DerReader.OBJECT_IDENTIFIER -> node(child, "extnID", Schema.ANY);
+                case BOOLEAN -> node(child, "critical", Schema.ANY);
+                default -> node(child, "extnValue", Schema.ENCAPSULATING);
+            };
+            case NAME -> node(child, attributeName(child), Schema.ANY);
+            case ENCAPSULATING, ANY -> node(child, typeName(child.tag()), Schema.ANY);
+        };
+    }
+
+    /**
+     * Names a field of the TBSCertificate, which has optional fields at the start and end.
+     */
+    private Asn1Node tbsField(DerReader.Tlv child, int position) {
+        if (child.tag() == DerReader.CONTEXT_0) {
+            return node(child, "version", Schema.ANY);
+        }
+        if (child.tag() == 0x81 || child.tag() == 0xA1) {
+            return node(child, "issuerUniqueID", Schema.ANY);
+        }
+        if (child.tag() == 0x82 || child.tag() == 0xA2) {
+            return node(child, "subjectUniqueID", Schema.ANY);
+        }
+        if (child.tag() == 0xA3) {
+            return node(child, "extensions", Schema.EXTENSIONS);
+        }
+        if (child.tag() == DerReader.INTEGER) {
+            return node(child, "serialNumber", Schema.ANY);
+        }
+        // Version 1 certificates have no version field, so count fields from the serial number
+        int serialPosition = der.get(tlv.contentOffset()) == (byte) DerReader.CONTEXT_0 ? 1 : 0;
+        return switch (position - serialPosition) {
+            case 1 -> node(child, "signature", Schema.ALGORITHM);
+            case 2 -> node(child, "issuer", Schema.NAME);
+            case 3 -> node(child, "validity", Schema.VALIDITY);
+            case 4 -> node(child, "subject", Schema.NAME);
+            case 5 -> node(child, "subjectPublicKeyInfo", Schema.PUBLIC_KEY_INFO);
+            default -> node(child, typeName(child.tag()), Schema.ANY);
+        };
+    }
+
+    private Asn1Node node(DerReader.Tlv child, String label, Schema schema) {
+        return new Asn1Node(der, child, label, schema, null);
+    }
+
+    private String extensionName(DerReader.Tlv extension) throws KeyStoreException {
+        DerReader.Tlv oid = DerReader.read(der, extension.contentOffset(), extension.end());
+        if (oid.tag() != DerReader.OBJECT_IDENTIFIER) {
+            return typeName(extension.tag());
+        }
+        String dotted = DerReader.oid(der, oid);
+        String name = OidNames.name(dotted);
+        return name == null ? dotted : name;
+    }
+
+    private String attributeName(DerReader.Tlv rdn) throws KeyStoreException {
+        DerReader.Tlv attribute = DerReader.read(der, rdn.contentOffset(), rdn.end());
+        DerReader.Tlv oid = DerReader.read(der, attribute.contentOffset(), attribute.end());
+        if (oid.tag() != DerReader.OBJECT_IDENTIFIER) {
+            return typeName(rdn.tag());
+        }
+        String dotted = DerReader.oid(der, oid);
+        String name = OidNames.name(dotted);
+        return name == null ? dotted : name;
+    }
+
+    /**
+     * @return Whether the extension is critical, read from its fields.
+     */
+    private String extensionValue() throws KeyStoreException {
+        for (int offset = tlv.contentOffset(); offset < tlv.end(); ) {
+            DerReader.Tlv field = DerReader.read(der, offset, tlv.end());
+            if (field.tag() == BOOLEAN) {
+                return field.contentLength() == 1 && der.get(field.contentOffset()) != 0 ? "critical" : "";
+            }
+            offset = field.end();
+        }
+        return "";
+    }
+
+    /**
+     * @return The offset of the DER element encapsulated in an OCTET or BIT STRING, or -1 if it
+     * does not hold exactly one well-formed element. A BIT STRING must hold a SEQUENCE, since an
+     * EC point may happen to read as an element.
+     */
+    private int encapsulatedOffset() {
+        if (schema != Schema.ENCAPSULATING) {
+            return -1;
+        }
+        int start = tlv.tag() == BIT_STRING ? tlv.contentOffset() + 1 : tlv.contentOffset();
+        if (tlv.tag() == BIT_STRING && (tlv.contentLength() < 2 || der.get(tlv.contentOffset()) != 0
+                || der.get(start) != DerReader.SEQUENCE)) {
+            return -1;
+        }
+        if (tlv.tag() != BIT_STRING && tlv.tag() != DerReader.OCTET_STRING || start >= tlv.end()) {
+            return -1;
+        }
+        try {
+            return DerReader.read(der, start, tlv.end()).end() == tlv.end() ? start : -1;
+        } catch (KeyStoreException e) {
+            return -1;
+        }
+    }
+
+    private String describe() throws KeyStoreException {
+        int tag = tlv.tag();
+        int length = tlv.contentLength();
+        if (tlv.isConstructed()) {
+            return length + " bytes";
+        }
+        return switch (tag) {
+            case BOOLEAN -> length == 1 && der.get(tlv.contentOffset()) != 0 ? "true" : "false";
+            case DerReader.INTEGER -> {
+                if (length > PREVIEW_BYTES) {
+                    yield new BigInteger(1, content(tlv.contentOffset(), length)).bitLength() + "-bit integer";
+                }
+                BigInteger value = new BigInteger(content(tlv.contentOffset(), length));
+                yield value.bitLength() < 32 ? value.toString() : "0x" + value.toString(16);
+            }
+            case BIT_STRING -> {
+                int unused = length == 0 ? 0 : der.get(tlv.contentOffset()) & 0xFF;
+                yield Math.max(0, (length - 1) * 8 - unused) + " bits" + preview(tlv.contentOffset() + 1, length - 1);
+            }
+            case DerReader.OCTET_STRING -> length + " bytes" + preview(tlv.contentOffset(), length);
+            case NULL -> "NULL";
+            case DerReader.OBJECT_IDENTIFIER -> OidNames.describe(DerReader.oid(der, tlv));
+            case 0x0C, 0x12, 0x13, 0x14, 0x16, 0x17, 0x18, 0x1A ->
+                    new String(content(tlv.contentOffset(), length), tag == 0x0C ? StandardCharsets.UTF_8
+                            : StandardCharsets.ISO_8859_1);
+            case DerReader.BMP_STRING -> new String(content(tlv.contentOffset(), length), StandardCharsets.UTF_16BE);
+            default -> printable(tlv.contentOffset(), length) ? new String(content(tlv.contentOffset(), length),
+                    StandardCharsets.US_ASCII) : length + " bytes" + preview(tlv.contentOffset(), length);
+        };
+    }
+
+    private String preview(int offset, int length) {
+        if (length <= 0) {
+            return "";
+        }
+        return ": " + HEX.formatHex(content(offset, Math.min(length, PREVIEW_BYTES)))
+                + (length > PREVIEW_BYTES ? ":\u2026" : "");
+    }
+
+    private boolean printable(int offset, int length) {
+        if (length == 0 || length > 256) {
+            return false;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            byte b = der.get(i);
+            if (b < 0x20 || b > 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] content(int offset, int length) {
+        byte[] bytes = new byte[length];
+        der.get(offset, bytes);
+        return bytes;
+    }
+
+    private static String typeName(int tag) {
+        return switch (tag) {
+            case BOOLEAN -> "BOOLEAN";
+            case DerReader.INTEGER -> "INTEGER";
+            case BIT_STRING -> "BIT STRING";
+            case DerReader.OCTET_STRING -> "OCTET STRING";
+            case NULL -> "NULL";
+            case DerReader.OBJECT_IDENTIFIER -> "OBJECT IDENTIFIER";
+            case 0x0A -> "ENUMERATED";
+            case 0x0C -> "UTF8String";
+            case 0x12 -> "NumericString";
+            case 0x13 -> "PrintableString";
+            case 0x14 -> "TeletexString";
+            case 0x16 -> "IA5String";
+            case 0x17 -> "UTCTime";
+            case 0x18 -> "GeneralizedTime";
+            case 0x1A -> "VisibleString";
+            case DerReader.BMP_STRING -> "BMPString";
+            case DerReader.SEQUENCE -> "SEQUENCE";
+            case DerReader.SET -> "SET";
+            default -> (tag & 0xC0) == 0x80 ? "[" + (tag & 0x1F) + "]" : String.format("tag 0x%02X", tag);
+        };
+    }
+}
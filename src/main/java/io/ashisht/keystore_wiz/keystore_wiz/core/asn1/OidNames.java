@@ -0,0 +1,107 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.asn1;
+
+import java.util.Map;
+
+/**
+ * Names of the object identifiers found in certificates: algorithms, name attributes, extensions
+ * and their values.
+ */
+public final class OidNames {
+    private static final Map<String, String> NAMES = Map.ofEntries(
+            // Algorithms and curves
+            Map.entry("1.2.840.113549.1.1.1", "rsaEncryption"),
+            Map.entry("1.2.840.113549.1.1.5", "sha1WithRSAEncryption"),
+            Map.entry("1.2.840.113549.1.1.10", "RSASSA-PSS"),
+            Map.entry("1.2.840.113549.1.1.11", "sha256WithRSAEncryption"),
+            Map.entry("1.2.840.113549.1.1.12", "sha384WithRSAEncryption"),
+            Map.entry("1.2.840.113549.1.1.13", "sha512WithRSAEncryption"),
+            Map.entry("1.2.840.10045.2.1", "ecPublicKey"),
+            Map.entry("1.2.840.10045.3.1.7", "prime256v1"),
+            Map.entry("1.2.840.10045.4.3.2", "ecdsa-with-SHA256"),
+            Map.entry("1.2.840.10045.4.3.3", "ecdsa-with-SHA384"),
+            Map.entry("1.2.840.10045.4.3.4", "ecdsa-with-SHA512"),
+            Map.entry("1.3.132.0.34", "secp384r1"),
+            Map.entry("1.3.132.0.35", "secp521r1"),
+            Map.entry("1.3.101.112", "Ed25519"),
+            Map.entry("1.3.101.113", "Ed448"),
+            Map.entry("2.16.840.1.101.3.4.2.1", "sha256"),
+            Map.entry("2.16.840.1.101.3.4.2.2", "sha384"),
+            Map.entry("2.16.840.1.101.3.4.2.3", "sha512"),
+            // Name attributes
+            Map.entry("2.5.4.3", "commonName"),
+            Map.entry("2.5.4.5", "serialNumber"),
+            Map.entry("2.5.4.6", "countryName"),
+            Map.entry("2.5.4.7", "localityName"),
+            Map.entry("2.5.4.8", "stateOrProvinceName"),
+            Map.entry("2.5.4.10", "organizationName"),
+            Map.entry("2.5.4.11", "organizationalUnitName"),
+            Map.entry("1.2.840.113549.1.9.1", "emailAddress"),
+            Map.entry("0.9.2342.19200300.100.1.25", "domainComponent"),
+            // Extensions
+            Map.entry("2.5.29.14", "subjectKeyIdentifier"),
+            Map.entry("2.5.29.15", "keyUsage"),
+            Map.entry("2.5.29.17", "subjectAltName"),
+            Map.entry("2.5.29.18", "issuerAltName"),
+            Map.entry("2.5.29.19", "basicConstraints"),
+            Map.entry("2.5.29.30", "nameConstraints"),
+            Map.entry("2.5.29.31", "cRLDistributionPoints"),
+            Map.entry("2.5.29.32", "certificatePolicies"),
+            Map.entry("2.5.29.35", "authorityKeyIdentifier"),
+            Map.entry("2.5.29.36", "policyConstraints"),
+            Map.entry("2.5.29.37", "extKeyUsage"),
+            Map.entry("2.5.29.54", "inhibitAnyPolicy"),
+            Map.entry("1.3.6.1.5.5.7.1.1", "authorityInfoAccess"),
+            Map.entry("1.3.6.1.5.5.7.1.24", "tlsFeature"),
+            Map.entry("1.3.6.1.4.1.11129.2.4.2", "signedCertificateTimestampList"),
+            // Extension values
+            Map.entry("1.3.6.1.5.5.7.3.1", "serverAuth"),
+            Map.entry("1.3.6.1.5.5.7.3.2", "clientAuth"),
+            Map.entry("1.3.6.1.5.5.7.3.3", "codeSigning"),
+            Map.entry("1.3.6.1.5.5.7.3.4", "emailProtection"),
+            Map.entry("1.3.6.1.5.5.7.3.8", "timeStamping"),
+            Map.entry("1.3.6.1.5.5.7.3.9", "OCSPSigning"),
+            Map.entry("1.3.6.1.5.5.7.48.1", "ocsp"),
+            Map.entry("1.3.6.1.5.5.7.48.2", "caIssuers"),
+            Map.entry("1.3.6.1.5.5.7.2.1", "cps"),
+            Map.entry("1.3.6.1.5.5.7.2.2", "unotice"),
+            Map.entry("2.5.29.32.0", "anyPolicy"),
+            Map.entry("2.23.140.1.2.1", "domain-validated"),
+            Map.entry("2.23.140.1.2.2", "organization-validated"),
+            Map.entry("2.23.140.1.2.3", "individual-validated"),
+            Map.entry("2.23.140.1.1", "extended-validation"));
+
+    private OidNames() {
+    }
+
+    /**
+     * @param oid An object identifier in dotted form.
+     * @return Its name, or {@code null} if it is not known.
+     */
+    public static String name(String oid) {
+        return NAMES.get(oid);
+    }
+
+    /**
+     * @param oid An object identifier in dotted form.
+     * @return Its name followed by the identifier, or only the identifier if it has no known name.
+     */
+    public static String describe(String oid) {
+        String name = NAMES.get(oid);
+        return name == null ? oid : name + " (" + oid + ")";
+    }
+}
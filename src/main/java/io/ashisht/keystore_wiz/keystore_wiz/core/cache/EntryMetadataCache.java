@@ -0,0 +1,281 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.cache;
+
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of the entry metadata extracted from recently opened keystores.
+ *
+ * <p>Each keystore gets one cache file, named after a hash of its absolute path. The file
+ * records the size, modification time and SHA-256 content hash of the keystore it was built
+ * from, so any change to the keystore invalidates it. A PBKDF2 verifier of the keystore
+ * password is stored as well, so a cache hit still requires the right password.
+ *
+ * <p>Entries are written in a compact binary format with a shared string table, since many
+ * certificates share the same issuer, and dates as epoch milliseconds. When the cache
+ * directory grows past its size limit the least recently used files are evicted.
+ */
+@Slf4j
+public class EntryMetadataCache {
+    private static final int MAGIC = 0x4B575A43; // "KWZC"
+    private static final int VERSION = 3;
+    private static final int VERIFIER_ITERATIONS = 10_000;
+    private static final String SUFFIX = ".kwc";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * @param directory The directory holding the cache files; created on first write.
+     * @param maxBytes  The total size the cache files may occupy before the oldest are evicted.
+     */
+    public EntryMetadataCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up the cached entries of a keystore.
+     *
+     * @param keystorePath The keystore file.
+     * @param password     The keystore password.
+     * @return The cached entries in keystore order, or empty if there is no valid cache file for
+     * the current content of the keystore or the password does not match.
+     */
+    public Optional<List<KeystoreEntry>> lookup(Path keystorePath, char[] password) {
+        Path cacheFile = cacheFile(keystorePath);
+        if (!Files.isRegularFile(cacheFile)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return invalidate(cacheFile, "unsupported format");
+            }
+            BasicFileAttributes attributes = Files.readAttributes(keystorePath, BasicFileAttributes.class);
+            long size = in.readLong();
+            long modified = in.readLong();
+            if (size != attributes.size() || modified != attributes.lastModifiedTime().toMillis()) {
+                return invalidate(cacheFile, "keystore changed");
+            }
+            byte[] contentHash = in.readNBytes(32);
+            if (!MessageDigest.isEqual(contentHash, contentHash(keystorePath))) {
+                return invalidate(cacheFile, "keystore content changed");
+            }
+            byte[] verifier = in.readNBytes(32);
+            if (!MessageDigest.isEqual(verifier, passwordVerifier(password, contentHash))) {
+                log.atInfo().log("Ignoring metadata cache for " + keystorePath + ": password does not match.");
+                return Optional.empty();
+            }
+            List<KeystoreEntry> entries = readEntries(in);
+            Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+            log.atInfo().log("Loaded " + entries.size() + " entries for " + keystorePath + " from the metadata cache.");
+            return Optional.of(entries);
+        } catch (IOException | GeneralSecurityException e) {
+            log.atError().log("Failed to read metadata cache for " + keystorePath + ": " + e.getMessage());
+            return invalidate(cacheFile, "unreadable");
+        }
+    }
+
+    /**
+     * Writes the entries of a keystore to the cache, replacing any previous cache file for it.
+     *
+     * @param keystorePath The keystore file the entries were decoded from.
+     * @param password     The keystore password.
+     * @param entries      The decoded entries, in keystore order.
+     */
+    public void store(Path keystorePath, char[] password, List<KeystoreEntry> entries) {
+        Path cacheFile = cacheFile(keystorePath);
+        try {
+            Files.createDirectories(directory);
+            BasicFileAttributes attributes = Files.readAttributes(keystorePath, BasicFileAttributes.class);
+            byte[] contentHash = contentHash(keystorePath);
+            Path temp = Files.createTempFile(directory, "entries", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(attributes.size());
+                    out.writeLong(attributes.lastModifiedTime().toMillis());
+                    out.write(contentHash);
+                    out.write(passwordVerifier(password, contentHash));
+                    writeEntries(out, entries);
+                }
+                try {
+                    Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.atInfo().log("Cached metadata of " + entries.size() + " entries for " + keystorePath);
+            evict();
+        } catch (IOException | GeneralSecurityException e) {
+            log.atError().log("Failed to write metadata cache for " + keystorePath + ": " + e.getMessage());
+        }
+    }
+
+    private Optional<List<KeystoreEntry>> invalidate(Path cacheFile, String reason) {
+        try {
+            Files.deleteIfExists(cacheFile);
+            log.atInfo().log("Invalidated metadata cache " + cacheFile.getFileName() + ": " + reason);
+        } catch (IOException e) {
+            log.atError().log("Failed to delete metadata cache " + cacheFile + ": " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static void writeEntries(DataOutputStream out, List<KeystoreEntry> entries) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int[][] refs = new int[entries.size()][];
+        for (int i = 0; i < entries.size(); i++) {
+            KeystoreEntry entry = entries.get(i);
+            refs[i] = new int[]{
+                    intern(strings, entry.getAlias()),
+                    intern(strings, entry.getIssuer()),
+                    intern(strings, entry.getSubject()),
+                    intern(strings, entry.getPublicKey())};
+        }
+        out.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            writeString(out, value);
+        }
+        out.writeInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            for (int index : refs[i]) {
+                out.writeInt(index);
+            }
+            out.writeLong(entries.get(i).getStartDate());
+            out.writeLong(entries.get(i).getEndDate());
+            out.writeBoolean(entries.get(i).isKeyEntry());
+        }
+    }
+
+    private static List<KeystoreEntry> readEntries(DataInputStream in) throws IOException {
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+        int count = in.readInt();
+        List<KeystoreEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(KeystoreEntry.builder()
+                    .alias(strings[in.readInt()])
+                    .issuer(strings[in.readInt()])
+                    .subject(strings[in.readInt()])
+                    .publicKey(strings[in.readInt()])
+                    .startDate(in.readLong())
+                    .endDate(in.readLong())
+                    .keyEntry(in.readBoolean())
+                    .build());
+        }
+        return entries;
+    }
+
+    private static int intern(Map<String, Integer> strings, String value) {
+        return strings.computeIfAbsent(value, v -> strings.size());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    private void evict() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+        long total = 0;
+        Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+        for (Path file : files) {
+            BasicFileAttributes fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+            attributes.put(file, fileAttributes);
+            total += fileAttributes.size();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        List<Path> oldestFirst = new ArrayList<>(files);
+        oldestFirst.sort(Comparator.comparing(file -> attributes.get(file).lastModifiedTime()));
+        for (Path file : oldestFirst) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= attributes.get(file).size();
+            Files.deleteIfExists(file);
+            log.atInfo().log("Evicted metadata cache " + file.getFileName());
+        }
+    }
+
+    private Path cacheFile(Path keystorePath) {
+        String key = keystorePath.toAbsolutePath().normalize().toString();
+        return directory.resolve(HexFormat.of().formatHex(sha256(key.getBytes(StandardCharsets.UTF_8))) + SUFFIX);
+    }
+
+    private static byte[] contentHash(Path keystorePath) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static byte[] passwordVerifier(char[] password, byte[] salt) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, VERIFIER_ITERATIONS, 256);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        return newSha256().digest(data);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
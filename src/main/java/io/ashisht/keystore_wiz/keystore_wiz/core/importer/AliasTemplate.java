@@ -0,0 +1,113 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.importer;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates aliases for imported certificates from a template.
+ *
+ * <p>Supported placeholders:
+ * <ul>
+ *     <li>{@code {cn}} - the subject common name, or the whole subject if it has none</li>
+ *     <li>{@code {sha256}} / {@code {sha256:N}} - the SHA-256 fingerprint, optionally its first N hex digits</li>
+ *     <li>{@code {sha1}} / {@code {sha1:N}} - the SHA-1 fingerprint, optionally its first N hex digits</li>
+ *     <li>{@code {serial}} - the serial number in hex</li>
+ *     <li>{@code {file}} - the name of the file the certificate was read from, without extension</li>
+ * </ul>
+ * The result is lower-cased and every run of characters other than letters, digits, {@code .},
+ * {@code _} and {@code -} is replaced by a single {@code -}.
+ */
+public class AliasTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(cn|sha256|sha1|serial|file)(?::(\\d+))?}");
+
+    private final String template;
+
+    public AliasTemplate(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Expands the template for a certificate.
+     *
+     * @param parsed The certificate and its source.
+     * @return The alias.
+     */
+    public String aliasFor(ParsedCertificate parsed) {
+        X509Certificate certificate = parsed.certificate();
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder alias = new StringBuilder();
+        while (matcher.find()) {
+            String value = switch (matcher.group(1)) {
+                case "cn" -> commonName(certificate);
+                case "sha256" -> fingerprint(certificate, "SHA-256");
+                case "sha1" -> fingerprint(certificate, "SHA-1");
+                case "serial" -> certificate.getSerialNumber().toString(16);
+                default -> fileName(parsed.source());
+            };
+            if (matcher.group(2) != null) {
+                value = value.substring(0, Math.min(value.length(), Integer.parseInt(matcher.group(2))));
+            }
+            matcher.appendReplacement(alias, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(alias);
+        return sanitize(alias.toString());
+    }
+
+    private static String commonName(X509Certificate certificate) {
+        String subject = certificate.getSubjectX500Principal().getName();
+        try {
+            for (Rdn rdn : new LdapName(subject).getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            // Fall back to the full subject
+        }
+        return subject;
+    }
+
+    private static String fingerprint(X509Certificate certificate, String algorithm) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            // Both digests are mandatory for every JRE, and the certificate was just decoded
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String fileName(String source) {
+        String name = source.substring(Math.max(source.lastIndexOf('/'), source.lastIndexOf('\\')) + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String sanitize(String alias) {
+        String sanitized = alias.toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9._-]+", "-").replaceAll("^-+|-+$", "");
+        return sanitized.isEmpty() ? "cert" : sanitized;
+    }
+}
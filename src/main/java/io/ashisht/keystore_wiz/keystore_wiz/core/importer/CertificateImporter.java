@@ -0,0 +1,179 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.importer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads certificates in bulk from a directory, a zip archive, or a single certificate file.
+ *
+ * <p>Files may contain DER or PEM encoded certificates, PEM bundles with many certificates, or
+ * PKCS#7 (P7B) bundles. Sources are read first, PEM bundles are split into one unit per
+ * certificate, and the units are then decoded in parallel on the given fork-join pool. The order
+ * of the result follows the order of the sources. Sources that fail to decode are reported
+ * instead of failing the whole import.
+ */
+@Slf4j
+public class CertificateImporter {
+    private static final Set<String> EXTENSIONS = Set.of("cer", "crt", "pem", "der", "p7b", "p7c");
+    private static final String PEM_BEGIN = "-----BEGIN CERTIFICATE-----";
+    private static final String PEM_END = "-----END CERTIFICATE-----";
+
+    private static final ThreadLocal<CertificateFactory> CERTIFICATE_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return CertificateFactory.getInstance("X.509");
+        } catch (CertificateException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ForkJoinPool pool;
+
+    public CertificateImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * A chunk of encoded certificate data, decoded independently of the others.
+     */
+    private record Unit(String source, byte[] data) {
+    }
+
+    /**
+     * A unit after decoding; exactly one of {@code certificates} and {@code failure} is set.
+     */
+    private record Decoded(List<ParsedCertificate> certificates, String failure) {
+    }
+
+    /**
+     * Reads every certificate from a directory (recursively), a zip archive, or a certificate file.
+     *
+     * @param source The directory, archive or file to import.
+     * @return The parsed certificates and the sources that could not be parsed.
+     * @throws IOException If the source cannot be read.
+     */
+    public ImportResult parse(Path source) throws IOException {
+        List<Unit> units = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(source)) {
+                files = walk.filter(Files::isRegularFile).filter(file -> hasCertificateExtension(file.toString())).sorted().toList();
+            }
+            for (Path file : files) {
+                addUnits(units, source.relativize(file).toString(), Files.readAllBytes(file));
+            }
+        } else if (source.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(".zip")) {
+            try (ZipFile zip = new ZipFile(source.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory() && hasCertificateExtension(entry.getName())) {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            addUnits(units, entry.getName(), in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } else {
+            addUnits(units, source.getFileName().toString(), Files.readAllBytes(source));
+        }
+
+        List<Decoded> decoded;
+        try {
+            decoded = pool.submit(() -> units.parallelStream().map(CertificateImporter::decode).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Certificate import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Certificate import failed", e.getCause());
+        }
+
+        List<ParsedCertificate> certificates = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (Decoded result : decoded) {
+            if (result.failure() != null) {
+                failures.add(result.failure());
+            } else {
+                certificates.addAll(result.certificates());
+            }
+        }
+        log.atInfo().log("Parsed " + certificates.size() + " certificates from " + source + ", " + failures.size() + " failures.");
+        return new ImportResult(certificates, failures);
+    }
+
+    private static boolean hasCertificateExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Adds the data of one source, split into one unit per certificate if it is a PEM bundle.
+     */
+    private static void addUnits(List<Unit> units, String source, byte[] data) {
+        String text = new String(data, StandardCharsets.ISO_8859_1);
+        int begin = text.indexOf(PEM_BEGIN);
+        if (begin < 0 || text.indexOf(PEM_BEGIN, begin + PEM_BEGIN.length()) < 0) {
+            units.add(new Unit(source, data));
+            return;
+        }
+        int index = 0;
+        while (begin >= 0) {
+            int end = text.indexOf(PEM_END, begin);
+            if (end < 0) {
+                break;
+            }
+            end += PEM_END.length();
+            units.add(new Unit(source + "#" + index++, text.substring(begin, end).getBytes(StandardCharsets.ISO_8859_1)));
+            begin = text.indexOf(PEM_BEGIN, end);
+        }
+    }
+
+    private static Decoded decode(Unit unit) {
+        try {
+            List<ParsedCertificate> certificates = new ArrayList<>();
+            for (Certificate certificate : CERTIFICATE_FACTORY.get().generateCertificates(new ByteArrayInputStream(unit.data()))) {
+                certificates.add(new ParsedCertificate(unit.source(), (X509Certificate) certificate));
+            }
+            if (certificates.isEmpty()) {
+                return new Decoded(null, unit.source() + ": no certificates found");
+            }
+            return new Decoded(certificates, null);
+        } catch (CertificateException | RuntimeException e) {
+            return new Decoded(null, unit.source() + ": " + e.getMessage());
+        }
+    }
+}
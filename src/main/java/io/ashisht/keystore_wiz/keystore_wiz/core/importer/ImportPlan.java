@@ -0,0 +1,72 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.importer;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+
+import java.security.cert.X509Certificate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The certificates of a bulk import that are not in the keystore yet, each with an alias that
+ * does not clash with the keystore or with the rest of the batch.
+ *
+ * @param batch      The certificates to add, keyed by their new alias.
+ * @param failures   A description of every file or archive entry that failed to parse.
+ * @param duplicates The number of certificates skipped because they are already in the keystore or repeated in the batch.
+ */
+public record ImportPlan(Map<String, X509Certificate> batch, List<String> failures, int duplicates) {
+
+    /**
+     * Assigns aliases to parsed certificates, skipping those already in the keystore.
+     *
+     * @param result           The parsed certificates.
+     * @param aliasTemplate    The template naming the new entries.
+     * @param existingAliases  The aliases already in the keystore.
+     * @param fingerprintIndex The complete fingerprint index of the keystore.
+     * @param cancelled        Checked between certificates; planning stops early once it returns {@code true}.
+     * @return The plan.
+     */
+    public static ImportPlan of(ImportResult result, AliasTemplate aliasTemplate, Set<String> existingAliases,
+                                FingerprintIndex fingerprintIndex, BooleanSupplier cancelled) {
+        Set<String> taken = new HashSet<>(existingAliases);
+        Set<String> seen = new HashSet<>();
+        int skipped = 0;
+        Map<String, X509Certificate> batch = new LinkedHashMap<>();
+        for (ParsedCertificate parsed : result.certificates()) {
+            if (cancelled.getAsBoolean()) {
+                break;
+            }
+            String sha256 = FingerprintIndex.fingerprints(parsed.certificate()).sha256();
+            if (!seen.add(sha256) || !fingerprintIndex.aliasesFor(sha256).isEmpty()) {
+                skipped++;
+                continue;
+            }
+            String base = aliasTemplate.aliasFor(parsed);
+            String alias = base;
+            for (int suffix = 2; !taken.add(alias); suffix++) {
+                alias = base + "-" + suffix;
+            }
+            batch.put(alias, parsed.certificate());
+        }
+        return new ImportPlan(batch, result.failures(), skipped);
+    }
+}
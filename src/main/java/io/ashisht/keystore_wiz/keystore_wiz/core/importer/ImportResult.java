@@ -0,0 +1,27 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.importer;
+
+import java.util.List;
+
+/**
+ * The certificates read by a bulk import, along with the sources that could not be read.
+ *
+ * @param certificates The parsed certificates, in source order.
+ * @param failures     A description of every file or archive entry that failed to parse.
+ */
+public record ImportResult(List<ParsedCertificate> certificates, List<String> failures) {
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * An index over the certificates of the loaded keystore.
+ *
+ * <p>Indexes are filled by a background pass after a keystore is loaded and are then kept up
+ * to date as entries are added and deleted. Implementations must be safe for concurrent use,
+ * since the background pass adds entries from several threads.
+ */
+public interface CertificateIndex {
+
+    /**
+     * Indexes a certificate, replacing anything previously indexed under the same alias.
+     */
+    void add(String alias, X509Certificate certificate);
+
+    /**
+     * Removes everything indexed under an alias.
+     */
+    void remove(String alias);
+
+    /**
+     * Removes all entries.
+     */
+    void clear();
+}
@@ -0,0 +1,375 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import javax.security.auth.x500.X500Principal;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyStoreException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Links every certificate to its issuer within the keystore, so that certificate chains can be
+ * shown and checked without a {@link java.security.cert.CertPathBuilder} search per entry.
+ *
+ * <p>Certificates are indexed by their subject distinguished name and subject key identifier. An
+ * issuer is any certificate whose subject matches the issuer name of a certificate, preferring
+ * those whose subject key identifier matches its authority key identifier, and which actually
+ * signed it. Chains are resolved lazily and memoized per alias; since a chain reuses the chain
+ * of its issuer, resolving every chain of the keystore verifies each signature about once.
+ *
+ * <p>A memoized complete chain stays valid for as long as none of its certificates is replaced or
+ * removed, which is checked on every lookup. Any change may complete an orphaned or broken chain,
+ * so those are only reused until the index next changes.
+ */
+public class ChainIndex implements CertificateIndex {
+    private static final String SUBJECT_KEY_IDENTIFIER = "2.5.29.14";
+    private static final String AUTHORITY_KEY_IDENTIFIER = "2.5.29.35";
+    private static final int KEY_CERT_SIGN = 5;
+    private static final int MAX_DEPTH = 32;
+
+    private final Map<String, Node> nodesByAlias = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, Set<String>> aliasesBySubject = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, Set<String>> aliasesByKeyIdentifier = new ConcurrentHashMap<>();
+    private final Map<String, Resolved> chains = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public enum Status {
+        /**
+         * A certificate in the chain is not signed by its issuer, is issued by a certificate
+         * that may not issue certificates, or the chain loops.
+         */
+        BROKEN,
+        /**
+         * The issuer of the last certificate in the chain is not in the keystore.
+         */
+        ORPHANED,
+        /**
+         * The chain ends in a self-signed certificate of the keystore.
+         */
+        COMPLETE
+    }
+
+    /**
+     * @param aliases The aliases of the chain, starting with the certificate it was resolved for
+     *                and ending with its root or the last certificate whose issuer was found.
+     * @param status  Whether the chain is complete.
+     * @param problem Why the chain is orphaned or broken, or {@code null} if it is complete.
+     */
+    public record Chain(List<String> aliases, Status status, String problem) {
+    }
+
+    /**
+     * A memoized chain with the certificates it was resolved from.
+     */
+    private record Resolved(Chain chain, List<Node> nodes, long generation) {
+    }
+
+    private record Node(String alias, X509Certificate certificate, ByteBuffer subject, ByteBuffer issuer,
+                        ByteBuffer subjectKeyIdentifier, ByteBuffer authorityKeyIdentifier) {
+        boolean isSelfIssued() {
+            return subject.equals(issuer);
+        }
+    }
+
+    @Override
+    public void add(String alias, X509Certificate certificate) {
+        Node node = new Node(alias, certificate,
+                ByteBuffer.wrap(certificate.getSubjectX500Principal().getEncoded()),
+                ByteBuffer.wrap(certificate.getIssuerX500Principal().getEncoded()),
+                subjectKeyIdentifier(certificate), authorityKeyIdentifier(certificate));
+        generation.incrementAndGet();
+        Node previous = nodesByAlias.put(alias, node);
+        if (previous != null) {
+            unlink(previous);
+        }
+        aliasesBySubject.computeIfAbsent(node.subject(), subject -> ConcurrentHashMap.newKeySet()).add(alias);
+        if (node.subjectKeyIdentifier() != null) {
+            aliasesByKeyIdentifier.computeIfAbsent(node.subjectKeyIdentifier(), id -> ConcurrentHashMap.newKeySet())
+                    .add(alias);
+        }
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void remove(String alias) {
+        Node previous = nodesByAlias.remove(alias);
+        if (previous != null) {
+            generation.incrementAndGet();
+            unlink(previous);
+            chains.remove(alias);
+        }
+    }
+
+    @Override
+    public void clear() {
+        nodesByAlias.clear();
+        aliasesBySubject.clear();
+        aliasesByKeyIdentifier.clear();
+        chains.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Resolves the chain of a certificate, or returns it from the memo.
+     *
+     * @param alias The alias of the certificate.
+     * @return The chain, or {@code null} if the alias is not indexed.
+     */
+    public Chain chainOf(String alias) {
+        Resolved resolved = resolve(alias, generation.get(), new HashSet<>());
+        return resolved == null ? null : resolved.chain();
+    }
+
+    /**
+     * Returns the chain of a certificate only if it is memoized and still valid, without
+     * verifying any signature.
+     *
+     * @param alias The alias of the certificate.
+     * @return The chain, or {@code null} if it still has to be resolved.
+     */
+    public Chain peek(String alias) {
+        Resolved resolved = memoized(alias, generation.get());
+        return resolved == null ? null : resolved.chain();
+    }
+
+    /**
+     * @param subject A distinguished name.
+     * @return The indexed certificates with that subject, ordered by alias.
+     */
+    public List<X509Certificate> certificatesWithSubject(X500Principal subject) {
+        return aliasesBySubject.getOrDefault(ByteBuffer.wrap(subject.getEncoded()), Set.of()).stream()
+                .sorted()
+                .map(nodesByAlias::get)
+                .filter(Objects::nonNull)
+                .map(Node::certificate)
+                .toList();
+    }
+
+    /**
+     * Resolves the chain of every indexed certificate that is not memoized yet. Run inside a
+     * {@link java.util.concurrent.ForkJoinPool} task to resolve on that pool.
+     */
+    public void resolveAll() {
+        nodesByAlias.keySet().parallelStream().forEach(this::chainOf);
+    }
+
+    private Resolved memoized(String alias, long currentGeneration) {
+        Resolved resolved = chains.get(alias);
+        if (resolved == null) {
+            return null;
+        }
+        if (resolved.chain().status() != Status.COMPLETE && resolved.generation() != currentGeneration) {
+            return null;
+        }
+        for (Node node : resolved.nodes()) {
+            if (nodesByAlias.get(node.alias()) != node) {
+                return null;
+            }
+        }
+        return resolved;
+    }
+
+    private Resolved resolve(String alias, long currentGeneration, Set<String> path) {
+        Resolved resolved = memoized(alias, currentGeneration);
+        if (resolved != null) {
+            return resolved;
+        }
+        Node node = nodesByAlias.get(alias);
+        if (node == null) {
+            return null;
+        }
+        path.add(alias);
+        resolved = link(node, currentGeneration, path);
+        path.remove(alias);
+        chains.put(alias, resolved);
+        return resolved;
+    }
+
+    private Resolved link(Node node, long currentGeneration, Set<String> path) {
+        X509Certificate certificate = node.certificate();
+        if (node.isSelfIssued() && verifies(certificate, certificate)) {
+            return new Resolved(new Chain(List.of(node.alias()), Status.COMPLETE, null), List.of(node), currentGeneration);
+        }
+
+        List<String> candidates = issuerCandidates(node);
+        if (candidates.isEmpty()) {
+            return unresolved(node, currentGeneration);
+        }
+        Resolved fallback = null;
+        String problem = null;
+        for (String candidate : candidates) {
+            Node issuer = nodesByAlias.get(candidate);
+            if (issuer == null) {
+                continue;
+            }
+            if (path.contains(candidate)) {
+                problem = "The chain loops back to " + candidate;
+            } else if (path.size() >= MAX_DEPTH) {
+                problem = "The chain is longer than " + MAX_DEPTH + " certificates";
+            } else if (!verifies(certificate, issuer.certificate())) {
+                problem = "The signature does not verify with the key of " + candidate;
+            } else if (!mayIssue(issuer.certificate())) {
+                problem = candidate + " is not a CA certificate";
+            } else {
+                Resolved issuerChain = resolve(candidate, currentGeneration, path);
+                if (issuerChain == null) {
+                    continue;
+                }
+                Resolved resolved = extend(node, issuerChain);
+                if (resolved.chain().status() == Status.COMPLETE) {
+                    return resolved;
+                }
+                if (fallback == null) {
+                    fallback = resolved;
+                }
+            }
+        }
+        if (fallback != null) {
+            return fallback;
+        }
+        return problem != null ? single(node, Status.BROKEN, problem, currentGeneration) : unresolved(node, currentGeneration);
+    }
+
+    private static Resolved extend(Node node, Resolved issuerChain) {
+        List<String> aliases = new ArrayList<>(issuerChain.nodes().size() + 1);
+        List<Node> nodes = new ArrayList<>(issuerChain.nodes().size() + 1);
+        aliases.add(node.alias());
+        nodes.add(node);
+        aliases.addAll(issuerChain.chain().aliases());
+        nodes.addAll(issuerChain.nodes());
+        Chain chain = issuerChain.chain();
+        return new Resolved(new Chain(List.copyOf(aliases), chain.status(), chain.problem()), List.copyOf(nodes),
+                issuerChain.generation());
+    }
+
+    private static Resolved single(Node node, Status status, String problem, long currentGeneration) {
+        return new Resolved(new Chain(List.of(node.alias()), status, problem), List.of(node), currentGeneration);
+    }
+
+    private Resolved unresolved(Node node, long currentGeneration) {
+        if (node.isSelfIssued()) {
+            return single(node, Status.BROKEN, "The self-signed signature does not verify", currentGeneration);
+        }
+        String issuerName = node.certificate().getIssuerX500Principal().getName();
+        Set<String> sameKey = node.authorityKeyIdentifier() == null ? null
+                : aliasesByKeyIdentifier.get(node.authorityKeyIdentifier());
+        if (sameKey != null && !sameKey.isEmpty()) {
+            return single(node, Status.BROKEN, "The issuer " + issuerName + " is not in the keystore, but "
+                    + String.join(", ", sameKey) + " has its key identifier", currentGeneration);
+        }
+        return single(node, Status.ORPHANED, "The issuer " + issuerName + " is not in the keystore", currentGeneration);
+    }
+
+    /**
+     * @return The other certificates named as the issuer, those with the matching key identifier first.
+     */
+    private List<String> issuerCandidates(Node node) {
+        Set<String> named = aliasesBySubject.getOrDefault(node.issuer(), Set.of());
+        List<String> preferred = new ArrayList<>();
+        List<String> others = new ArrayList<>();
+        for (String alias : named) {
+            Node issuer = nodesByAlias.get(alias);
+            if (issuer == null || alias.equals(node.alias())) {
+                continue;
+            }
+            boolean keyMatches = node.authorityKeyIdentifier() != null
+                    && node.authorityKeyIdentifier().equals(issuer.subjectKeyIdentifier());
+            (keyMatches ? preferred : others).add(alias);
+        }
+        preferred.sort(null);
+        others.sort(null);
+        preferred.addAll(others);
+        return preferred;
+    }
+
+    private static boolean verifies(X509Certificate certificate, X509Certificate issuer) {
+        try {
+            certificate.verify(issuer.getPublicKey());
+            return true;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean mayIssue(X509Certificate issuer) {
+        boolean[] keyUsage = issuer.getKeyUsage();
+        if (keyUsage != null && (keyUsage.length <= KEY_CERT_SIGN || !keyUsage[KEY_CERT_SIGN])) {
+            return false;
+        }
+        // Version 1 certificates have no basic constraints and are still in use as roots
+        return issuer.getVersion() < 3 || issuer.getBasicConstraints() >= 0;
+    }
+
+    private void unlink(Node node) {
+        unlink(aliasesBySubject, node.subject(), node.alias());
+        if (node.subjectKeyIdentifier() != null) {
+            unlink(aliasesByKeyIdentifier, node.subjectKeyIdentifier(), node.alias());
+        }
+    }
+
+    private static void unlink(Map<ByteBuffer, Set<String>> map, ByteBuffer key, String alias) {
+        map.computeIfPresent(key, (k, aliases) -> {
+            aliases.remove(alias);
+            return aliases.isEmpty() ? null : aliases;
+        });
+    }
+
+    private static ByteBuffer subjectKeyIdentifier(X509Certificate certificate) {
+        byte[] value = certificate.getExtensionValue(SUBJECT_KEY_IDENTIFIER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            DerReader.Tlv extension = DerReader.expect(buffer, 0, value.length, DerReader.OCTET_STRING);
+            DerReader.Tlv keyIdentifier = DerReader.expect(buffer, extension.contentOffset(), extension.end(),
+                    DerReader.OCTET_STRING);
+            return ByteBuffer.wrap(DerReader.content(buffer, keyIdentifier));
+        } catch (KeyStoreException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer authorityKeyIdentifier(X509Certificate certificate) {
+        byte[] value = certificate.getExtensionValue(AUTHORITY_KEY_IDENTIFIER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            DerReader.Tlv extension = DerReader.expect(buffer, 0, value.length, DerReader.OCTET_STRING);
+            DerReader.Tlv sequence = DerReader.expect(buffer, extension.contentOffset(), extension.end(),
+                    DerReader.SEQUENCE);
+            if (sequence.contentLength() == 0) {
+                return null;
+            }
+            // keyIdentifier [0] IMPLICIT OCTET STRING, the first and optional field
+            DerReader.Tlv first = DerReader.read(buffer, sequence.contentOffset(), sequence.end());
+            return first.tag() == 0x80 ? ByteBuffer.wrap(DerReader.content(buffer, first)) : null;
+        } catch (KeyStoreException e) {
+            return null;
+        }
+    }
+}
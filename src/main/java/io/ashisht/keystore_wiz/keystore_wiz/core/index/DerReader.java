@@ -0,0 +1,149 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import java.nio.ByteBuffer;
+import java.security.KeyStoreException;
+
+/**
+ * Minimal reader for DER encoded ASN.1 structures.
+ *
+ * <p>The reader never copies content: every element is described by its tag and the absolute
+ * position of its contents within the buffer, so nested structures can be walked directly over
+ * the bytes of a keystore file read into memory.
+ */
+public final class DerReader {
+    public static final int SEQUENCE = 0x30;
+    public static final int SET = 0x31;
+    public static final int INTEGER = 0x02;
+    public static final int OCTET_STRING = 0x04;
+    public static final int OBJECT_IDENTIFIER = 0x06;
+    public static final int BMP_STRING = 0x1E;
+    public static final int CONTEXT_0 = 0xA0;
+
+    private DerReader() {
+    }
+
+    /**
+     * A single tag-length-value element.
+     *
+     * @param tag           The identifier octet.
+     * @param offset        The absolute position of the identifier octet.
+     * @param contentOffset The absolute position of the first content octet.
+     * @param contentLength The number of content octets.
+     */
+    public record Tlv(int tag, int offset, int contentOffset, int contentLength) {
+        public int end() {
+            return contentOffset + contentLength;
+        }
+
+        public int length() {
+            return end() - offset;
+        }
+
+        public boolean isConstructed() {
+            return (tag & 0x20) != 0;
+        }
+    }
+
+    /**
+     * Reads the element starting at the given position.
+     *
+     * @param buffer The buffer holding the encoding.
+     * @param offset The absolute position of the identifier octet.
+     * @param limit  The position the element must not extend past.
+     * @return The element.
+     * @throws KeyStoreException If the encoding is malformed, uses a high tag number or an indefinite length.
+     */
+    public static Tlv read(ByteBuffer buffer, int offset, int limit) throws KeyStoreException {
+        if (offset + 2 > limit) {
+            throw new KeyStoreException("Truncated DER element at offset " + offset);
+        }
+        int tag = buffer.get(offset) & 0xFF;
+        if ((tag & 0x1F) == 0x1F) {
+            throw new KeyStoreException("Unsupported high tag number at offset " + offset);
+        }
+        int pos = offset + 1;
+        int first = buffer.get(pos++) & 0xFF;
+        long length;
+        if (first < 0x80) {
+            length = first;
+        } else {
+            int octets = first & 0x7F;
+            if (octets == 0) {
+                throw new KeyStoreException("Indefinite length encoding at offset " + offset);
+            }
+            if (octets > 4 || pos + octets > limit) {
+                throw new KeyStoreException("Invalid length encoding at offset " + offset);
+            }
+            length = 0;
+            for (int i = 0; i < octets; i++) {
+                length = (length << 8) | (buffer.get(pos++) & 0xFF);
+            }
+        }
+        if (pos + length > limit) {
+            throw new KeyStoreException("DER element at offset " + offset + " exceeds its container");
+        }
+        return new Tlv(tag, offset, pos, (int) length);
+    }
+
+    /**
+     * Reads the element starting at the given position and checks its tag.
+     *
+     * @throws KeyStoreException If the element is malformed or has another tag.
+     */
+    public static Tlv expect(ByteBuffer buffer, int offset, int limit, int tag) throws KeyStoreException {
+        Tlv tlv = read(buffer, offset, limit);
+        if (tlv.tag() != tag) {
+            throw new KeyStoreException(String.format("Expected tag 0x%02X but found 0x%02X at offset %d",
+                    tag, tlv.tag(), offset));
+        }
+        return tlv;
+    }
+
+    /**
+     * Decodes the contents of an OBJECT IDENTIFIER element into its dotted form.
+     */
+    public static String oid(ByteBuffer buffer, Tlv tlv) {
+        StringBuilder oid = new StringBuilder();
+        long value = 0;
+        boolean first = true;
+        for (int i = tlv.contentOffset(); i < tlv.end(); i++) {
+            int b = buffer.get(i) & 0xFF;
+            value = (value << 7) | (b & 0x7F);
+            if ((b & 0x80) == 0) {
+                if (first) {
+                    int arc = (int) Math.min(value / 40, 2);
+                    oid.append(arc).append('.').append(value - 40L * arc);
+                    first = false;
+                } else {
+                    oid.append('.').append(value);
+                }
+                value = 0;
+            }
+        }
+        return oid.toString();
+    }
+
+    /**
+     * Returns a copy of the content octets of an element.
+     */
+    public static byte[] content(ByteBuffer buffer, Tlv tlv) {
+        byte[] content = new byte[tlv.contentLength()];
+        buffer.get(tlv.contentOffset(), content);
+        return content;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Orders aliases by the expiry date of their certificate, so that range queries such as "what
+ * expires in the next 30 days" cost O(log n + k) instead of a pass over every entry.
+ */
+public class ExpiryIndex implements CertificateIndex {
+    private final ConcurrentSkipListMap<Long, Set<String>> aliasesByExpiry = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> expiryByAlias = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(String alias, X509Certificate certificate) {
+        long notAfter = certificate.getNotAfter().getTime();
+        Long previous = expiryByAlias.put(alias, notAfter);
+        if (previous != null) {
+            unlink(alias, previous);
+        }
+        aliasesByExpiry.computeIfAbsent(notAfter, expiry -> ConcurrentHashMap.newKeySet()).add(alias);
+    }
+
+    @Override
+    public void remove(String alias) {
+        Long previous = expiryByAlias.remove(alias);
+        if (previous != null) {
+            unlink(alias, previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        aliasesByExpiry.clear();
+        expiryByAlias.clear();
+    }
+
+    /**
+     * Finds the certificates expiring in a time range.
+     *
+     * @param from The start of the range, inclusive, or {@code null} to include everything that already expired.
+     * @param to   The end of the range, exclusive.
+     * @return The aliases, ordered by expiry date.
+     */
+    public List<String> expiringBetween(Instant from, Instant to) {
+        Map<Long, Set<String>> range = from == null
+                ? aliasesByExpiry.headMap(to.toEpochMilli(), false)
+                : aliasesByExpiry.subMap(from.toEpochMilli(), true, to.toEpochMilli(), false);
+        List<String> aliases = new ArrayList<>();
+        for (Set<String> expiring : range.values()) {
+            aliases.addAll(expiring);
+        }
+        return aliases;
+    }
+
+    /**
+     * @return The expiry date of the certificate stored under an alias, or {@code null} if it is not indexed.
+     */
+    public Instant expiryOf(String alias) {
+        Long notAfter = expiryByAlias.get(alias);
+        return notAfter == null ? null : Instant.ofEpochMilli(notAfter);
+    }
+
+    private void unlink(String alias, long notAfter) {
+        aliasesByExpiry.computeIfPresent(notAfter, (expiry, aliases) -> {
+            aliases.remove(alias);
+            return aliases.isEmpty() ? null : aliases;
+        });
+    }
+}
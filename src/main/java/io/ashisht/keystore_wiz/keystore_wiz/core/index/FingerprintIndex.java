@@ -0,0 +1,133 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps SHA-256 and SHA-1 certificate fingerprints to the aliases they are stored under.
+ *
+ * <p>Fingerprints are lower-case hex strings without separators; lookups accept the colon
+ * separated upper-case form printed by {@code keytool} as well.
+ */
+public class FingerprintIndex implements CertificateIndex {
+    private final Map<String, Set<String>> aliasesByFingerprint = new ConcurrentHashMap<>();
+    private final Map<String, Fingerprints> fingerprintsByAlias = new ConcurrentHashMap<>();
+
+    /**
+     * @param sha256 The SHA-256 fingerprint in lower-case hex.
+     * @param sha1   The SHA-1 fingerprint in lower-case hex.
+     */
+    public record Fingerprints(String sha256, String sha1) {
+    }
+
+    /**
+     * Computes the fingerprints of a certificate.
+     *
+     * @param certificate The certificate.
+     * @return Its SHA-256 and SHA-1 fingerprints.
+     */
+    public static Fingerprints fingerprints(X509Certificate certificate) {
+        try {
+            byte[] encoded = certificate.getEncoded();
+            HexFormat hex = HexFormat.of();
+            return new Fingerprints(hex.formatHex(MessageDigest.getInstance("SHA-256").digest(encoded)),
+                    hex.formatHex(MessageDigest.getInstance("SHA-1").digest(encoded)));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void add(String alias, X509Certificate certificate) {
+        Fingerprints fingerprints = fingerprints(certificate);
+        Fingerprints previous = fingerprintsByAlias.put(alias, fingerprints);
+        if (previous != null) {
+            unlink(alias, previous);
+        }
+        link(alias, fingerprints.sha256());
+        link(alias, fingerprints.sha1());
+    }
+
+    @Override
+    public void remove(String alias) {
+        Fingerprints previous = fingerprintsByAlias.remove(alias);
+        if (previous != null) {
+            unlink(alias, previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        aliasesByFingerprint.clear();
+        fingerprintsByAlias.clear();
+    }
+
+    /**
+     * Finds the aliases a certificate is stored under.
+     *
+     * @param fingerprint A SHA-256 or SHA-1 fingerprint, in hex with or without colons.
+     * @return The aliases, empty if the certificate is not in the keystore.
+     */
+    public Set<String> aliasesFor(String fingerprint) {
+        Set<String> aliases = aliasesByFingerprint.get(normalize(fingerprint));
+        return aliases == null ? Set.of() : Set.copyOf(aliases);
+    }
+
+    /**
+     * @return {@code true} if the same certificate is stored under at least one other alias.
+     */
+    public boolean isDuplicate(String alias) {
+        Fingerprints fingerprints = fingerprintsByAlias.get(alias);
+        if (fingerprints == null) {
+            return false;
+        }
+        Set<String> aliases = aliasesByFingerprint.get(fingerprints.sha256());
+        return aliases != null && aliases.size() > 1;
+    }
+
+    /**
+     * @return The fingerprints of the certificate stored under an alias, or {@code null} if it is not indexed.
+     */
+    public Fingerprints fingerprintsOf(String alias) {
+        return fingerprintsByAlias.get(alias);
+    }
+
+    private void link(String alias, String fingerprint) {
+        aliasesByFingerprint.computeIfAbsent(fingerprint, f -> ConcurrentHashMap.newKeySet()).add(alias);
+    }
+
+    private void unlink(String alias, Fingerprints fingerprints) {
+        for (String fingerprint : new String[]{fingerprints.sha256(), fingerprints.sha1()}) {
+            aliasesByFingerprint.computeIfPresent(fingerprint, (f, aliases) -> {
+                aliases.remove(alias);
+                return aliases.isEmpty() ? null : aliases;
+            });
+        }
+    }
+
+    private static String normalize(String fingerprint) {
+        return fingerprint.replace(":", "").replace(" ", "").toLowerCase(Locale.ENGLISH);
+    }
+}
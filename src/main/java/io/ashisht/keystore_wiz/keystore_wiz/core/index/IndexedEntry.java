@@ -0,0 +1,32 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+/**
+ * Location of a single entry inside a keystore file.
+ *
+ * @param alias  The entry alias, normalized to lower case like the JDK keystore implementations do.
+ * @param offset The absolute offset of the DER encoded certificate. For key entries this is the
+ *               first certificate of the chain.
+ * @param length The length of the DER encoded certificate, or 0 if the entry has no certificate.
+ * @param type   The kind of entry.
+ */
+public record IndexedEntry(String alias, int offset, int length, Type type) {
+    public enum Type {
+        CERTIFICATE,
+        PRIVATE_KEY
+    }
+}
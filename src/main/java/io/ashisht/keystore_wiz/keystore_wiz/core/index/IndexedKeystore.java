@@ -0,0 +1,109 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.KeyStoreException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A read-only keystore backed by the bytes of its file and an alias index.
+ *
+ * <p>Opening the keystore costs a single sequential scan of the file. Certificates are only
+ * decoded from their DER bytes when {@link #getCertificate(String)} is called for their alias.
+ * Instances are safe for concurrent reads.
+ */
+public class IndexedKeystore {
+    private static final ThreadLocal<CertificateFactory> CERTIFICATE_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return CertificateFactory.getInstance("X.509");
+        } catch (CertificateException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Map<String, IndexedEntry> entries;
+
+    IndexedKeystore(Path path, ByteBuffer buffer, Map<String, IndexedEntry> entries) {
+        this.path = path;
+        this.buffer = buffer;
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return All aliases, in file order.
+     */
+    public List<String> aliases() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * @return The index entry for an alias, or {@code null} if the alias does not exist.
+     */
+    public IndexedEntry getEntry(String alias) {
+        return entries.get(alias.toLowerCase(Locale.ENGLISH));
+    }
+
+    public boolean isCertificateEntry(String alias) {
+        IndexedEntry entry = getEntry(alias);
+        return entry != null && entry.type() == IndexedEntry.Type.CERTIFICATE;
+    }
+
+    public boolean isKeyEntry(String alias) {
+        IndexedEntry entry = getEntry(alias);
+        return entry != null && entry.type() == IndexedEntry.Type.PRIVATE_KEY;
+    }
+
+    /**
+     * Decodes the certificate of an entry.
+     *
+     * @param alias The entry alias.
+     * @return The certificate, or {@code null} if the alias does not exist or has no certificate.
+     * @throws KeyStoreException If the stored bytes are not a valid X.509 certificate.
+     */
+    public X509Certificate getCertificate(String alias) throws KeyStoreException {
+        IndexedEntry entry = getEntry(alias);
+        if (entry == null || entry.length() == 0) {
+            return null;
+        }
+        byte[] der = new byte[entry.length()];
+        buffer.get(entry.offset(), der);
+        try {
+            return (X509Certificate) CERTIFICATE_FACTORY.get().generateCertificate(new ByteArrayInputStream(der));
+        } catch (CertificateException e) {
+            throw new KeyStoreException("Failed to decode certificate for alias " + alias, e);
+        }
+    }
+}
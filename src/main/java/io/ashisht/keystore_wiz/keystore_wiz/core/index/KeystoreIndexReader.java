@@ -0,0 +1,415 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.PBEParameterSpec;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds an {@link IndexedKeystore} by scanning the structure of a JKS or PKCS12 file.
+ *
+ * <p>Only the framing of the file is parsed: aliases, entry types and the positions of the
+ * DER encoded certificates. No certificate objects are created while indexing.
+ *
+ * <p>Limitations compared to {@link java.security.KeyStore}:
+ * <ul>
+ *     <li>JCEKS keystores are not supported.</li>
+ *     <li>PKCS12 files must store their certificates unencrypted, as truststores created without a
+ *     certificate protection algorithm do. Encrypted certificate bags cannot be indexed without
+ *     running the PBE decryption.</li>
+ *     <li>PKCS12 files protected by a PBMAC1 integrity MAC are not supported.</li>
+ * </ul>
+ * The JKS integrity digest and the PKCS12 MAC are verified when a password is given, so a wrong
+ * password is rejected like {@link java.security.KeyStore#load} rejects it. Reading the file,
+ * scanning its framing and verifying it are timed as separate phases.
+ *
+ * <p>The file is read into memory rather than mapped, so that another process truncating or
+ * rewriting it while it is open cannot fault the reads of certificates decoded later.
+ * Unsupported files are rejected with a {@link KeyStoreException} so that callers can fall back
+ * to the JCA implementation.
+ */
+@Slf4j
+public final class KeystoreIndexReader {
+    private static final int JKS_MAGIC = 0xFEEDFEED;
+    private static final int JCEKS_MAGIC = 0xCECECECE;
+    private static final int JKS_PRIVATE_KEY = 1;
+    private static final int JKS_TRUSTED_CERT = 2;
+    private static final int JKS_DIGEST_LENGTH = 20;
+
+    private static final String OID_DATA = "1.2.840.113549.1.7.1";
+    private static final String OID_KEY_BAG = "1.2.840.113549.1.12.10.1.1";
+    private static final String OID_SHROUDED_KEY_BAG = "1.2.840.113549.1.12.10.1.2";
+    private static final String OID_CERT_BAG = "1.2.840.113549.1.12.10.1.3";
+    private static final String OID_FRIENDLY_NAME = "1.2.840.113549.1.9.20";
+    private static final String OID_LOCAL_KEY_ID = "1.2.840.113549.1.9.21";
+    private static final String OID_TRUSTED_KEY_USAGE = "2.16.840.1.113894.746875.1.1";
+    private static final Map<String, String> MAC_DIGESTS = Map.of(
+            "1.3.14.3.2.26", "SHA1",
+            "2.16.840.1.101.3.4.2.4", "SHA224",
+            "2.16.840.1.101.3.4.2.1", "SHA256",
+            "2.16.840.1.101.3.4.2.2", "SHA384",
+            "2.16.840.1.101.3.4.2.3", "SHA512",
+            "2.16.840.1.101.3.4.2.5", "SHA512/224",
+            "2.16.840.1.101.3.4.2.6", "SHA512/256");
+
+    private KeystoreIndexReader() {
+    }
+
+    /**
+     * Reads a keystore file and indexes its entries.
+     *
+     * @param path     The keystore file.
+     * @param password The keystore password used to verify the JKS integrity digest or the PKCS12
+     *                 MAC, or {@code null} to skip the check.
+     * @param metrics  Times reading the file, scanning it and verifying it.
+     * @return The indexed keystore.
+     * @throws IOException       If the file cannot be read.
+     * @throws KeyStoreException If the file format is not supported, the file is corrupt or the password is wrong.
+     */
+    public static IndexedKeystore open(Path path, char[] password, OperationMetrics metrics) throws IOException, KeyStoreException {
+        ByteBuffer buffer;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.READ, path)) {
+            buffer = read(path);
+            span.items(buffer.limit());
+        }
+        Scan scan;
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.PARSE, path)) {
+            if (buffer.limit() < 4) {
+                throw new KeyStoreException("Keystore file is too short: " + path);
+            }
+            if (isJks(buffer)) {
+                scan = indexJks(buffer);
+            } else if (buffer.getInt(0) == JCEKS_MAGIC) {
+                throw new KeyStoreException("JCEKS keystores cannot be indexed");
+            } else if ((buffer.get(0) & 0xFF) == DerReader.SEQUENCE) {
+                scan = indexPkcs12(buffer);
+            } else {
+                throw new KeyStoreException("Unrecognized keystore format: " + path);
+            }
+            span.items(scan.entries().size());
+        }
+        if (password != null) {
+            try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.VERIFY, path)) {
+                scan.integrity().verify(password);
+                span.items(buffer.limit());
+            }
+        }
+        log.atInfo().log("Indexed " + scan.entries().size() + " entries from " + path);
+        return new IndexedKeystore(path, buffer, scan.entries());
+    }
+
+    private static boolean isJks(ByteBuffer buffer) {
+        return buffer.limit() >= 4 && buffer.getInt(0) == JKS_MAGIC;
+    }
+
+    private static ByteBuffer read(Path path) throws IOException, KeyStoreException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new KeyStoreException("Keystore file is too large to be indexed: " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Keystore file was truncated while being read: " + path);
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static Scan indexJks(ByteBuffer buffer) throws IOException, KeyStoreException {
+        ByteBuffer view = buffer.duplicate();
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(view));
+        in.readInt();
+        int version = in.readInt();
+        if (version != 1 && version != 2) {
+            throw new KeyStoreException("Unsupported JKS version " + version);
+        }
+        int count = in.readInt();
+        Map<String, IndexedEntry> entries = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int tag = in.readInt();
+            String alias = in.readUTF().toLowerCase(Locale.ENGLISH);
+            in.readLong(); // creation date
+            if (tag == JKS_PRIVATE_KEY) {
+                skip(in, in.readInt()); // protected key
+                int chainLength = in.readInt();
+                int offset = 0;
+                int length = 0;
+                for (int c = 0; c < chainLength; c++) {
+                    if (version == 2) {
+                        in.readUTF(); // certificate type
+                    }
+                    int certLength = in.readInt();
+                    if (c == 0) {
+                        offset = view.position();
+                        length = certLength;
+                    }
+                    skip(in, certLength);
+                }
+                entries.put(alias, new IndexedEntry(alias, offset, length, IndexedEntry.Type.PRIVATE_KEY));
+            } else if (tag == JKS_TRUSTED_CERT) {
+                if (version == 2) {
+                    in.readUTF(); // certificate type
+                }
+                int certLength = in.readInt();
+                entries.put(alias, new IndexedEntry(alias, view.position(), certLength, IndexedEntry.Type.CERTIFICATE));
+                skip(in, certLength);
+            } else {
+                throw new KeyStoreException("Unrecognized JKS entry tag " + tag);
+            }
+        }
+        int dataLength = view.position();
+        return new Scan(entries, password -> verifyJksDigest(buffer, dataLength, password));
+    }
+
+    private static void skip(DataInputStream in, int length) throws IOException {
+        if (length < 0 || in.skipBytes(length) != length) {
+            throw new IOException("Truncated JKS keystore");
+        }
+    }
+
+    private static void verifyJksDigest(ByteBuffer buffer, int dataLength, char[] password) throws KeyStoreException {
+        if (buffer.limit() - dataLength < JKS_DIGEST_LENGTH) {
+            throw new KeyStoreException("JKS integrity digest is missing");
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA");
+        } catch (NoSuchAlgorithmException e) {
+            throw new KeyStoreException(e);
+        }
+        for (char c : password) {
+            digest.update((byte) (c >> 8));
+            digest.update((byte) c);
+        }
+        digest.update("Mighty Aphrodite".getBytes(StandardCharsets.UTF_8));
+        digest.update(buffer.duplicate().position(0).limit(dataLength));
+        byte[] expected = new byte[JKS_DIGEST_LENGTH];
+        buffer.get(dataLength, expected);
+        if (!MessageDigest.isEqual(expected, digest.digest())) {
+            throw new KeyStoreException("Keystore was tampered with, or password was incorrect");
+        }
+    }
+
+    private static Scan indexPkcs12(ByteBuffer buffer) throws KeyStoreException {
+        int limit = buffer.limit();
+        DerReader.Tlv pfx = DerReader.expect(buffer, 0, limit, DerReader.SEQUENCE);
+        DerReader.Tlv version = DerReader.expect(buffer, pfx.contentOffset(), pfx.end(), DerReader.INTEGER);
+        DerReader.Tlv authSafe = DerReader.expect(buffer, version.end(), pfx.end(), DerReader.SEQUENCE);
+        DerReader.Tlv authenticatedSafe = contentInfoData(buffer, authSafe);
+        IntegrityCheck integrity = password -> {
+        };
+        if (authSafe.end() < pfx.end()) {
+            DerReader.Tlv macData = DerReader.expect(buffer, authSafe.end(), pfx.end(), DerReader.SEQUENCE);
+            integrity = password -> verifyPkcs12Mac(buffer, authenticatedSafe, macData, password);
+        }
+        DerReader.Tlv contentInfos = DerReader.expect(buffer, authenticatedSafe.contentOffset(), authenticatedSafe.end(), DerReader.SEQUENCE);
+
+        Map<String, IndexedEntry> certificates = new LinkedHashMap<>();
+        Map<String, IndexedEntry> certificatesByKeyId = new HashMap<>();
+        Map<String, String> keyAliasesByKeyId = new LinkedHashMap<>();
+        for (int pos = contentInfos.contentOffset(); pos < contentInfos.end(); ) {
+            DerReader.Tlv contentInfo = DerReader.expect(buffer, pos, contentInfos.end(), DerReader.SEQUENCE);
+            DerReader.Tlv safeContents = contentInfoData(buffer, contentInfo);
+            DerReader.Tlv bags = DerReader.expect(buffer, safeContents.contentOffset(), safeContents.end(), DerReader.SEQUENCE);
+            for (int bagPos = bags.contentOffset(); bagPos < bags.end(); ) {
+                DerReader.Tlv bag = DerReader.expect(buffer, bagPos, bags.end(), DerReader.SEQUENCE);
+                indexSafeBag(buffer, bag, certificates, certificatesByKeyId, keyAliasesByKeyId);
+                bagPos = bag.end();
+            }
+            pos = contentInfo.end();
+        }
+
+        Map<String, IndexedEntry> entries = new LinkedHashMap<>();
+        keyAliasesByKeyId.forEach((keyId, alias) -> {
+            IndexedEntry cert = certificatesByKeyId.get(keyId);
+            entries.put(alias, new IndexedEntry(alias, cert != null ? cert.offset() : 0, cert != null ? cert.length() : 0,
+                    IndexedEntry.Type.PRIVATE_KEY));
+        });
+        certificates.forEach(entries::putIfAbsent);
+        return new Scan(entries, integrity);
+    }
+
+    /**
+     * Verifies the MAC of a PKCS12 file over its authenticated safe, keyed with the password as
+     * RFC 7292 appendix B derives it.
+     *
+     * @param macData The MacData structure following the authenticated safe.
+     */
+    private static void verifyPkcs12Mac(ByteBuffer buffer, DerReader.Tlv authenticatedSafe, DerReader.Tlv macData,
+                                        char[] password) throws KeyStoreException {
+        DerReader.Tlv digestInfo = DerReader.expect(buffer, macData.contentOffset(), macData.end(), DerReader.SEQUENCE);
+        DerReader.Tlv algorithm = DerReader.expect(buffer, digestInfo.contentOffset(), digestInfo.end(), DerReader.SEQUENCE);
+        DerReader.Tlv algorithmId = DerReader.expect(buffer, algorithm.contentOffset(), algorithm.end(), DerReader.OBJECT_IDENTIFIER);
+        DerReader.Tlv expected = DerReader.expect(buffer, algorithm.end(), digestInfo.end(), DerReader.OCTET_STRING);
+        DerReader.Tlv salt = DerReader.expect(buffer, digestInfo.end(), macData.end(), DerReader.OCTET_STRING);
+        int iterations = 1;
+        if (salt.end() < macData.end()) {
+            DerReader.Tlv count = DerReader.expect(buffer, salt.end(), macData.end(), DerReader.INTEGER);
+            iterations = new BigInteger(DerReader.content(buffer, count)).intValueExact();
+        }
+        String digest = MAC_DIGESTS.get(DerReader.oid(buffer, algorithmId));
+        if (digest == null) {
+            throw new KeyStoreException("PKCS12 MAC algorithm " + DerReader.oid(buffer, algorithmId) + " is not supported");
+        }
+        byte[] computed;
+        try {
+            SecretKey key = SecretKeyFactory.getInstance("PBE").generateSecret(new PBEKeySpec(password));
+            Mac mac = Mac.getInstance("HmacPBE" + digest);
+            mac.init(key, new PBEParameterSpec(DerReader.content(buffer, salt), iterations));
+            mac.update(buffer.duplicate().limit(authenticatedSafe.end()).position(authenticatedSafe.contentOffset()));
+            computed = mac.doFinal();
+        } catch (GeneralSecurityException | ArithmeticException e) {
+            throw new KeyStoreException("Failed to verify the PKCS12 MAC", e);
+        }
+        if (!MessageDigest.isEqual(DerReader.content(buffer, expected), computed)) {
+            throw new KeyStoreException("Keystore was tampered with, or password was incorrect");
+        }
+    }
+
+    /**
+     * Returns the OCTET STRING wrapped by a ContentInfo of type {@code data}.
+     */
+    private static DerReader.Tlv contentInfoData(ByteBuffer buffer, DerReader.Tlv contentInfo) throws KeyStoreException {
+        DerReader.Tlv contentType = DerReader.expect(buffer, contentInfo.contentOffset(), contentInfo.end(), DerReader.OBJECT_IDENTIFIER);
+        String oid = DerReader.oid(buffer, contentType);
+        if (!OID_DATA.equals(oid)) {
+            throw new KeyStoreException("PKCS12 content of type " + oid + " is encrypted and cannot be indexed");
+        }
+        DerReader.Tlv explicit = DerReader.expect(buffer, contentType.end(), contentInfo.end(), DerReader.CONTEXT_0);
+        return DerReader.expect(buffer, explicit.contentOffset(), explicit.end(), DerReader.OCTET_STRING);
+    }
+
+    private static void indexSafeBag(ByteBuffer buffer, DerReader.Tlv bag, Map<String, IndexedEntry> certificates,
+                                     Map<String, IndexedEntry> certificatesByKeyId, Map<String, String> keyAliasesByKeyId)
+            throws KeyStoreException {
+        DerReader.Tlv bagId = DerReader.expect(buffer, bag.contentOffset(), bag.end(), DerReader.OBJECT_IDENTIFIER);
+        DerReader.Tlv bagValue = DerReader.expect(buffer, bagId.end(), bag.end(), DerReader.CONTEXT_0);
+        String friendlyName = null;
+        String localKeyId = null;
+        boolean trusted = false;
+        if (bagValue.end() < bag.end()) {
+            DerReader.Tlv attributes = DerReader.expect(buffer, bagValue.end(), bag.end(), DerReader.SET);
+            for (int pos = attributes.contentOffset(); pos < attributes.end(); ) {
+                DerReader.Tlv attribute = DerReader.expect(buffer, pos, attributes.end(), DerReader.SEQUENCE);
+                DerReader.Tlv type = DerReader.expect(buffer, attribute.contentOffset(), attribute.end(), DerReader.OBJECT_IDENTIFIER);
+                DerReader.Tlv values = DerReader.expect(buffer, type.end(), attribute.end(), DerReader.SET);
+                DerReader.Tlv value = DerReader.read(buffer, values.contentOffset(), values.end());
+                String oid = DerReader.oid(buffer, type);
+                if (OID_FRIENDLY_NAME.equals(oid) && value.tag() == DerReader.BMP_STRING) {
+                    friendlyName = new String(DerReader.content(buffer, value), StandardCharsets.UTF_16BE);
+                } else if (OID_LOCAL_KEY_ID.equals(oid)) {
+                    localKeyId = HexFormat.of().formatHex(DerReader.content(buffer, value));
+                } else if (OID_TRUSTED_KEY_USAGE.equals(oid)) {
+                    trusted = true;
+                }
+                pos = attribute.end();
+            }
+        }
+
+        String oid = DerReader.oid(buffer, bagId);
+        if (OID_KEY_BAG.equals(oid) || OID_SHROUDED_KEY_BAG.equals(oid)) {
+            if (friendlyName != null && localKeyId != null) {
+                keyAliasesByKeyId.put(localKeyId, friendlyName.toLowerCase(Locale.ENGLISH));
+            }
+        } else if (OID_CERT_BAG.equals(oid)) {
+            DerReader.Tlv certBag = DerReader.expect(buffer, bagValue.contentOffset(), bagValue.end(), DerReader.SEQUENCE);
+            DerReader.Tlv certId = DerReader.expect(buffer, certBag.contentOffset(), certBag.end(), DerReader.OBJECT_IDENTIFIER);
+            DerReader.Tlv certValue = DerReader.expect(buffer, certId.end(), certBag.end(), DerReader.CONTEXT_0);
+            DerReader.Tlv certOctets = DerReader.expect(buffer, certValue.contentOffset(), certValue.end(), DerReader.OCTET_STRING);
+            if (localKeyId != null) {
+                certificatesByKeyId.put(localKeyId, new IndexedEntry(null, certOctets.contentOffset(),
+                        certOctets.contentLength(), IndexedEntry.Type.PRIVATE_KEY));
+            } else if (friendlyName != null && trusted) {
+                // Like PKCS12KeyStore, only certificates marked as trusted are certificate entries
+                String alias = friendlyName.toLowerCase(Locale.ENGLISH);
+                certificates.put(alias, new IndexedEntry(alias, certOctets.contentOffset(),
+                        certOctets.contentLength(), IndexedEntry.Type.CERTIFICATE));
+            }
+        }
+    }
+
+    /**
+     * The entries found by scanning a keystore, and the check of its integrity digest or MAC,
+     * which needs the password and is run separately.
+     */
+    private record Scan(Map<String, IndexedEntry> entries, IntegrityCheck integrity) {
+    }
+
+    @FunctionalInterface
+    private interface IntegrityCheck {
+        void verify(char[] password) throws KeyStoreException;
+    }
+
+    /**
+     * Adapts a {@link ByteBuffer} to an {@link InputStream}, advancing the buffer position as bytes are read.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import javax.security.auth.x500.X500Principal;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index from words to the aliases whose certificate contains them, for incremental
+ * search as the user types.
+ *
+ * <p>Words are taken from the alias, the attribute values of the subject and issuer DNs, the
+ * subject alternative names and the serial number (in hex and decimal), split on anything that
+ * is not a letter or digit and lower-cased. Leading zeros are stripped from indexed and query
+ * words alike, so a serial copied zero-padded, as {@code openssl x509 -serial} prints it, matches
+ * the unpadded form. A query matches an alias if every word of the query is a prefix of one of
+ * the alias's words, so {@code "leaf.exa"} matches {@code leaf.example.com}.
+ */
+public class SearchIndex implements CertificateIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Below this many previous matches, a narrowed query filters the previous matches directly
+     * instead of merging posting lists.
+     */
+    private static final int NARROWING_LIMIT = 4096;
+
+    private final ConcurrentSkipListSet<String> sortedWords = new ConcurrentSkipListSet<>();
+    private final Map<String, Postings> postingsByWord = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idsByAlias = new ConcurrentHashMap<>();
+    private final Map<Integer, Indexed> entriesById = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+
+    private List<String> lastTerms = List.of();
+    private BitSet lastMatches;
+    private long lastVersion = -1;
+
+    private record Indexed(String alias, String[] words) {
+    }
+
+    @Override
+    public void add(String alias, X509Certificate certificate) {
+        String[] words = words(alias, certificate);
+        // A replaced alias keeps its id, so the bit sets of matches do not grow with every edit
+        int id = idsByAlias.computeIfAbsent(alias, a -> nextId.getAndIncrement());
+        unlink(id);
+        entriesById.put(id, new Indexed(alias, words));
+        for (String word : words) {
+            postingsByWord.compute(word, (w, postings) -> {
+                if (postings == null) {
+                    postings = new Postings();
+                    sortedWords.add(w);
+                }
+                postings.add(id);
+                return postings;
+            });
+        }
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void remove(String alias) {
+        Integer previous = idsByAlias.remove(alias);
+        if (previous != null) {
+            unlink(previous);
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void clear() {
+        sortedWords.clear();
+        postingsByWord.clear();
+        idsByAlias.clear();
+        entriesById.clear();
+        nextId.set(0);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Finds the aliases matching a query.
+     *
+     * <p>Each query word is resolved to the posting lists of the indexed words it prefixes, and the
+     * resulting bit sets are intersected. When the query only narrows a previous query with few
+     * matches, as it does while the user keeps typing, the previous matches are filtered instead.
+     *
+     * @param query The words to search for.
+     * @return A predicate accepting the matching aliases, or {@code null} if the query contains no words.
+     */
+    public synchronized Predicate<String> search(String query) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        long current = version.get();
+        BitSet matches;
+        if (lastMatches != null && lastVersion == current && lastMatches.cardinality() <= NARROWING_LIMIT
+                && narrows(terms, lastTerms)) {
+            matches = new BitSet();
+            for (int id = lastMatches.nextSetBit(0); id >= 0; id = lastMatches.nextSetBit(id + 1)) {
+                Indexed entry = entriesById.get(id);
+                if (entry != null && matchesAll(entry.words(), terms)) {
+                    matches.set(id);
+                }
+            }
+        } else {
+            matches = null;
+            for (String term : terms) {
+                BitSet termMatches = new BitSet();
+                for (String word : sortedWords.subSet(term, true, term + Character.MAX_VALUE, false)) {
+                    Postings postings = postingsByWord.get(word);
+                    if (postings != null) {
+                        postings.addTo(termMatches);
+                    }
+                }
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        lastTerms = terms;
+        lastMatches = matches;
+        lastVersion = current;
+        BitSet result = matches;
+        return alias -> {
+            Integer id = idsByAlias.get(alias);
+            return id != null && result.get(id);
+        };
+    }
+
+    /**
+     * @return {@code true} if every alias matching {@code terms} also matches {@code previous}.
+     */
+    private static boolean narrows(List<String> terms, List<String> previous) {
+        for (String old : previous) {
+            if (terms.stream().noneMatch(term -> term.startsWith(old))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAll(String[] words, List<String> terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void unlink(int id) {
+        Indexed entry = entriesById.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words()) {
+            postingsByWord.computeIfPresent(word, (w, postings) -> {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    sortedWords.remove(w);
+                    return null;
+                }
+                return postings;
+            });
+        }
+    }
+
+    private static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        split(query, terms);
+        return List.copyOf(terms);
+    }
+
+    private static String[] words(String alias, X509Certificate certificate) {
+        Set<String> words = new HashSet<>();
+        split(alias, words);
+        addDnValues(certificate.getSubjectX500Principal(), words);
+        addDnValues(certificate.getIssuerX500Principal(), words);
+        try {
+            Collection<List<?>> sans = certificate.getSubjectAlternativeNames();
+            if (sans != null) {
+                for (List<?> san : sans) {
+                    if (san.get(1) instanceof String name) {
+                        split(name, words);
+                    }
+                }
+            }
+        } catch (CertificateParsingException e) {
+            // Unparseable SANs are simply not searchable
+        }
+        words.add(certificate.getSerialNumber().toString(16));
+        words.add(certificate.getSerialNumber().toString());
+        return words.toArray(String[]::new);
+    }
+
+    private static void addDnValues(X500Principal principal, Set<String> words) {
+        try {
+            for (Rdn rdn : new LdapName(principal.getName(X500Principal.RFC2253)).getRdns()) {
+                if (rdn.getValue() instanceof String value) {
+                    split(value, words);
+                }
+            }
+        } catch (InvalidNameException e) {
+            split(principal.getName(), words);
+        }
+    }
+
+    private static void split(String text, Set<String> words) {
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(canonical(word));
+            }
+        }
+    }
+
+    /**
+     * @return The word without leading zeros, or {@code "0"} if it only has zeros.
+     */
+    private static String canonical(String word) {
+        int start = 0;
+        while (start < word.length() - 1 && word.charAt(start) == '0') {
+            start++;
+        }
+        return word.substring(start);
+    }
+
+    /**
+     * The ids of the aliases containing a word.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        synchronized void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, --size - i);
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        synchronized void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ids[i]);
+            }
+        }
+    }
+}
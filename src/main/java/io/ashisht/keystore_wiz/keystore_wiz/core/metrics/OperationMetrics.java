@@ -0,0 +1,266 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Times and counts the phases of keystore operations and view loading, so a slow open can be
+ * attributed to reading the file, parsing it, verifying its integrity digest or MAC, or decoding
+ * certificates.
+ *
+ * <p>Every phase keeps its count and total time since startup, and the durations of its most
+ * recent runs for percentiles. Each run is also emitted as a {@link PhaseEvent} for the flight
+ * recorder. Spans are cheap enough to wrap whole operations, but not single entry decodes.
+ */
+@Component
+public class OperationMetrics {
+    private final Map<Phase, PhaseStats> stats = new EnumMap<>(Phase.class);
+    private final Deque<Sample> recent = new ArrayDeque<>();
+    private final int window;
+
+    public enum Phase {
+        CACHE_LOOKUP("Metadata cache lookup", PhaseEvent.CacheLookup::new),
+        READ("Read keystore file", PhaseEvent.Read::new),
+        PARSE("Parse keystore", PhaseEvent.Parse::new),
+        VERIFY("Verify keystore integrity", PhaseEvent.Verify::new),
+        LIST_ALIASES("List aliases", PhaseEvent.ListAliases::new),
+        INDEX("Index certificates", PhaseEvent.Index::new),
+        DECODE("Decode entries", PhaseEvent.Decode::new),
+        STORE("Store keystore", PhaseEvent.Store::new),
+        IMPORT("Parse certificates for import", PhaseEvent.Import::new),
+        UNLOCK_KEY("Decrypt private key", PhaseEvent.UnlockKey::new),
+        INDEX_CRL("Index CRL", PhaseEvent.IndexCrl::new),
+        FXML_LOAD("Load FXML view", PhaseEvent.FxmlLoad::new),
+        SCENE_SWITCH("Switch scene", PhaseEvent.SceneSwitch::new);
+
+        private final String label;
+        private final Supplier<PhaseEvent> event;
+
+        Phase(String label, Supplier<PhaseEvent> event) {
+            this.label = label;
+            this.event = event;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * @param phase   The phase.
+     * @param subject The keystore file, import source or view the phase worked on.
+     * @param items   The number of entries, certificates or bytes processed.
+     * @param nanos   The duration.
+     * @param endedAt The end of the phase, in epoch milliseconds.
+     */
+    public record Sample(Phase phase, String subject, long items, long nanos, long endedAt) {
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Timings of a phase; percentiles and the maximum cover the recent runs only.
+     */
+    public record Summary(Phase phase, long count, long items, double totalMillis, double p50Millis,
+                          double p90Millis, double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * A running phase, recorded when closed.
+     */
+    public final class Span implements AutoCloseable {
+        private final Phase phase;
+        private final String subject;
+        private final PhaseEvent event;
+        private final long start = System.nanoTime();
+        private long items;
+
+        private Span(Phase phase, String subject) {
+            this.phase = phase;
+            this.subject = subject;
+            this.event = phase.event.get();
+            event.begin();
+        }
+
+        /**
+         * Sets the number of entries, certificates or bytes processed.
+         *
+         * @return This span.
+         */
+        public Span items(long items) {
+            this.items = items;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.subject = subject;
+                event.items = items;
+                event.commit();
+            }
+            record(new Sample(phase, subject, items, nanos, System.currentTimeMillis()));
+        }
+    }
+
+    private static final class PhaseStats {
+        private final long[] durations;
+        private int next;
+        private int size;
+        private long count;
+        private long items;
+        private long totalNanos;
+
+        PhaseStats(int window) {
+            durations = new long[window];
+        }
+
+        synchronized void add(Sample sample) {
+            durations[next] = sample.nanos();
+            next = (next + 1) % durations.length;
+            size = Math.min(size + 1, durations.length);
+            count++;
+            items += sample.items();
+            totalNanos += sample.nanos();
+        }
+
+        synchronized Summary summary(Phase phase) {
+            long[] sorted = Arrays.copyOf(durations, size);
+            Arrays.sort(sorted);
+            return new Summary(phase, count, items, totalNanos / 1_000_000.0, percentile(sorted, 50),
+                    percentile(sorted, 90), percentile(sorted, 99), size == 0 ? 0 : sorted[size - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * @param window The number of recent runs kept per phase for percentiles, and in total for
+     *               {@link #recentSamples()}.
+     */
+    public OperationMetrics(@Value("${keystore.metrics.window:256}") int window) {
+        this.window = Math.max(window, 1);
+        for (Phase phase : Phase.values()) {
+            stats.put(phase, new PhaseStats(this.window));
+        }
+    }
+
+    /**
+     * Starts timing a phase, to be closed with try-with-resources.
+     *
+     * @param phase   The phase.
+     * @param subject The keystore file, import source or view the phase works on.
+     * @return The running span.
+     */
+    public Span start(Phase phase, Object subject) {
+        return new Span(phase, String.valueOf(subject));
+    }
+
+    private void record(Sample sample) {
+        stats.get(sample.phase()).add(sample);
+        synchronized (recent) {
+            recent.addFirst(sample);
+            if (recent.size() > window) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    /**
+     * @return The timings of every phase that ran at least once, in phase order.
+     */
+    public List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<Phase, PhaseStats> entry : stats.entrySet()) {
+            Summary summary = entry.getValue().summary(entry.getKey());
+            if (summary.count() > 0) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * @return The most recent runs of any phase, newest first.
+     */
+    public List<Sample> recentSamples() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    /**
+     * Exports the summaries and recent runs as maps, lists and scalars, for writing as JSON or text.
+     *
+     * @return The phase summaries under {@code phases} and the recent runs under {@code recent}.
+     */
+    public Map<String, Object> export() {
+        List<Map<String, Object>> phases = new ArrayList<>();
+        for (Summary summary : summaries()) {
+            Map<String, Object> phase = new LinkedHashMap<>();
+            phase.put("phase", summary.phase().name());
+            phase.put("count", summary.count());
+            phase.put("items", summary.items());
+            phase.put("totalMs", round(summary.totalMillis()));
+            phase.put("p50Ms", round(summary.p50Millis()));
+            phase.put("p90Ms", round(summary.p90Millis()));
+            phase.put("p99Ms", round(summary.p99Millis()));
+            phase.put("maxMs", round(summary.maxMillis()));
+            phases.add(phase);
+        }
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (Sample sample : recentSamples()) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("phase", sample.phase().name());
+            run.put("subject", sample.subject());
+            run.put("items", sample.items());
+            run.put("ms", round(sample.millis()));
+            run.put("endedAt", Instant.ofEpochMilli(sample.endedAt()).toString());
+            samples.add(run);
+        }
+        Map<String, Object> export = new LinkedHashMap<>();
+        export.put("phases", phases);
+        export.put("recent", samples);
+        return export;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder events for the timed {@link OperationMetrics.Phase phases}, recorded with
+ * {@code -XX:StartFlightRecording} or from JDK Mission Control. Each phase has its own event
+ * type, so phases can be enabled separately; the duration of an event is the time the phase took.
+ */
+@Category("Keystore Wiz")
+@StackTrace(false)
+abstract class PhaseEvent extends jdk.jfr.Event {
+    @Label("Subject")
+    @Description("The keystore file, import source or view the phase worked on")
+    String subject;
+
+    @Label("Items")
+    @Description("The number of entries, certificates or bytes processed, depending on the phase")
+    long items;
+
+    @Name("io.ashisht.keystore_wiz.CacheLookup")
+    @Label("Metadata Cache Lookup")
+    static final class CacheLookup extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Read")
+    @Label("Keystore Read")
+    @Description("Reading the keystore file from disk; items are bytes")
+    static final class Read extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Parse")
+    @Label("Keystore Parse")
+    @Description("Parsing the keystore file through KeyStore.load, which includes its integrity check, or the index reader; items are entries")
+    static final class Parse extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Verify")
+    @Label("Keystore Integrity Check")
+    @Description("Verifying the JKS integrity digest or the PKCS12 MAC of an indexed keystore; items are bytes")
+    static final class Verify extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.ListAliases")
+    @Label("Alias Listing")
+    static final class ListAliases extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Index")
+    @Label("Certificate Indexing")
+    static final class Index extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Decode")
+    @Label("Entry Decoding")
+    static final class Decode extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Store")
+    @Label("Keystore Store")
+    static final class Store extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.Import")
+    @Label("Certificate Import")
+    @Description("Parsing certificates for a bulk import; items are certificates")
+    static final class Import extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.UnlockKey")
+    @Label("Private Key Decryption")
+    @Description("Decrypting the private key of a key entry on demand")
+    static final class UnlockKey extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.IndexCrl")
+    @Label("CRL Indexing")
+    @Description("Reading a CRL into a revoked-serial index; items are revoked serials")
+    static final class IndexCrl extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.FxmlLoad")
+    @Label("FXML Load")
+    static final class FxmlLoad extends PhaseEvent {
+    }
+
+    @Name("io.ashisht.keystore_wiz.SceneSwitch")
+    @Label("Scene Switch")
+    static final class SceneSwitch extends PhaseEvent {
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Probes with the {@link SSLSocket} client of this JVM, trusting the certificate through a
+ * PKIX trust manager like an application using the keystore as its truststore would.
+ */
+final class JvmTlsProbe implements TlsProbe {
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final X509Certificate serverCertificate;
+    private final int port;
+    private final int handshakes;
+
+    JvmTlsProbe(X509Certificate serverCertificate, int port, int handshakes) {
+        this.serverCertificate = serverCertificate;
+        this.port = port;
+        this.handshakes = handshakes;
+    }
+
+    @Override
+    public String runtime() {
+        return "jvm";
+    }
+
+    @Override
+    public List<ProbeResult> probe(List<Target> targets) {
+        List<ProbeResult> results = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            ProbeResult.Recorder recorder = new ProbeResult.Recorder(target.alias(), runtime());
+            try {
+                SSLSocketFactory socketFactory = socketFactory(target.certificate());
+                for (int i = 0; i < handshakes; i++) {
+                    handshake(socketFactory, recorder);
+                }
+            } catch (GeneralSecurityException | IOException e) {
+                recorder.failed(e.getMessage());
+            }
+            results.add(recorder.result());
+        }
+        return results;
+    }
+
+    private SSLSocketFactory socketFactory(X509Certificate trusted) throws GeneralSecurityException, IOException {
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("server", serverCertificate);
+        trustStore.setCertificateEntry("trusted", trusted);
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance("PKIX");
+        trustManagers.init(trustStore);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers.getTrustManagers(), null);
+        return context.getSocketFactory();
+    }
+
+    private void handshake(SSLSocketFactory socketFactory, ProbeResult.Recorder recorder) {
+        long start = System.nanoTime();
+        try (SSLSocket socket = (SSLSocket) socketFactory.createSocket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), TIMEOUT_MILLIS);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            SSLParameters parameters = socket.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            parameters.setServerNames(List.of(new SNIHostName("localhost")));
+            socket.setSSLParameters(parameters);
+            socket.startHandshake();
+            recorder.passed(System.nanoTime() - start);
+            // Time full handshakes only, as the script runtimes never resume a session
+            socket.getSession().invalidate();
+        } catch (IOException e) {
+            recorder.failed(e.getMessage());
+        }
+    }
+}
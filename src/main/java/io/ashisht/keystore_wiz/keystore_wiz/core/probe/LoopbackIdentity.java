@@ -0,0 +1,125 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A throwaway key pair and self-signed certificate for {@code localhost} and {@code 127.0.0.1},
+ * presented by the loopback server of a probe run.
+ *
+ * <p>The JDK has no public API for issuing certificates, so the certificate is DER encoded here.
+ * It only carries what TLS clients check when it is also their trust anchor: the subject
+ * alternative names and a key identifier.
+ *
+ * @param keyPair     The P-256 key pair of the server.
+ * @param certificate The certificate of the server.
+ */
+record LoopbackIdentity(KeyPair keyPair, X509Certificate certificate) {
+    private static final byte[] ECDSA_WITH_SHA256 = {0x06, 0x08, 0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x04, 0x03, 0x02};
+    private static final byte[] COMMON_NAME = {0x06, 0x03, 0x55, 0x04, 0x03};
+    private static final byte[] SUBJECT_KEY_IDENTIFIER = {0x06, 0x03, 0x55, 0x1D, 0x0E};
+    private static final byte[] SUBJECT_ALTERNATIVE_NAME = {0x06, 0x03, 0x55, 0x1D, 0x11};
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * Generates a new identity, valid from an hour ago until tomorrow.
+     *
+     * @throws GeneralSecurityException If the key pair cannot be generated or signed with.
+     */
+    static LoopbackIdentity generate() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        byte[] name = der(0x30, der(0x31, der(0x30, COMMON_NAME,
+                der(0x0C, "Keystore Wiz TLS probe".getBytes(StandardCharsets.UTF_8)))));
+        Instant now = Instant.now();
+        byte[] publicKey = keyPair.getPublic().getEncoded();
+        byte[] extensions = der(0xA3, der(0x30,
+                der(0x30, SUBJECT_KEY_IDENTIFIER, der(0x04, der(0x04,
+                        MessageDigest.getInstance("SHA-1").digest(publicKey)))),
+                der(0x30, SUBJECT_ALTERNATIVE_NAME, der(0x04, der(0x30,
+                        der(0x82, "localhost".getBytes(StandardCharsets.US_ASCII)),
+                        der(0x87, new byte[]{127, 0, 0, 1}))))));
+        byte[] tbsCertificate = der(0x30,
+                der(0xA0, der(0x02, new byte[]{2})),
+                der(0x02, new BigInteger(63, new SecureRandom()).add(BigInteger.ONE).toByteArray()),
+                der(0x30, ECDSA_WITH_SHA256),
+                name,
+                der(0x30, utcTime(now.minus(Duration.ofHours(1))), utcTime(now.plus(Duration.ofDays(1)))),
+                name,
+                publicKey,
+                extensions);
+
+        Signature signature = Signature.getInstance("SHA256withECDSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(tbsCertificate);
+        byte[] signatureValue = signature.sign();
+        byte[] bitString = new byte[signatureValue.length + 1];
+        System.arraycopy(signatureValue, 0, bitString, 1, signatureValue.length);
+
+        byte[] encoded = der(0x30, tbsCertificate, der(0x30, ECDSA_WITH_SHA256), der(0x03, bitString));
+        X509Certificate certificate = (X509Certificate) CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(encoded));
+        return new LoopbackIdentity(keyPair, certificate);
+    }
+
+    private static byte[] utcTime(Instant instant) {
+        return der(0x17, UTC_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Encodes a single element whose contents are the concatenation of the given parts.
+     */
+    private static byte[] der(int tag, byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int octets = (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | octets);
+            for (int i = octets - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A TLS server on an ephemeral loopback port that completes a handshake with every client and
+ * then closes the connection. Each connection is served on its own virtual thread, so the probes
+ * of a run can all connect at once.
+ */
+final class LoopbackTlsServer implements AutoCloseable {
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+
+    private final SSLServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Starts the server.
+     *
+     * @param identity The key and certificate the server presents.
+     * @throws GeneralSecurityException If the identity cannot be used for TLS.
+     * @throws IOException              If the server socket cannot be bound.
+     */
+    LoopbackTlsServer(LoopbackIdentity identity) throws GeneralSecurityException, IOException {
+        char[] password = "probe".toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry("server", identity.keyPair().getPrivate(), password,
+                new Certificate[]{identity.certificate()});
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, password);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+
+        serverSocket = (SSLServerSocket) context.getServerSocketFactory()
+                .createServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("tls-probe-server").start(this::accept);
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                SSLSocket socket = (SSLSocket) serverSocket.accept();
+                connections.execute(() -> handshake(socket));
+            } catch (IOException e) {
+                // The server socket was closed
+            }
+        }
+    }
+
+    private static void handshake(SSLSocket socket) {
+        try (socket) {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            socket.startHandshake();
+        } catch (IOException e) {
+            // A rejected handshake is reported by the client that rejected it
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The outcome of probing one certificate with one client runtime.
+ *
+ * @param alias      The alias of the certificate.
+ * @param runtime    The client runtime, {@code jvm}, {@code python} or {@code node}.
+ * @param status     Whether every handshake succeeded.
+ * @param handshakes The number of handshakes attempted.
+ * @param failures   The number of handshakes that failed.
+ * @param latency    The latency of the successful handshakes, or null if none succeeded.
+ * @param errors     The distinct error messages, in the order they first occurred.
+ */
+public record ProbeResult(String alias, String runtime, Status status, int handshakes, int failures,
+                          Latency latency, List<String> errors) {
+    private static final int MAX_ERRORS = 5;
+
+    public enum Status {
+        PASSED, FAILED, SKIPPED
+    }
+
+    /**
+     * Handshake latency percentiles in milliseconds, by the nearest-rank method. Each handshake is
+     * timed from opening the connection until the client accepted the server.
+     */
+    public record Latency(double p50, double p90, double p99, double max) {
+        static Latency of(long[] nanos) {
+            if (nanos.length == 0) {
+                return null;
+            }
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            return new Latency(percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, int percent) {
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+
+    /**
+     * Collects the handshakes of one certificate and runtime as they complete.
+     */
+    static final class Recorder {
+        private final String alias;
+        private final String runtime;
+        private final List<Long> latencies = new ArrayList<>();
+        private final Set<String> errors = new LinkedHashSet<>();
+        private int failures;
+
+        Recorder(String alias, String runtime) {
+            this.alias = alias;
+            this.runtime = runtime;
+        }
+
+        void passed(long nanos) {
+            latencies.add(nanos);
+        }
+
+        void failed(String error) {
+            failures++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error == null || error.isBlank() ? "unknown error" : error.strip());
+            }
+        }
+
+        ProbeResult result() {
+            int handshakes = latencies.size() + failures;
+            Status status = failures == 0 && handshakes > 0 ? Status.PASSED : Status.FAILED;
+            return new ProbeResult(alias, runtime, status, handshakes, failures,
+                    Latency.of(latencies.stream().mapToLong(Long::longValue).toArray()), List.copyOf(errors));
+        }
+    }
+
+    static ProbeResult skipped(String alias, String runtime, String reason) {
+        return new ProbeResult(alias, runtime, Status.SKIPPED, 0, 0, null, List.of(reason));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Probes with a client script run by an external interpreter, such as Python or Node.js.
+ *
+ * <p>One process probes a whole batch of targets, so the interpreter starts once per batch rather
+ * than once per certificate. The script is given the server port, the number of handshakes and
+ * the PEM bundle of each target, and prints one line per handshake: the index of the target
+ * followed by either {@code ok} and the latency in milliseconds, or {@code error} and a message.
+ */
+final class ScriptTlsProbe implements TlsProbe {
+    private final String runtime;
+    private final List<String> command;
+    private final int port;
+    private final int handshakes;
+
+    /**
+     * @param runtime    The name results are reported under.
+     * @param command    The interpreter and the arguments making it run the script that follows.
+     * @param port       The port of the loopback server.
+     * @param handshakes The number of handshakes per target.
+     */
+    ScriptTlsProbe(String runtime, List<String> command, int port, int handshakes) {
+        this.runtime = runtime;
+        this.command = command;
+        this.port = port;
+        this.handshakes = handshakes;
+    }
+
+    @Override
+    public String runtime() {
+        return runtime;
+    }
+
+    @Override
+    public List<ProbeResult> probe(List<Target> targets) throws InterruptedException {
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add(String.valueOf(port));
+        arguments.add(String.valueOf(handshakes));
+        targets.forEach(target -> arguments.add(target.bundle().toString()));
+
+        Process process;
+        try {
+            process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            return targets.stream()
+                    .map(target -> ProbeResult.skipped(target.alias(), runtime, command.getFirst() + " is not available"))
+                    .toList();
+        }
+
+        List<ProbeResult.Recorder> recorders = targets.stream()
+                .map(target -> new ProbeResult.Recorder(target.alias(), runtime)).toList();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!record(line, recorders)) {
+                    output.add(line);
+                }
+            }
+        } catch (IOException e) {
+            output.add(e.getMessage());
+        }
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+
+        List<ProbeResult> results = new ArrayList<>(targets.size());
+        for (ProbeResult.Recorder recorder : recorders) {
+            if (recorder.result().handshakes() == 0) {
+                // The script died before finishing this target, e.g. on a missing module
+                recorder.failed(runtime + " exited with " + exitCode + (output.isEmpty() ? "" : ": " + output.getLast()));
+            }
+            results.add(recorder.result());
+        }
+        return results;
+    }
+
+    private static boolean record(String line, List<ProbeResult.Recorder> recorders) {
+        String[] fields = line.split(" ", 3);
+        if (fields.length < 3) {
+            return false;
+        }
+        try {
+            int index = Integer.parseInt(fields[0]);
+            if (index < 0 || index >= recorders.size()) {
+                return false;
+            }
+            switch (fields[1]) {
+                case "ok" -> recorders.get(index).passed((long) (Double.parseDouble(fields[2]) * 1_000_000));
+                case "error" -> recorders.get(index).failed(fields[2]);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
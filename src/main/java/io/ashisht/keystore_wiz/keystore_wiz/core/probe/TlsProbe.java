@@ -0,0 +1,49 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * A TLS client runtime that handshakes with the loopback server while trusting a certificate.
+ */
+interface TlsProbe {
+    /**
+     * A certificate to probe.
+     *
+     * @param alias       The alias of the certificate.
+     * @param certificate The certificate.
+     * @param bundle      A PEM file holding the certificate and the certificate of the server.
+     */
+    record Target(String alias, X509Certificate certificate, Path bundle) {
+    }
+
+    /**
+     * @return The name results of this runtime are reported under.
+     */
+    String runtime();
+
+    /**
+     * Probes each target in turn, every one with the configured number of handshakes.
+     *
+     * @param targets The certificates to probe.
+     * @return One result per target, in the same order.
+     * @throws InterruptedException If the thread is interrupted while probing.
+     */
+    List<ProbeResult> probe(List<Target> targets) throws InterruptedException;
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Tests how TLS clients in different runtimes handle certificates of the keystore.
+ *
+ * <p>Entries of a truststore hold no private key, so a run starts a TLS server on a loopback port
+ * that presents a throwaway certificate for {@code localhost}. Every probed certificate is then put
+ * into the trust store of each client runtime next to the server certificate, and the client
+ * handshakes with the server a number of times. A probe fails when the runtime cannot load the
+ * certificate as a trust anchor, for example because of an encoding or algorithm it rejects, and
+ * it reports the handshake latency otherwise.
+ *
+ * <p>The in-JVM client always runs; the Python and Node.js clients run when their interpreters
+ * are installed and are reported as skipped otherwise. All runtimes probe concurrently, each
+ * splitting the certificates into batches that run on virtual threads.
+ */
+@Slf4j
+@Component
+public class TlsProbeHarness {
+    private final int handshakes;
+    private final int parallelism;
+    private final List<ScriptRuntime> scriptRuntimes = new ArrayList<>();
+
+    private record ScriptRuntime(String runtime, List<String> command) {
+    }
+
+    /**
+     * @param handshakes  The number of handshakes per certificate and runtime.
+     * @param parallelism The number of batches each runtime probes at once, 0 for one per processor.
+     * @param python      The Python interpreter, blank to skip Python.
+     * @param node        The Node.js executable, blank to skip Node.js.
+     */
+    public TlsProbeHarness(@Value("${keystore.probe.handshakes:10}") int handshakes,
+                           @Value("${keystore.probe.parallelism:0}") int parallelism,
+                           @Value("${keystore.probe.python:python3}") String python,
+                           @Value("${keystore.probe.node:node}") String node) {
+        this.handshakes = Math.max(handshakes, 1);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (!python.isBlank()) {
+            scriptRuntimes.add(new ScriptRuntime("python", List.of(python, "-c", script("tls_probe.py"))));
+        }
+        if (!node.isBlank()) {
+            scriptRuntimes.add(new ScriptRuntime("node", List.of(node, "-e", script("tls_probe.js"))));
+        }
+    }
+
+    /**
+     * Probes certificates on a virtual thread.
+     *
+     * @see #probe(Map)
+     */
+    public CompletableFuture<List<ProbeResult>> probeAsync(Map<String, X509Certificate> certificates) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return probe(certificates);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, Thread.ofVirtual().name("tls-probe")::start);
+    }
+
+    /**
+     * Probes certificates with every runtime.
+     *
+     * @param certificates The certificates by alias.
+     * @return The results ordered by alias in iteration order of the map, then by runtime.
+     * @throws GeneralSecurityException If the loopback server cannot be set up.
+     * @throws IOException              If the loopback server or the trust bundles cannot be created.
+     * @throws InterruptedException     If the thread is interrupted while probing.
+     */
+    public List<ProbeResult> probe(Map<String, X509Certificate> certificates)
+            throws GeneralSecurityException, IOException, InterruptedException {
+        long start = System.nanoTime();
+        LoopbackIdentity identity = LoopbackIdentity.generate();
+        Path directory = Files.createTempDirectory("keystore-wiz-probe");
+        try (LoopbackTlsServer server = new LoopbackTlsServer(identity)) {
+            List<TlsProbe.Target> targets = writeBundles(directory, identity.certificate(), certificates);
+            List<TlsProbe> probes = new ArrayList<>();
+            probes.add(new JvmTlsProbe(identity.certificate(), server.port(), handshakes));
+            for (ScriptRuntime scriptRuntime : scriptRuntimes) {
+                probes.add(new ScriptTlsProbe(scriptRuntime.runtime(), scriptRuntime.command(), server.port(), handshakes));
+            }
+
+            List<List<Future<List<ProbeResult>>>> batchesByProbe = new ArrayList<>();
+            List<ProbeResult> results = new ArrayList<>(targets.size() * probes.size());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                int batchSize = Math.ceilDiv(targets.size(), parallelism);
+                for (TlsProbe probe : probes) {
+                    List<Future<List<ProbeResult>>> batches = new ArrayList<>();
+                    for (int from = 0; from < targets.size(); from += batchSize) {
+                        List<TlsProbe.Target> batch = targets.subList(from, Math.min(from + batchSize, targets.size()));
+                        batches.add(executor.submit(() -> probe.probe(batch)));
+                    }
+                    batchesByProbe.add(batches);
+                }
+                List<List<ProbeResult>> resultsByProbe = new ArrayList<>();
+                for (List<Future<List<ProbeResult>>> batches : batchesByProbe) {
+                    List<ProbeResult> probeResults = new ArrayList<>(targets.size());
+                    for (Future<List<ProbeResult>> batch : batches) {
+                        probeResults.addAll(batch.get());
+                    }
+                    resultsByProbe.add(probeResults);
+                }
+                for (int i = 0; i < targets.size(); i++) {
+                    for (List<ProbeResult> probeResults : resultsByProbe) {
+                        results.add(probeResults.get(i));
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("TLS probe failed", e.getCause());
+            }
+            log.atInfo().log("Probed " + targets.size() + " certificates with " + probes.size() + " runtimes in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return results;
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static List<TlsProbe.Target> writeBundles(Path directory, X509Certificate serverCertificate,
+                                                      Map<String, X509Certificate> certificates)
+            throws IOException, CertificateEncodingException {
+        String serverPem = pem(serverCertificate);
+        List<TlsProbe.Target> targets = new ArrayList<>(certificates.size());
+        for (Map.Entry<String, X509Certificate> certificate : certificates.entrySet()) {
+            Path bundle = directory.resolve(targets.size() + ".pem");
+            Files.writeString(bundle, serverPem + pem(certificate.getValue()), StandardCharsets.US_ASCII);
+            targets.add(new TlsProbe.Target(certificate.getKey(), certificate.getValue(), bundle));
+        }
+        return targets;
+    }
+
+    private static String pem(X509Certificate certificate) throws CertificateEncodingException {
+        return "-----BEGIN CERTIFICATE-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(certificate.getEncoded())
+                + "\n-----END CERTIFICATE-----\n";
+    }
+
+    private static String script(String name) {
+        try (InputStream in = TlsProbeHarness.class.getResourceAsStream("/probes/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing probe script " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.atError().log("Failed to delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
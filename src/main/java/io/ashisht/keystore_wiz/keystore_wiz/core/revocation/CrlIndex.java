@@ -0,0 +1,372 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * The serial numbers revoked by the CRL of one issuer, in a compact form that is checked in
+ * microseconds and persisted without the CRL itself.
+ *
+ * <p>The serials are kept as fixed-width records in a single sorted byte array and found by binary
+ * search. Each record is the length of the minimal two's complement encoding of a serial, followed
+ * by that encoding left-padded with zeros to the longest serial of the CRL, so records compare like
+ * the serials they hold without any object per entry. A Bloom filter of about ten bits per serial
+ * sits in front of the array and answers most lookups of serials that are not revoked, which is the
+ * common case, with a few bit tests.
+ *
+ * <p>Instances are immutable and safe for concurrent use.
+ */
+public final class CrlIndex {
+    private static final int MAGIC = 0x4B575A52; // "KWZR"
+    private static final int VERSION = 1;
+    private static final int BLOOM_BITS_PER_SERIAL = 10;
+    private static final int BLOOM_HASHES = 7;
+
+    private final byte[] issuer;
+    private final long thisUpdate;
+    private final long nextUpdate;
+    private final String source;
+    private final String verifiedBy;
+    private final int count;
+    private final int width;
+    private final byte[] serials;
+    private final long[] bloom;
+
+    private CrlIndex(byte[] issuer, long thisUpdate, long nextUpdate, String source, String verifiedBy,
+                     int count, int width, byte[] serials, long[] bloom) {
+        this.issuer = issuer;
+        this.thisUpdate = thisUpdate;
+        this.nextUpdate = nextUpdate;
+        this.source = source;
+        this.verifiedBy = verifiedBy;
+        this.count = count;
+        this.width = width;
+        this.serials = serials;
+        this.bloom = bloom;
+    }
+
+    /**
+     * @return The DER encoded distinguished name of the issuer of the CRL.
+     */
+    public ByteBuffer issuerKey() {
+        return ByteBuffer.wrap(issuer).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return The distinguished name of the issuer of the CRL.
+     */
+    public X500Principal issuer() {
+        return new X500Principal(issuer);
+    }
+
+    /**
+     * @return When the CRL was issued.
+     */
+    public Instant thisUpdate() {
+        return Instant.ofEpochMilli(thisUpdate);
+    }
+
+    /**
+     * @return When the next CRL is due, or {@code null} if the CRL does not say.
+     */
+    public Instant nextUpdate() {
+        return nextUpdate == 0 ? null : Instant.ofEpochMilli(nextUpdate);
+    }
+
+    /**
+     * @return {@code true} if the next CRL was due before the given time, so that certificates
+     * revoked since may be missing.
+     */
+    public boolean isStale(Instant now) {
+        return nextUpdate != 0 && now.toEpochMilli() > nextUpdate;
+    }
+
+    /**
+     * @return The file or URL the CRL was imported from.
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * @return The subject of the keystore certificate whose key verified the signature of the
+     * CRL, or {@code null} if no certificate of the issuer was in the keystore when it was imported.
+     */
+    public String verifiedBy() {
+        return verifiedBy;
+    }
+
+    /**
+     * @return The number of distinct revoked serials.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param serial The serial number of a certificate of the issuer.
+     * @return {@code true} if the CRL revokes it.
+     */
+    public boolean isRevoked(BigInteger serial) {
+        byte[] encoded = serial.toByteArray();
+        if (encoded.length >= width || !mightContain(encoded)) {
+            return false;
+        }
+        byte[] key = new byte[width];
+        key[0] = (byte) encoded.length;
+        System.arraycopy(encoded, 0, key, width - encoded.length, encoded.length);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = Arrays.compareUnsigned(serials, mid * width, (mid + 1) * width, key, 0, width);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mightContain(byte[] encoded) {
+        long bits = (long) bloom.length * Long.SIZE;
+        long h1 = hash(encoded, 0, encoded.length);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the index to a file, replacing it atomically.
+     */
+    void write(Path file) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "crl", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(issuer.length);
+                out.write(issuer);
+                out.writeLong(thisUpdate);
+                out.writeLong(nextUpdate);
+                out.writeUTF(source);
+                out.writeBoolean(verifiedBy != null);
+                if (verifiedBy != null) {
+                    out.writeUTF(verifiedBy);
+                }
+                out.writeInt(count);
+                out.writeInt(width);
+                out.writeInt(bloom.length);
+                for (long word : bloom) {
+                    out.writeLong(word);
+                }
+                out.write(serials, 0, count * width);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #write(Path)}.
+     *
+     * @throws IOException If the file cannot be read or is not an index of this version.
+     */
+    static CrlIndex read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported CRL index format");
+            }
+            byte[] issuer = in.readNBytes(in.readInt());
+            long thisUpdate = in.readLong();
+            long nextUpdate = in.readLong();
+            String source = in.readUTF();
+            String verifiedBy = in.readBoolean() ? in.readUTF() : null;
+            int count = in.readInt();
+            int width = in.readInt();
+            long[] bloom = new long[in.readInt()];
+            for (int i = 0; i < bloom.length; i++) {
+                bloom[i] = in.readLong();
+            }
+            byte[] serials = in.readNBytes(count * width);
+            if (serials.length != count * width || bloom.length == 0) {
+                throw new IOException("Truncated CRL index");
+            }
+            return new CrlIndex(issuer, thisUpdate, nextUpdate, source, verifiedBy, count, width, serials, bloom);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return issuer().getName() + " (" + count + " revoked, issued " + thisUpdate()
+                + (verifiedBy() == null ? ", signature not verified" : "") + ")";
+    }
+
+    private static long hash(byte[] bytes, int offset, int length) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Collects the serials of a CRL into records, then sorts them and builds the Bloom filter.
+     */
+    static final class Builder {
+        private final int width;
+        private final byte[] serials;
+        private int count;
+
+        /**
+         * @param count     The number of serials that will be added.
+         * @param maxLength The length of the longest serial encoding that will be added.
+         */
+        Builder(int count, int maxLength) {
+            this.width = maxLength + 1;
+            if ((long) count * width > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many revoked serials: " + count);
+            }
+            this.serials = new byte[count * width];
+        }
+
+        /**
+         * Adds a serial given as the content octets of its DER INTEGER, which is its minimal two's
+         * complement encoding. Redundant leading octets written by lenient encoders are dropped so
+         * that the serial compares equal to {@link BigInteger#toByteArray()}.
+         */
+        void add(ByteBuffer buffer, int offset, int length) {
+            while (length > 1 && (buffer.get(offset) == 0 && buffer.get(offset + 1) >= 0
+                    || buffer.get(offset) == -1 && buffer.get(offset + 1) < 0)) {
+                offset++;
+                length--;
+            }
+            int record = count++ * width;
+            serials[record] = (byte) length;
+            buffer.get(offset, serials, record + width - length, length);
+        }
+
+        CrlIndex build(byte[] issuer, long thisUpdate, long nextUpdate, String source, String verifiedBy) {
+            byte[] swap = new byte[width];
+            sort(0, count - 1, swap);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || Arrays.compare(serials, (distinct - 1) * width, distinct * width,
+                        serials, i * width, (i + 1) * width) != 0) {
+                    System.arraycopy(serials, i * width, serials, distinct * width, width);
+                    distinct++;
+                }
+            }
+            long[] bloom = new long[(int) Math.max(1, ((long) distinct * BLOOM_BITS_PER_SERIAL + 63) / 64)];
+            long bits = (long) bloom.length * Long.SIZE;
+            for (int i = 0; i < distinct; i++) {
+                int length = serials[i * width];
+                long h1 = hash(serials, (i + 1) * width - length, length);
+                long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+                for (int h = 0; h < BLOOM_HASHES; h++) {
+                    long bit = Math.floorMod(h1 + h * h2, bits);
+                    bloom[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            byte[] compacted = distinct == count ? serials : Arrays.copyOf(serials, distinct * width);
+            return new CrlIndex(issuer, thisUpdate, nextUpdate, source, verifiedBy, distinct, width, compacted, bloom);
+        }
+
+        /**
+         * Quicksorts the records in place, recursing into the smaller partition only so that the
+         * stack depth stays logarithmic.
+         */
+        private void sort(int low, int high, byte[] swap) {
+            while (high - low > 16) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, low) < 0) {
+                    swap(mid, low, swap);
+                }
+                if (compare(high, low) < 0) {
+                    swap(high, low, swap);
+                }
+                if (compare(high, mid) < 0) {
+                    swap(high, mid, swap);
+                }
+                swap(mid, high - 1, swap);
+                int pivot = high - 1;
+                int i = low;
+                int j = high - 1;
+                while (true) {
+                    while (compare(++i, pivot) < 0) {
+                    }
+                    while (compare(--j, pivot) > 0) {
+                    }
+                    if (i >= j) {
+                        break;
+                    }
+                    swap(i, j, swap);
+                }
+                swap(i, high - 1, swap);
+                if (i - low < high - i) {
+                    sort(low, i - 1, swap);
+                    low = i + 1;
+                } else {
+                    sort(i + 1, high, swap);
+                    high = i - 1;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && compare(j, j - 1) < 0; j--) {
+                    swap(j, j - 1, swap);
+                }
+            }
+        }
+
+        private int compare(int a, int b) {
+            return Arrays.compareUnsigned(serials, a * width, (a + 1) * width, serials, b * width, (b + 1) * width);
+        }
+
+        private void swap(int a, int b, byte[] swap) {
+            System.arraycopy(serials, a * width, swap, 0, width);
+            System.arraycopy(serials, b * width, serials, a * width, width);
+            System.arraycopy(swap, 0, serials, b * width, width);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.DerReader;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyStoreException;
+import java.security.Signature;
+import java.security.cert.CRLException;
+import java.security.cert.X509Certificate;
+import java.security.spec.AlgorithmParameterSpec;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Builds a {@link CrlIndex} straight from the DER encoding of a CRL.
+ *
+ * <p>{@link java.security.cert.CertificateFactory#generateCRL} decodes every entry of a CRL into an
+ * {@link java.security.cert.X509CRLEntry}, which for CRLs of hundreds of megabytes takes several
+ * times their size in heap. This reader walks the memory-mapped file with {@link DerReader}
+ * instead, once to count the revoked serials and once to copy them into the index, and verifies
+ * the signature over the mapped TBSCertList bytes.
+ *
+ * <p>Entry and CRL extensions are not interpreted: indirect CRLs, whose entries name another
+ * issuer, and delta CRLs are read as complete CRLs of their own issuer.
+ */
+final class CrlReader {
+    private static final int BIT_STRING = 0x03;
+    private static final int NULL = 0x05;
+    private static final int UTC_TIME = 0x17;
+    private static final int GENERALIZED_TIME = 0x18;
+    private static final int CRL_SIGN = 6;
+    private static final String PEM_BEGIN = "-----BEGIN X509 CRL-----";
+    private static final String PEM_END = "-----END X509 CRL-----";
+    private static final DateTimeFormatter UTC_TIME_FORMAT = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'");
+    private static final DateTimeFormatter GENERALIZED_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss'Z'");
+
+    private CrlReader() {
+    }
+
+    /**
+     * Reads a DER or PEM encoded CRL file.
+     *
+     * @param file    The CRL file.
+     * @param source  The file or URL to record as the origin of the CRL.
+     * @param issuers Finds the certificates whose subject is the issuer of the CRL, to verify its signature with.
+     * @return The index of the revoked serials.
+     * @throws IOException  If the file cannot be read.
+     * @throws CRLException If the file is not a CRL.
+     */
+    static CrlIndex read(Path file, String source, Function<X500Principal, Collection<X509Certificate>> issuers)
+            throws IOException, CRLException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new CRLException("CRL " + file + " is larger than 2 GB");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (startsWith(buffer, "-----")) {
+                buffer = ByteBuffer.wrap(decodePem(buffer));
+            }
+            return read(buffer, source, issuers);
+        }
+    }
+
+    /**
+     * Reads a DER encoded CRL.
+     *
+     * @see #read(Path, String, Function)
+     */
+    static CrlIndex read(ByteBuffer buffer, String source, Function<X500Principal, Collection<X509Certificate>> issuers)
+            throws CRLException {
+        try {
+            int limit = buffer.limit();
+            DerReader.Tlv certificateList = DerReader.expect(buffer, 0, limit, DerReader.SEQUENCE);
+            DerReader.Tlv tbs = DerReader.expect(buffer, certificateList.contentOffset(), certificateList.end(),
+                    DerReader.SEQUENCE);
+            int pos = tbs.contentOffset();
+            DerReader.Tlv element = DerReader.read(buffer, pos, tbs.end());
+            if (element.tag() == DerReader.INTEGER) {
+                pos = element.end(); // version
+            }
+            pos = DerReader.expect(buffer, pos, tbs.end(), DerReader.SEQUENCE).end(); // inner signature algorithm
+            DerReader.Tlv issuer = DerReader.expect(buffer, pos, tbs.end(), DerReader.SEQUENCE);
+            byte[] issuerName = new byte[issuer.length()];
+            buffer.get(issuer.offset(), issuerName);
+            DerReader.Tlv thisUpdate = DerReader.read(buffer, issuer.end(), tbs.end());
+            pos = thisUpdate.end();
+            long nextUpdate = 0;
+            DerReader.Tlv revoked = null;
+            if (pos < tbs.end()) {
+                element = DerReader.read(buffer, pos, tbs.end());
+                if (element.tag() == UTC_TIME || element.tag() == GENERALIZED_TIME) {
+                    nextUpdate = time(buffer, element);
+                    pos = element.end();
+                    element = pos < tbs.end() ? DerReader.read(buffer, pos, tbs.end()) : null;
+                }
+                if (element != null && element.tag() == DerReader.SEQUENCE) {
+                    revoked = element;
+                }
+            }
+
+            CrlIndex.Builder builder = revoked == null ? new CrlIndex.Builder(0, 0) : builder(buffer, revoked);
+            DerReader.Tlv algorithm = DerReader.expect(buffer, tbs.end(), certificateList.end(), DerReader.SEQUENCE);
+            DerReader.Tlv signature = DerReader.expect(buffer, algorithm.end(), certificateList.end(), BIT_STRING);
+            String verifiedBy = verify(buffer, tbs, algorithm, signature,
+                    issuers.apply(new X500Principal(issuerName)));
+            return builder.build(issuerName, time(buffer, thisUpdate), nextUpdate, source, verifiedBy);
+        } catch (KeyStoreException | IllegalArgumentException | DateTimeException e) {
+            throw new CRLException("Malformed CRL from " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sizes the index in a first pass over the revoked certificates, then fills it in a second.
+     */
+    private static CrlIndex.Builder builder(ByteBuffer buffer, DerReader.Tlv revoked) throws KeyStoreException {
+        int count = 0;
+        int maxLength = 0;
+        for (int pos = revoked.contentOffset(); pos < revoked.end(); count++) {
+            DerReader.Tlv entry = DerReader.expect(buffer, pos, revoked.end(), DerReader.SEQUENCE);
+            DerReader.Tlv serial = DerReader.expect(buffer, entry.contentOffset(), entry.end(), DerReader.INTEGER);
+            if (serial.contentLength() == 0 || serial.contentLength() > 127) {
+                throw new KeyStoreException("Invalid serial number at offset " + serial.offset());
+            }
+            maxLength = Math.max(maxLength, serial.contentLength());
+            pos = entry.end();
+        }
+        CrlIndex.Builder builder = new CrlIndex.Builder(count, maxLength);
+        for (int pos = revoked.contentOffset(); pos < revoked.end(); ) {
+            DerReader.Tlv entry = DerReader.read(buffer, pos, revoked.end());
+            DerReader.Tlv serial = DerReader.read(buffer, entry.contentOffset(), entry.end());
+            builder.add(buffer, serial.contentOffset(), serial.contentLength());
+            pos = entry.end();
+        }
+        return builder;
+    }
+
+    /**
+     * @return The subject of the first candidate whose key verifies the signature of the CRL, or
+     * {@code null} if none does.
+     */
+    private static String verify(ByteBuffer buffer, DerReader.Tlv tbs, DerReader.Tlv algorithm,
+                                 DerReader.Tlv signature, Collection<X509Certificate> candidates) throws KeyStoreException {
+        if (candidates.isEmpty() || signature.contentLength() < 1) {
+            return null;
+        }
+        DerReader.Tlv oid = DerReader.expect(buffer, algorithm.contentOffset(), algorithm.end(), DerReader.OBJECT_IDENTIFIER);
+        byte[] parameters = null;
+        if (oid.end() < algorithm.end() && DerReader.read(buffer, oid.end(), algorithm.end()).tag() != NULL) {
+            parameters = new byte[algorithm.end() - oid.end()];
+            buffer.get(oid.end(), parameters);
+        }
+        // The first content octet of the BIT STRING counts the unused bits, always 0 for signatures
+        byte[] signatureBytes = new byte[signature.contentLength() - 1];
+        buffer.get(signature.contentOffset() + 1, signatureBytes);
+        for (X509Certificate candidate : candidates) {
+            boolean[] keyUsage = candidate.getKeyUsage();
+            if (keyUsage != null && (keyUsage.length <= CRL_SIGN || !keyUsage[CRL_SIGN])) {
+                continue;
+            }
+            try {
+                Signature verifier = Signature.getInstance(DerReader.oid(buffer, oid));
+                if (parameters != null) {
+                    AlgorithmParameters algorithmParameters = AlgorithmParameters.getInstance(verifier.getAlgorithm());
+                    algorithmParameters.init(parameters);
+                    verifier.setParameter(algorithmParameters.getParameterSpec(AlgorithmParameterSpec.class));
+                }
+                verifier.initVerify(candidate.getPublicKey());
+                verifier.update(buffer.slice(tbs.offset(), tbs.length()));
+                if (verifier.verify(signatureBytes)) {
+                    return candidate.getSubjectX500Principal().getName();
+                }
+            } catch (GeneralSecurityException | IOException e) {
+                // Not signed with this key, or with an algorithm the JDK does not support
+            }
+        }
+        return null;
+    }
+
+    private static long time(ByteBuffer buffer, DerReader.Tlv time) throws KeyStoreException {
+        String value = new String(DerReader.content(buffer, time), StandardCharsets.US_ASCII);
+        LocalDateTime parsed = switch (time.tag()) {
+            case UTC_TIME -> {
+                LocalDateTime utc = LocalDateTime.parse(value, UTC_TIME_FORMAT);
+                // RFC 5280: two-digit years from 50 on are in the 20th century
+                yield utc.getYear() >= 2050 ? utc.minusYears(100) : utc;
+            }
+            case GENERALIZED_TIME -> LocalDateTime.parse(value, GENERALIZED_TIME_FORMAT);
+            default -> throw new KeyStoreException("Expected a time at offset " + time.offset());
+        };
+        return parsed.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, String prefix) {
+        if (buffer.limit() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] decodePem(ByteBuffer buffer) throws CRLException {
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(0, bytes);
+        String pem = new String(bytes, StandardCharsets.US_ASCII);
+        int begin = pem.indexOf(PEM_BEGIN);
+        int end = pem.indexOf(PEM_END, Math.max(begin, 0));
+        if (begin < 0 || end < 0) {
+            throw new CRLException("Not a PEM encoded CRL");
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(begin + PEM_BEGIN.length(), end));
+    }
+}
@@ -0,0 +1,391 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.DerReader;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CRLException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Checks certificates against CRLs imported from local files or fetched from their distribution
+ * points, without any network access at check time.
+ *
+ * <p>Each CRL is read into a {@link CrlIndex} of its revoked serial numbers, keeping only the
+ * most recent CRL per issuer. A CRL whose signature could not be verified never replaces a
+ * verified one, and a certificate it does not list is reported as unknown rather than not
+ * revoked, since anyone able to tamper with the download could have removed it. A check is a
+ * Bloom filter probe and, for the few serials that pass it, a binary search, so the whole table
+ * can be checked on every refresh. Indexes are written to {@code keystore.revocation.directory}
+ * and read back on first use after a restart.
+ *
+ * <p>Distribution points are fetched over HTTP, or from {@code keystore.revocation.cdp-mirror}
+ * when set, a local server mirroring the CRLs under {@code <mirror>/<host>/<path>} for machines
+ * that cannot reach the CAs. LDAP distribution points are skipped.
+ */
+@Slf4j
+@Component
+public class CrlStore {
+    private static final String CRL_DISTRIBUTION_POINTS = "2.5.29.31";
+    private static final int CONTEXT_0 = 0xA0;
+    private static final int URI_NAME = 0x86;
+    private static final String INDEX_SUFFIX = ".kwr";
+
+    private final KeystoreManager keystoreManager;
+    private final OperationMetrics metrics;
+    private final Path directory;
+    private final URI mirror;
+    private final Duration fetchTimeout;
+    private final Map<ByteBuffer, CrlIndex> indexes = new ConcurrentHashMap<>();
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean restored;
+
+    /**
+     * @param directory           The directory CRL indexes are kept in, or empty to keep them in memory only.
+     * @param mirror              The base URL of a local mirror of the CRL distribution points, or empty
+     *                            to fetch from the distribution points themselves.
+     * @param fetchTimeoutSeconds The timeout of connecting to and downloading from a distribution point.
+     */
+    public CrlStore(KeystoreManager keystoreManager,
+                    @Value("${keystore.revocation.directory:}") String directory,
+                    @Value("${keystore.revocation.cdp-mirror:}") String mirror,
+                    @Value("${keystore.revocation.fetch-timeout-seconds:30}") long fetchTimeoutSeconds,
+                    OperationMetrics metrics) {
+        this.keystoreManager = keystoreManager;
+        this.metrics = metrics;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.mirror = mirror.isBlank() ? null : URI.create(mirror.endsWith("/") ? mirror : mirror + "/");
+        this.fetchTimeout = Duration.ofSeconds(fetchTimeoutSeconds);
+    }
+
+    /**
+     * Reads the indexes saved by an earlier run in the background, so that the first check does
+     * not wait for them.
+     */
+    @PostConstruct
+    void restoreInBackground() {
+        loadExecutor.execute(this::restore);
+    }
+
+    /**
+     * Checks a certificate of the loaded keystore.
+     *
+     * @param alias The alias of the certificate.
+     * @return Its revocation status; unknown while the keystore is being indexed.
+     */
+    public Revocation check(String alias) {
+        RevocationIndex.Serial serial = keystoreManager.getRevocationIndex().serialOf(alias);
+        return serial == null ? Revocation.UNKNOWN : check(serial.issuer(), serial.serial());
+    }
+
+    /**
+     * Checks any certificate.
+     *
+     * @param certificate The certificate.
+     * @return Its revocation status.
+     */
+    public Revocation check(X509Certificate certificate) {
+        return check(ByteBuffer.wrap(certificate.getIssuerX500Principal().getEncoded()), certificate.getSerialNumber());
+    }
+
+    /**
+     * @param issuer The DER encoded distinguished name of the issuer of the certificate.
+     * @param serial The serial number of the certificate.
+     * @return Its revocation status.
+     */
+    public Revocation check(ByteBuffer issuer, BigInteger serial) {
+        restore();
+        CrlIndex crl = indexes.get(issuer);
+        if (crl == null) {
+            return Revocation.UNKNOWN;
+        }
+        if (crl.isRevoked(serial)) {
+            return new Revocation(Revocation.Status.REVOKED, crl);
+        }
+        return new Revocation(crl.verifiedBy() == null ? Revocation.Status.UNKNOWN : Revocation.Status.NOT_REVOKED, crl);
+    }
+
+    /**
+     * @return The CRL indexes, one per issuer, ordered by issuer name.
+     */
+    public List<CrlIndex> getIndexes() {
+        restore();
+        return indexes.values().stream().sorted(Comparator.comparing(crl -> crl.issuer().getName())).toList();
+    }
+
+    /**
+     * Imports CRL files concurrently, verifying their signatures with the CA certificates of the
+     * loaded keystore.
+     *
+     * @param files DER or PEM encoded CRL files.
+     * @return A future completing with the indexes read, in the order of the files, or
+     * exceptionally with the first failure; CRLs read successfully are kept either way.
+     */
+    public CompletableFuture<List<CrlIndex>> importCrls(List<Path> files) {
+        List<CompletableFuture<CrlIndex>> imports = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> importCrl(file, file.toString()), loadExecutor))
+                .toList();
+        return CompletableFuture.allOf(imports.toArray(CompletableFuture[]::new))
+                .thenApply(done -> imports.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Fetches the CRLs of every distribution point named by the certificates of the loaded keystore.
+     *
+     * @return A future completing with the indexes fetched. Distribution points that cannot be
+     * fetched are logged and left out.
+     */
+    public CompletableFuture<List<CrlIndex>> fetchDistributionPoints() {
+        return keystoreManager.getIndexing().thenCompose(indexed -> {
+            List<CompletableFuture<CrlIndex>> fetches = keystoreManager.getRevocationIndex().distributionPoints()
+                    .stream()
+                    .filter(uri -> "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    .map(uri -> CompletableFuture.supplyAsync(() -> fetch(uri), loadExecutor)
+                            .exceptionally(e -> {
+                                log.atWarn().log("Failed to fetch the CRL at " + uri + ": " + e.getMessage());
+                                return null;
+                            }))
+                    .toList();
+            return CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new))
+                    .thenApply(done -> fetches.stream().map(CompletableFuture::join).filter(crl -> crl != null).toList());
+        });
+    }
+
+    /**
+     * Downloads and imports the CRL of a distribution point, from the mirror if one is configured.
+     *
+     * @param uri The distribution point.
+     * @return The index read.
+     */
+    public CrlIndex fetch(URI uri) {
+        URI location = mirrored(uri);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("keystore-wiz", ".crl");
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(fetchTimeout)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+            try (client) {
+                HttpResponse<Path> response = client.send(HttpRequest.newBuilder(location).timeout(fetchTimeout).build(),
+                        HttpResponse.BodyHandlers.ofFile(temp));
+                if (response.statusCode() != 200) {
+                    throw new IOException("HTTP status " + response.statusCode() + " from " + location);
+                }
+            }
+            return importCrl(temp, uri.toString());
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.atWarn().log("Failed to delete " + temp + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param uri A distribution point.
+     * @return Where to download its CRL from.
+     */
+    URI mirrored(URI uri) {
+        if (mirror == null) {
+            return uri;
+        }
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        return mirror.resolve(uri.getHost() + (path.startsWith("/") ? path : "/" + path));
+    }
+
+    private CrlIndex importCrl(Path file, String source) {
+        long start = System.nanoTime();
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.INDEX_CRL, source)) {
+            Function<X500Principal, Collection<X509Certificate>> issuers = keystoreManager::getCertificatesWithSubject;
+            CrlIndex crl = CrlReader.read(file, source, issuers);
+            span.items(crl.size());
+            restore();
+            CrlIndex kept = indexes.merge(crl.issuerKey(), crl, CrlStore::newer);
+            if (kept == crl) {
+                persist(crl);
+            } else {
+                log.atWarn().log("Keeping the CRL issued " + kept.thisUpdate() + " from " + kept.source() + " for "
+                        + crl.issuer().getName() + " rather than the one from " + source + ".");
+            }
+            log.atInfo().log("Indexed " + crl.size() + " revoked serials of " + crl.issuer().getName() + " from "
+                    + source + " in " + (System.nanoTime() - start) / 1_000_000 + " ms"
+                    + (crl.verifiedBy() == null ? ", signature not verified." : "."));
+            return crl;
+        } catch (IOException | CRLException e) {
+            log.atError().log("Failed to import the CRL " + source + ": " + e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Keeps the most recent CRL of an issuer, but a verified one over any whose signature could not
+     * be verified, however recent.
+     */
+    private static CrlIndex newer(CrlIndex current, CrlIndex candidate) {
+        boolean currentVerified = current.verifiedBy() != null;
+        if (currentVerified != (candidate.verifiedBy() != null)) {
+            return currentVerified ? current : candidate;
+        }
+        return candidate.thisUpdate().compareTo(current.thisUpdate()) >= 0 ? candidate : current;
+    }
+
+    private void persist(CrlIndex crl) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            crl.write(directory.resolve(fileName(crl)));
+        } catch (IOException e) {
+            log.atError().log("Failed to save the CRL index of " + crl.issuer().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the indexes saved by an earlier run, once.
+     */
+    private void restore() {
+        if (restored) {
+            return;
+        }
+        synchronized (this) {
+            if (restored) {
+                return;
+            }
+            if (directory != null && Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX)) {
+                    for (Path file : files) {
+                        try {
+                            CrlIndex crl = CrlIndex.read(file);
+                            indexes.merge(crl.issuerKey(), crl, CrlStore::newer);
+                        } catch (IOException e) {
+                            log.atWarn().log("Skipping the CRL index " + file + ": " + e.getMessage());
+                        }
+                    }
+                } catch (IOException e) {
+                    log.atError().log("Failed to list the CRL indexes in " + directory + ": " + e.getMessage());
+                }
+            }
+            restored = true;
+        }
+    }
+
+    private static String fileName(CrlIndex crl) {
+        try {
+            ByteBuffer issuer = crl.issuerKey();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(issuer);
+            return HexFormat.of().formatHex(digest.digest()) + INDEX_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the HTTP, LDAP and other URIs of the full names in the CRL distribution points
+     * extension of a certificate.
+     *
+     * @param certificate The certificate.
+     * @return The URIs, empty if the certificate has no such extension or it is malformed.
+     */
+    public static List<URI> distributionPoints(X509Certificate certificate) {
+        byte[] value = certificate.getExtensionValue(CRL_DISTRIBUTION_POINTS);
+        if (value == null) {
+            return List.of();
+        }
+        List<URI> uris = new ArrayList<>();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            DerReader.Tlv extension = DerReader.expect(buffer, 0, value.length, DerReader.OCTET_STRING);
+            DerReader.Tlv points = DerReader.expect(buffer, extension.contentOffset(), extension.end(), DerReader.SEQUENCE);
+            for (int pos = points.contentOffset(); pos < points.end(); ) {
+                DerReader.Tlv point = DerReader.expect(buffer, pos, points.end(), DerReader.SEQUENCE);
+                pos = point.end();
+                if (point.contentLength() == 0) {
+                    continue;
+                }
+                DerReader.Tlv name = DerReader.read(buffer, point.contentOffset(), point.end());
+                if (name.tag() != CONTEXT_0) {
+                    continue; // only reasons or a CRL issuer
+                }
+                DerReader.Tlv fullName = DerReader.read(buffer, name.contentOffset(), name.end());
+                if (fullName.tag() != CONTEXT_0) {
+                    continue; // a name relative to the CRL issuer
+                }
+                for (int at = fullName.contentOffset(); at < fullName.end(); ) {
+                    DerReader.Tlv generalName = DerReader.read(buffer, at, fullName.end());
+                    at = generalName.end();
+                    if (generalName.tag() == URI_NAME) {
+                        uris.add(URI.create(new String(DerReader.content(buffer, generalName),
+                                StandardCharsets.US_ASCII)));
+                    }
+                }
+            }
+        } catch (KeyStoreException | IllegalArgumentException e) {
+            return List.of();
+        }
+        return uris;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdownNow();
+    }
+}
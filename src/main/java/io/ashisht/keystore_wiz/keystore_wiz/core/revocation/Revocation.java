@@ -0,0 +1,62 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import java.time.Instant;
+
+/**
+ * The revocation status of a certificate according to the imported CRLs.
+ *
+ * @param status The status.
+ * @param crl    The CRL of the issuer of the certificate, or {@code null} if none was imported.
+ */
+public record Revocation(Status status, CrlIndex crl) {
+    public static final Revocation UNKNOWN = new Revocation(Status.UNKNOWN, null);
+
+    public enum Status {
+        /**
+         * The CRL of the issuer lists the certificate.
+         */
+        REVOKED,
+        /**
+         * The verified CRL of the issuer does not list the certificate.
+         */
+        NOT_REVOKED,
+        /**
+         * No CRL of the issuer was imported, or only one whose signature could not be verified
+         * and that does not list the certificate.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * @return A description of the status and of the CRL it was read from, for display.
+     */
+    public String describe() {
+        return switch (status) {
+            case REVOKED -> "Revoked according to " + describeCrl();
+            case NOT_REVOKED -> "Not revoked according to " + describeCrl();
+            case UNKNOWN -> crl == null ? "Unknown, no CRL of the issuer was imported"
+                    : "Unknown, not listed by " + describeCrl();
+        };
+    }
+
+    private String describeCrl() {
+        return "the CRL issued " + crl.thisUpdate() + " from " + crl.source()
+                + (crl.verifiedBy() == null ? " (signature not verified)" : "")
+                + (crl.isStale(Instant.now()) ? " (past its next update)" : "");
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.CertificateIndex;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.cert.X509Certificate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the issuer and serial number of every certificate, which is all a {@link CrlIndex}
+ * lookup needs, and the CRL distribution points the certificates name.
+ *
+ * <p>Issuer names are interned, so a keystore of certificates from a handful of CAs keeps one
+ * copy of each name rather than one per certificate.
+ */
+public class RevocationIndex implements CertificateIndex {
+    private final Map<String, Serial> serialsByAlias = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, ByteBuffer> issuers = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, Set<URI>> distributionPoints = new ConcurrentHashMap<>();
+
+    /**
+     * The issuer and serial number of a certificate.
+     *
+     * @param issuer The DER encoded distinguished name of the issuer.
+     * @param serial The serial number.
+     */
+    public record Serial(ByteBuffer issuer, BigInteger serial) {
+    }
+
+    @Override
+    public void add(String alias, X509Certificate certificate) {
+        ByteBuffer issuer = issuers.computeIfAbsent(
+                ByteBuffer.wrap(certificate.getIssuerX500Principal().getEncoded()), name -> name);
+        serialsByAlias.put(alias, new Serial(issuer, certificate.getSerialNumber()));
+        List<URI> uris = CrlStore.distributionPoints(certificate);
+        if (!uris.isEmpty()) {
+            distributionPoints.computeIfAbsent(issuer, name -> ConcurrentHashMap.newKeySet()).addAll(uris);
+        }
+    }
+
+    @Override
+    public void remove(String alias) {
+        // Issuers and distribution points are kept; they are few and only grow the CRLs worth fetching
+        serialsByAlias.remove(alias);
+    }
+
+    @Override
+    public void clear() {
+        serialsByAlias.clear();
+        issuers.clear();
+        distributionPoints.clear();
+    }
+
+    /**
+     * @param alias The alias of a certificate.
+     * @return Its issuer and serial number, or {@code null} if the alias is not indexed.
+     */
+    public Serial serialOf(String alias) {
+        return serialsByAlias.get(alias);
+    }
+
+    /**
+     * @return The CRL distribution point URIs named by the indexed certificates, sorted.
+     */
+    public List<URI> distributionPoints() {
+        return distributionPoints.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .sorted(Comparator.comparing(URI::toString))
+                .toList();
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.workspace;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The differences between a target keystore, usually the current one, and a source keystore.
+ *
+ * <p>Both keystores are compared by alias and by SHA-256 fingerprint through hash maps, so a
+ * diff costs O(n) map lookups rather than comparing certificates pairwise.
+ *
+ * @param differences The differences, ordered by alias.
+ */
+public record KeystoreDiff(List<Difference> differences) {
+
+    public enum Kind {
+        /**
+         * The alias exists only in the source keystore, with a certificate the target lacks.
+         */
+        ADDED,
+        /**
+         * The alias exists only in the target keystore, with a certificate the source lacks.
+         */
+        REMOVED,
+        /**
+         * The alias exists in both keystores with different certificates.
+         */
+        CHANGED,
+        /**
+         * The same certificate is stored under different aliases.
+         */
+        MOVED,
+        /**
+         * The alias holds a private key entry in the target keystore and a different certificate
+         * in the source. Merging it replaces the key entry, which loses its private key.
+         */
+        KEY_ENTRY
+    }
+
+    /**
+     * @param kind              How the keystores differ.
+     * @param alias             The alias in the source keystore, or in the target keystore for {@link Kind#REMOVED}.
+     * @param targetAlias       For {@link Kind#MOVED}, the alias of the certificate in the target keystore.
+     * @param sourceFingerprint The SHA-256 fingerprint in the source keystore, or {@code null} if removed.
+     * @param targetFingerprint The SHA-256 fingerprint in the target keystore, or {@code null} if added.
+     */
+    public record Difference(Kind kind, String alias, String targetAlias, String sourceFingerprint,
+                             String targetFingerprint) {
+    }
+
+    /**
+     * The edits that make the target keystore match the source for a selection of differences.
+     *
+     * @param additions The certificates to store, keyed by alias.
+     * @param removals  The aliases to delete.
+     */
+    public record Merge(Map<String, X509Certificate> additions, Set<String> removals) {
+    }
+
+    /**
+     * Compares two keystores that hold no private key entries.
+     *
+     * @param target The SHA-256 fingerprints of the target keystore by alias.
+     * @param source The SHA-256 fingerprints of the source keystore by alias.
+     * @return The differences.
+     */
+    public static KeystoreDiff compute(Map<String, String> target, Map<String, String> source) {
+        return compute(target, Map.of(), source);
+    }
+
+    /**
+     * Compares two keystores. Key entries of the target are never reported as removed or moved,
+     * only as {@link Kind#KEY_ENTRY} when the source stores another certificate under their alias.
+     *
+     * @param target           The SHA-256 fingerprints of the trusted certificates of the target keystore by alias.
+     * @param targetKeyEntries The SHA-256 fingerprints of the certificates of the key entries of the target keystore by alias.
+     * @param source           The SHA-256 fingerprints of the source keystore by alias.
+     * @return The differences.
+     */
+    public static KeystoreDiff compute(Map<String, String> target, Map<String, String> targetKeyEntries,
+                                       Map<String, String> source) {
+        Map<String, List<String>> targetAliasesByFingerprint = aliasesByFingerprint(target);
+        List<Difference> differences = new ArrayList<>();
+        Set<String> movedFrom = new HashSet<>();
+
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            String alias = entry.getKey();
+            String fingerprint = entry.getValue();
+            String keyEntryFingerprint = targetKeyEntries.get(alias);
+            if (keyEntryFingerprint != null) {
+                if (!keyEntryFingerprint.equals(fingerprint)) {
+                    differences.add(new Difference(Kind.KEY_ENTRY, alias, null, fingerprint, keyEntryFingerprint));
+                }
+                continue;
+            }
+            String targetFingerprint = target.get(alias);
+            if (targetFingerprint != null) {
+                if (!targetFingerprint.equals(fingerprint)) {
+                    differences.add(new Difference(Kind.CHANGED, alias, null, fingerprint, targetFingerprint));
+                }
+                continue;
+            }
+            // Only an alias the source does not use can have moved
+            String targetAlias = targetAliasesByFingerprint.getOrDefault(fingerprint, List.of()).stream()
+                    .filter(candidate -> !source.containsKey(candidate) && !movedFrom.contains(candidate))
+                    .findFirst().orElse(null);
+            if (targetAlias != null) {
+                movedFrom.add(targetAlias);
+                differences.add(new Difference(Kind.MOVED, alias, targetAlias, fingerprint, fingerprint));
+            } else {
+                differences.add(new Difference(Kind.ADDED, alias, null, fingerprint, null));
+            }
+        }
+        for (Map.Entry<String, String> entry : target.entrySet()) {
+            String alias = entry.getKey();
+            if (!source.containsKey(alias) && !movedFrom.contains(alias)) {
+                differences.add(new Difference(Kind.REMOVED, alias, null, null, entry.getValue()));
+            }
+        }
+        differences.sort(Comparator.comparing(Difference::alias).thenComparing(Difference::kind));
+        return new KeystoreDiff(List.copyOf(differences));
+    }
+
+    /**
+     * Plans the edits applying a selection of differences to the target keystore. Selected
+     * {@link Kind#KEY_ENTRY} differences replace the key entry with the certificate of the source.
+     *
+     * @param selected The differences to apply.
+     * @param source   The source keystore the differences were computed against.
+     * @return The edits.
+     */
+    public static Merge merge(Collection<Difference> selected, WorkspaceKeystore source) {
+        Map<String, X509Certificate> additions = new LinkedHashMap<>();
+        Set<String> removals = new HashSet<>();
+        for (Difference difference : selected) {
+            switch (difference.kind()) {
+                case ADDED, CHANGED, KEY_ENTRY -> additions.put(difference.alias(), source.certificates().get(difference.alias()));
+                case MOVED -> {
+                    additions.put(difference.alias(), source.certificates().get(difference.alias()));
+                    removals.add(difference.targetAlias());
+                }
+                case REMOVED -> removals.add(difference.alias());
+            }
+        }
+        removals.removeAll(additions.keySet());
+        return new Merge(additions, removals);
+    }
+
+    /**
+     * @param selected Differences of this diff.
+     * @return The aliases of the key entries that merging the differences would replace.
+     */
+    public static List<String> keyEntriesReplacedBy(Collection<Difference> selected) {
+        return selected.stream()
+                .filter(difference -> difference.kind() == Kind.KEY_ENTRY)
+                .map(Difference::alias)
+                .toList();
+    }
+
+    /**
+     * @return The number of differences of a kind.
+     */
+    public long count(Kind kind) {
+        return differences.stream().filter(difference -> difference.kind() == kind).count();
+    }
+
+    private static Map<String, List<String>> aliasesByFingerprint(Map<String, String> fingerprints) {
+        Map<String, List<String>> aliases = new HashMap<>(fingerprints.size() * 2);
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+            aliases.computeIfAbsent(entry.getValue(), fingerprint -> new ArrayList<>(1)).add(entry.getKey());
+        }
+        aliases.values().forEach(list -> list.sort(null));
+        return aliases;
+    }
+}
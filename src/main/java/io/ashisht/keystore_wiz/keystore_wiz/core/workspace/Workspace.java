@@ -0,0 +1,154 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.workspace;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.security.KeyStoreException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keystores opened next to the current keystore for comparison, for example a staging truststore
+ * next to the production one.
+ *
+ * <p>Keystores are read concurrently, one virtual thread each, and kept in memory read-only.
+ * Differences are computed from SHA-256 fingerprints, see {@link KeystoreDiff}, and selected
+ * differences are merged into the current keystore in one batch.
+ */
+@Slf4j
+@Component
+public class Workspace {
+    private final KeystoreManager keystoreManager;
+    private final Map<Path, WorkspaceKeystore> keystores = new ConcurrentHashMap<>();
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public Workspace(KeystoreManager keystoreManager) {
+        this.keystoreManager = keystoreManager;
+    }
+
+    /**
+     * Opens keystores that share a password concurrently, replacing any already open from the same file.
+     *
+     * @param paths    The keystore files.
+     * @param password The keystore password; cleared once every keystore is read.
+     * @return A future completing with the keystores in the order of the paths, or exceptionally
+     * with the first failure; keystores read successfully are kept open either way.
+     */
+    public CompletableFuture<List<WorkspaceKeystore>> open(List<Path> paths, char[] password) {
+        List<CompletableFuture<WorkspaceKeystore>> loads = paths.stream()
+                .map(path -> CompletableFuture.supplyAsync(() -> load(path, password), loadExecutor))
+                .toList();
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                .whenComplete((done, e) -> Arrays.fill(password, '\0'))
+                .thenApply(done -> loads.stream().map(CompletableFuture::join).toList());
+    }
+
+    private WorkspaceKeystore load(Path path, char[] password) {
+        long start = System.nanoTime();
+        try {
+            Path key = path.toAbsolutePath().normalize();
+            WorkspaceKeystore keystore = WorkspaceKeystore.load(key, password);
+            keystores.put(key, keystore);
+            log.atInfo().log("Opened " + key + " with " + keystore.certificates().size() + " certificates in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return keystore;
+        } catch (Exception e) {
+            log.atError().log("Failed to open " + path + ": " + e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * @return The open keystores, ordered by path.
+     */
+    public List<WorkspaceKeystore> getKeystores() {
+        return keystores.values().stream().sorted(Comparator.comparing(WorkspaceKeystore::path)).toList();
+    }
+
+    /**
+     * Removes a keystore from the workspace.
+     *
+     * @param keystore The keystore to close.
+     */
+    public void close(WorkspaceKeystore keystore) {
+        keystores.remove(keystore.path(), keystore);
+    }
+
+    /**
+     * Compares two keystores of the workspace.
+     *
+     * @param target The keystore differences are reported against.
+     * @param source The keystore differences are merged from.
+     * @return The differences.
+     */
+    public KeystoreDiff diff(WorkspaceKeystore target, WorkspaceKeystore source) {
+        return KeystoreDiff.compute(target.fingerprints(), source.fingerprints());
+    }
+
+    /**
+     * Compares the current keystore with a keystore of the workspace once its indexes are complete.
+     *
+     * @param source The keystore differences are merged from.
+     * @return A future completing with the differences.
+     */
+    public CompletableFuture<KeystoreDiff> diffWithCurrent(WorkspaceKeystore source) {
+        return keystoreManager.getFingerprints().thenCombine(keystoreManager.getKeyEntryFingerprints(), (target, keyEntries) -> {
+            long start = System.nanoTime();
+            KeystoreDiff diff = KeystoreDiff.compute(target, keyEntries, source.fingerprints());
+            log.atInfo().log("Compared " + target.size() + " with " + source.fingerprints().size() + " certificates in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return diff;
+        });
+    }
+
+    /**
+     * Applies selected differences to the current keystore in one batch.
+     *
+     * @param selected          The differences, computed by {@link #diffWithCurrent(WorkspaceKeystore)}.
+     * @param source            The keystore the differences were computed against.
+     * @param replaceKeyEntries {@code true} if the user confirmed that the key entries of selected
+     *                          {@link KeystoreDiff.Kind#KEY_ENTRY} differences are replaced, losing their keys.
+     * @return The edits made.
+     * @throws KeyStoreException If an entry cannot be stored or deleted, or a key entry would be
+     *                           replaced without confirmation; nothing is applied then.
+     */
+    public KeystoreDiff.Merge mergeIntoCurrent(Collection<KeystoreDiff.Difference> selected, WorkspaceKeystore source,
+                                               boolean replaceKeyEntries) throws KeyStoreException {
+        KeystoreDiff.Merge merge = KeystoreDiff.merge(selected, source);
+        keystoreManager.mergeEntries(merge.additions(), merge.removals(), replaceKeyEntries);
+        log.atInfo().log("Merged " + merge.additions().size() + " additions and " + merge.removals().size()
+                + " removals from " + source.path() + ".");
+        return merge;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdownNow();
+    }
+}
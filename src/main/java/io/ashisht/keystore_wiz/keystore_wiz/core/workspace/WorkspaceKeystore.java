@@ -0,0 +1,69 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.core.workspace;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.index.FingerprintIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A keystore opened into the {@link Workspace} for comparison with the current keystore. It is
+ * read once and never modified.
+ *
+ * @param path         The keystore file.
+ * @param certificates The certificate entries by alias, in keystore order.
+ * @param fingerprints The SHA-256 fingerprint of every certificate by alias.
+ */
+public record WorkspaceKeystore(Path path, Map<String, X509Certificate> certificates,
+                                Map<String, String> fingerprints) {
+
+    /**
+     * Reads a keystore of any type the JDK detects, such as JKS or PKCS12, and fingerprints its
+     * certificates in parallel.
+     *
+     * @param path     The keystore file.
+     * @param password The keystore password.
+     * @return The keystore.
+     * @throws IOException              If the file cannot be read or the password is wrong.
+     * @throws GeneralSecurityException If the keystore type is not supported or an entry cannot be read.
+     */
+    public static WorkspaceKeystore load(Path path, char[] password) throws IOException, GeneralSecurityException {
+        KeyStore keystore = KeyStore.getInstance(path.toFile(), password);
+        Map<String, X509Certificate> certificates = new LinkedHashMap<>();
+        for (String alias : Collections.list(keystore.aliases())) {
+            if (keystore.isCertificateEntry(alias) && keystore.getCertificate(alias) instanceof X509Certificate cert) {
+                certificates.put(alias, cert);
+            }
+        }
+        Map<String, String> fingerprints = certificates.entrySet().parallelStream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> FingerprintIndex.fingerprints(entry.getValue()).sha256()));
+        return new WorkspaceKeystore(path, Collections.unmodifiableMap(certificates), fingerprints);
+    }
+
+    @Override
+    public String toString() {
+        return path.getFileName() + " (" + certificates.size() + " certificates)";
+    }
+}
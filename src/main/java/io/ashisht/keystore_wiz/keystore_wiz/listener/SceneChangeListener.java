@@ -16,49 +16,39 @@
 package io.ashisht.keystore_wiz.keystore_wiz.listener;
 
 import io.ashisht.keystore_wiz.keystore_wiz.events.SceneChangeEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.net.URL;
-
 @Component
 public class SceneChangeListener implements ApplicationListener<SceneChangeEvent<Resource>> {
-    private final ApplicationContext context;
+    private final SceneRegistry sceneRegistry;
 
-    SceneChangeListener(ApplicationContext context) {
-        this.context = context;
+    SceneChangeListener(SceneRegistry sceneRegistry) {
+        this.sceneRegistry = sceneRegistry;
     }
 
 
     /**
-     * Handles the {@link SceneChangeEvent} by loading a new FXML scene and setting it on the stage.
+     * Handles the {@link SceneChangeEvent} by setting the cached scene of the FXML view on the stage.
+     * A scene can only be shown by one stage, so a stage still showing it is closed first.
      *
      * @param sceneChangeEvent The event that triggered this method call, containing the stage to update.
-     * @throws RuntimeException if there is an error loading the FXML resource.
+     * @throws java.io.UncheckedIOException if there is an error loading the FXML resource.
      */
     @Override
     public void onApplicationEvent(SceneChangeEvent sceneChangeEvent) {
-        try {
-            Stage stage = sceneChangeEvent.getStage();
-            URL url = sceneChangeEvent.getFxml().getURL();
-            FXMLLoader fxmlLoader = new FXMLLoader(url);
-            fxmlLoader.setControllerFactory(context::getBean);
-            Parent root = fxmlLoader.load();
-            Scene scene = new Scene(root, Color.BLACK);
-            stage.setScene(scene);
-            stage.setResizable(sceneChangeEvent.getSetResizable());
-            stage.centerOnScreen();
-            stage.show();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        Stage stage = sceneChangeEvent.getStage();
+        Scene scene = sceneRegistry.scene(sceneChangeEvent.getFxml());
+        if (scene.getWindow() instanceof Stage previous && previous != stage) {
+            previous.setScene(null);
+            previous.close();
         }
+        stage.setScene(scene);
+        stage.setResizable(sceneChangeEvent.getSetResizable());
+        stage.centerOnScreen();
+        stage.show();
     }
 }
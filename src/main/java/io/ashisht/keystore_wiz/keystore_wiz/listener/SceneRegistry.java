@@ -0,0 +1,134 @@
+/**
+ * Copyright ©️ 2025 Ashish Thakur <ashish.thakur1110@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.ashisht.keystore_wiz.keystore_wiz.listener;
+
+import io.ashisht.keystore_wiz.keystore_wiz.controllers.Rebindable;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads every FXML view once and hands out the same {@link Scene} on every navigation.
+ *
+ * <p>Views can be preloaded on a background thread, for example while the load screen is
+ * showing, so that even the first navigation to them does not parse FXML. Controllers
+ * implementing {@link Rebindable} are rebound each time their scene is handed out.
+ */
+@Slf4j
+@Component
+public class SceneRegistry {
+    private final ApplicationContext context;
+    private final OperationMetrics metrics;
+    private final Map<String, CompletableFuture<LoadedView>> views = new ConcurrentHashMap<>();
+
+    /**
+     * Scenes wrapping the loaded views; only accessed on the JavaFX application thread.
+     */
+    private final Map<String, Scene> scenes = new HashMap<>();
+
+    private record LoadedView(Parent root, Object controller) {
+    }
+
+    SceneRegistry(ApplicationContext context, OperationMetrics metrics) {
+        this.context = context;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts loading views on a virtual thread, unless they are already loaded or loading.
+     *
+     * @param fxmls The FXML resources to load.
+     */
+    public void preload(Resource... fxmls) {
+        for (Resource fxml : fxmls) {
+            views.computeIfAbsent(key(fxml), key -> {
+                CompletableFuture<LoadedView> view = new CompletableFuture<>();
+                Thread.ofVirtual().name("fxml-preload").start(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        view.complete(load(fxml));
+                        log.atInfo().log("Preloaded " + key + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+                    } catch (RuntimeException e) {
+                        view.completeExceptionally(e);
+                    }
+                });
+                return view;
+            });
+        }
+    }
+
+    /**
+     * Returns the scene of a view, loading the view on the calling thread if it was not
+     * preloaded, and rebinds its controller. Must be called on the JavaFX application thread.
+     *
+     * @param fxml The FXML resource of the view.
+     * @return The cached scene.
+     */
+    public Scene scene(Resource fxml) {
+        String key = key(fxml);
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.SCENE_SWITCH, key)) {
+            LoadedView view = view(fxml, key);
+            Scene scene = scenes.computeIfAbsent(key, k -> new Scene(view.root(), Color.BLACK));
+            if (view.controller() instanceof Rebindable rebindable) {
+                rebindable.rebind();
+            }
+            return scene;
+        }
+    }
+
+    private LoadedView view(Resource fxml, String key) {
+        CompletableFuture<LoadedView> pending = views.get(key);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                log.atError().log("Preloading " + key + " failed, loading it again: " + e.getCause().getMessage());
+            }
+        }
+        LoadedView view = load(fxml);
+        views.put(key, CompletableFuture.completedFuture(view));
+        return view;
+    }
+
+    private LoadedView load(Resource fxml) {
+        try (OperationMetrics.Span span = metrics.start(OperationMetrics.Phase.FXML_LOAD, key(fxml))) {
+            FXMLLoader fxmlLoader = new FXMLLoader(fxml.getURL());
+            fxmlLoader.setControllerFactory(context::getBean);
+            Parent root = fxmlLoader.load();
+            return new LoadedView(root, fxmlLoader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(Resource fxml) {
+        return fxml.getDescription();
+    }
+}
@@ -15,23 +15,17 @@
  */
 package io.ashisht.keystore_wiz.keystore_wiz.listener;
 
+import io.ashisht.keystore_wiz.keystore_wiz.core.KeystoreManager;
 import io.ashisht.keystore_wiz.keystore_wiz.events.StageReadyEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.net.URL;
 import java.util.Optional;
 
 @Slf4j
@@ -39,47 +33,50 @@ import java.util.Optional;
 public class StageListener implements ApplicationListener<StageReadyEvent> {
     private final String applicationTitle;
     private final Resource fxml;
-    private final ApplicationContext context;
+    private final Resource[] preloadedFxml;
+    private final SceneRegistry sceneRegistry;
+    private final KeystoreManager keystoreManager;
 
     StageListener(@Value("${spring.application.ui.title}") String applicationTitle, @Value("classpath:/keystore_load.fxml") Resource fxml,
-                  ApplicationContext context) {
+                  @Value("classpath:/keystore_details.fxml") Resource keystoreDetailsFxml, @Value("classpath:/detail.fxml") Resource detailFxml,
+                  SceneRegistry sceneRegistry, KeystoreManager keystoreManager) {
         this.applicationTitle = applicationTitle;
         this.fxml = fxml;
-        this.context = context;
+        this.preloadedFxml = new Resource[]{keystoreDetailsFxml, detailFxml};
+        this.sceneRegistry = sceneRegistry;
+        this.keystoreManager = keystoreManager;
     }
 
     /**
      * This method is called by the Spring context when the application is
-     * started and the {@link StageReadyEvent} is published.
+     * started and the {@link StageReadyEvent} is published. Once the load screen is showing,
+     * the views navigated to later are preloaded in the background.
      *
      * @param stageReadyEvent The event that triggered this method call.
      */
     @Override
     public void onApplicationEvent(StageReadyEvent stageReadyEvent) {
-        try {
-            Stage stage = stageReadyEvent.getStage();
-            URL url = fxml.getURL();
-            FXMLLoader fxmlLoader = new FXMLLoader(url);
-            fxmlLoader.setControllerFactory(context::getBean);
-            Parent root = fxmlLoader.load();
-            Scene scene = new Scene(root, Color.BLACK);
-            stage.setScene(scene);
-            stage.setTitle(applicationTitle);
-            stage.setOnCloseRequest(event -> {
-                event.consume();
-                closeAppWindow(stage);
-            });
-            stage.show();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        Stage stage = stageReadyEvent.getStage();
+        stage.setScene(sceneRegistry.scene(fxml));
+        stage.setTitle(applicationTitle);
+        stage.setOnCloseRequest(event -> {
+            event.consume();
+            closeAppWindow(stage);
+        });
+        stage.show();
+        sceneRegistry.preload(preloadedFxml);
     }
 
     private void closeAppWindow(Stage stage) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Exit Program");
         alert.setHeaderText("Are you sure you want to exit?");
-        alert.setContentText("All unsaved data will be lost!");
+        if (keystoreManager.isModified()) {
+            // Unsaved edits are restored from the journal when the keystore is opened again
+            alert.setContentText(keystoreManager.isJournaled()
+                    ? "Unsaved changes are kept and restored the next time this keystore is opened."
+                    : "All unsaved data will be lost!");
+        }
         Optional<ButtonType> alertWin = alert.showAndWait();
         if (alertWin.isPresent()) {
             if (alertWin.get() == ButtonType.OK){
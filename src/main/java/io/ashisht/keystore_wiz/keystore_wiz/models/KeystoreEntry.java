@@ -18,12 +18,37 @@ package io.ashisht.keystore_wiz.keystore_wiz.models;
 import lombok.Builder;
 import lombok.Getter;
 
+/**
+ * The metadata of a certificate or private key entry shown in the keystore table. Key entries
+ * are described by the first certificate of their chain, read without decrypting the key.
+ *
+ * <p>Dates are kept as epoch milliseconds and only formatted for display, and issuer names are
+ * shared between the entries of certificates with the same issuer.
+ */
 @Builder
 @Getter
 public class KeystoreEntry {
     private String alias;
     private String issuer;
     private String subject;
-    private String startDate;
-    private String endDate;
+
+    /**
+     * The start of the validity period, in milliseconds since the epoch.
+     */
+    private long startDate;
+
+    /**
+     * The end of the validity period, in milliseconds since the epoch.
+     */
+    private long endDate;
+
+    /**
+     * {@code true} for a private key entry, {@code false} for a trusted certificate entry.
+     */
+    private boolean keyEntry;
+
+    /**
+     * The algorithm and size of the public key of the certificate, e.g. {@code RSA 2048 bits}.
+     */
+    private String publicKey;
 }
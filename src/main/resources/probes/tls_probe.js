@@ -0,0 +1,41 @@
+// TLS probe run by Keystore Wiz: node -e <script> <port> <handshakes> <bundle>...
+// Prints "<index> ok <milliseconds>" or "<index> error <message>" for every handshake.
+const fs = require("fs");
+const tls = require("tls");
+
+const [port, handshakes, ...bundles] = process.argv.slice(1);
+
+function report(index, status, detail) {
+    console.log(`${index} ${status} ${String(detail).replace(/\n/g, " ")}`);
+}
+
+function handshake(ca) {
+    return new Promise((resolve, reject) => {
+        const start = process.hrtime.bigint();
+        const socket = tls.connect({host: "127.0.0.1", port: Number(port), servername: "localhost", ca}, () => {
+            resolve(Number(process.hrtime.bigint() - start) / 1e6);
+            socket.end();
+        });
+        socket.setTimeout(10000, () => socket.destroy(new Error("handshake timed out")));
+        socket.on("error", reject);
+    });
+}
+
+(async () => {
+    for (let index = 0; index < bundles.length; index++) {
+        let ca;
+        try {
+            ca = fs.readFileSync(bundles[index]);
+        } catch (e) {
+            report(index, "error", e.message);
+            continue;
+        }
+        for (let i = 0; i < Number(handshakes); i++) {
+            try {
+                report(index, "ok", await handshake(ca));
+            } catch (e) {
+                report(index, "error", e.message);
+            }
+        }
+    }
+})();
@@ -0,0 +1,28 @@
+# TLS probe run by Keystore Wiz: python3 -c <script> <port> <handshakes> <bundle>...
+# Prints "<index> ok <milliseconds>" or "<index> error <message>" for every handshake.
+import socket
+import ssl
+import sys
+import time
+
+port, handshakes, bundles = int(sys.argv[1]), int(sys.argv[2]), sys.argv[3:]
+
+
+def report(index, status, detail):
+    print(index, status, str(detail).replace("\n", " "), flush=True)
+
+
+for index, bundle in enumerate(bundles):
+    try:
+        context = ssl.create_default_context(cafile=bundle)
+    except Exception as e:
+        report(index, "error", e)
+        continue
+    for _ in range(handshakes):
+        start = time.perf_counter()
+        try:
+            with socket.create_connection(("127.0.0.1", port), timeout=10) as sock:
+                with context.wrap_socket(sock, server_hostname="localhost"):
+                    report(index, "ok", (time.perf_counter() - start) * 1000)
+        except Exception as e:
+            report(index, "error", e)
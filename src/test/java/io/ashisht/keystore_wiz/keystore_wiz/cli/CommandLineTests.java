@@ -0,0 +1,37 @@
+package io.ashisht.keystore_wiz.keystore_wiz.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineTests {
+
+	@Test
+	void separatesCommandOptionsPropertiesAndArguments() {
+		CommandLine commandLine = CommandLine.parse(new String[]{"--json", "delete", "--alias=old,older",
+				"--alias=oldest", "--keystore.backend=index", "a.jks", "b.jks"});
+
+		assertEquals("delete", commandLine.command());
+		assertEquals(List.of("a.jks", "b.jks"), commandLine.arguments());
+		assertEquals(Map.of("keystore.backend", "index"), commandLine.properties());
+		assertTrue(commandLine.hasOption("json"));
+		assertEquals("", commandLine.option("json"));
+		assertEquals("oldest", commandLine.option("alias"));
+		assertEquals(List.of("old", "older", "oldest"), commandLine.optionValues("alias"));
+		assertNull(commandLine.option("fingerprint"));
+		assertEquals(List.of(), commandLine.optionValues("fingerprint"));
+	}
+
+	@Test
+	void rejectsMissingCommandsAndRequiredOptions() {
+		assertThrows(IllegalArgumentException.class, () -> CommandLine.parse(new String[]{"--json"}));
+
+		CommandLine commandLine = CommandLine.parse(new String[]{"export", "--target=", "a.jks"});
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> commandLine.requireOption("target"));
+		assertEquals("Missing --target for export.", e.getMessage());
+	}
+}
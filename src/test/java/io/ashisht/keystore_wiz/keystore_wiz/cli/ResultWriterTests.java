@@ -0,0 +1,69 @@
+package io.ashisht.keystore_wiz.keystore_wiz.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultWriterTests {
+
+	@Test
+	void writesOneJsonObjectPerResult() {
+		Map<String, Object> first = new LinkedHashMap<>();
+		first.put("keystore", "C:\\keys\\\"trust\".jks");
+		first.put("count", 2);
+		first.put("entries", List.of(Map.of("alias", "a\tb\u0001"), Map.of("alias", "c")));
+		first.put("error", null);
+		first.put("failed", false);
+		Map<String, Object> second = new LinkedHashMap<>();
+		second.put("keystore", "other.jks");
+		second.put("entries", List.of());
+
+		List<String> lines = write(true, first, second);
+
+		assertEquals(List.of(
+				"{\"keystore\":\"C:\\\\keys\\\\\\\"trust\\\".jks\",\"count\":2,"
+						+ "\"entries\":[{\"alias\":\"a\\tb\\u0001\"},{\"alias\":\"c\"}],\"error\":null,\"failed\":false}",
+				"{\"keystore\":\"other.jks\",\"entries\":[]}"), lines);
+	}
+
+	@Test
+	void writesNonFiniteNumbersAsNull() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("p50", Double.NaN);
+		result.put("max", Double.POSITIVE_INFINITY);
+		result.put("rate", Float.NEGATIVE_INFINITY);
+		result.put("total", 1.5);
+
+		assertEquals(List.of("{\"p50\":null,\"max\":null,\"rate\":null,\"total\":1.5}"), write(true, result));
+	}
+
+	@Test
+	void writesIndentedText() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("keystore", "trust.jks");
+		result.put("entries", List.of(Map.of("alias", "root"), "plain"));
+		result.put("missing", List.of());
+
+		assertEquals(List.of("keystore: trust.jks", "entries:", "  - alias: root", "  - plain", "missing: []", ""),
+				write(false, result));
+	}
+
+	@SafeVarargs
+	private static List<String> write(boolean json, Map<String, ?>... results) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ResultWriter writer = new ResultWriter(new PrintStream(bytes, true, StandardCharsets.UTF_8), json);
+		assertEquals(0L, writer.firstOutputNanos());
+		for (Map<String, ?> result : results) {
+			writer.write(result);
+		}
+		assertTrue(writer.firstOutputNanos() != 0);
+		return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+}
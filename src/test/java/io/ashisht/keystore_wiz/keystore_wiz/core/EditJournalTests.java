@@ -0,0 +1,54 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditJournalTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysCommittedEditsAndIgnoresTornTransactions() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		Path keystore = directory.resolve("truststore.jks");
+		try (EditJournal journal = new EditJournal(keystore)) {
+			journal.append(new EditJournal.Edit(Map.of("root", root), List.of()));
+			journal.append(new EditJournal.Edit(Map.of("leaf", leaf), List.of("old root")));
+			journal.append(new EditJournal.Edit(Map.of(), List.of("root")));
+			journal.appendUndo();
+			journal.appendUndo();
+			journal.appendRedo();
+		}
+		Path file = directory.resolve(".truststore.jks.journal");
+		Files.writeString(file, "begin\ndelete bGVhZg\nadd cm9v", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+		EditJournal.Replay replay = new EditJournal(keystore).read();
+
+		assertEquals(2, replay.position());
+		assertEquals(3, replay.edits().size());
+		assertEquals(Map.of("leaf", leaf), replay.edits().get(1).additions());
+		assertEquals(List.of("old root"), List.copyOf(replay.edits().get(1).removals()));
+
+		try (EditJournal journal = new EditJournal(keystore)) {
+			journal.append(new EditJournal.Edit(Map.of(), List.of("leaf")));
+		}
+		replay = new EditJournal(keystore).read();
+		assertEquals(3, replay.position());
+		assertEquals(List.of("leaf"), List.copyOf(replay.edits().get(2).removals()));
+
+		new EditJournal(keystore).reset(null);
+		assertNull(new EditJournal(keystore).read());
+	}
+}
@@ -0,0 +1,149 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeystoreSnapshotTests {
+
+	@Test
+	void editsLeaveEarlierSnapshotsUnchanged() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		KeyStore base = keystore(Map.of("root", root, "leaf", leaf));
+		KeystoreSnapshot loaded = KeystoreSnapshot.of(base, null, List.of("root", "leaf"));
+
+		KeystoreSnapshot edited = loaded.withEdits(Map.of("leaf", root, "other", leaf), List.of("root"));
+
+		assertEquals(List.of("root", "leaf"), loaded.aliases());
+		assertSame(leaf, loaded.getCertificate("leaf"));
+		assertFalse(loaded.isModified());
+		assertEquals(List.of("leaf", "other"), edited.aliases());
+		assertSame(root, edited.getCertificate("leaf"));
+		assertNull(edited.getCertificate("root"));
+		assertEquals(Set.of("root", "leaf", "other"), edited.editedAliases());
+		assertEquals(2, base.size());
+	}
+
+	@Test
+	void longEditChainsReadLikeACopiedOverlay() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		List<String> baseAliases = List.of("a0", "a1", "a2", "a3", "a4");
+		Map<String, X509Certificate> baseEntries = new LinkedHashMap<>();
+		baseAliases.forEach(alias -> baseEntries.put(alias, root));
+		KeystoreSnapshot loaded = KeystoreSnapshot.of(keystore(baseEntries), null, baseAliases);
+		Map<String, X509Certificate> expected = new LinkedHashMap<>();
+		List<KeystoreSnapshot> versions = new ArrayList<>(List.of(loaded));
+		List<List<String>> versionAliases = new ArrayList<>(List.of(loaded.aliases()));
+		Random random = new Random(42);
+
+		for (int i = 0; i < 60; i++) {
+			String removed = "a" + random.nextInt(10);
+			String added = "a" + random.nextInt(10);
+			if (baseAliases.contains(removed)) {
+				expected.put(removed, null);
+			} else {
+				expected.remove(removed);
+			}
+			expected.put(added, leaf);
+			KeystoreSnapshot edited = versions.getLast().withEdits(Map.of(added, leaf), List.of(removed));
+			versions.add(edited);
+			versionAliases.add(edited.aliases());
+
+			assertEquals(expected.keySet(), edited.editedAliases());
+			for (int n = 0; n < 10; n++) {
+				String alias = "a" + n;
+				X509Certificate certificate = expected.containsKey(alias) ? expected.get(alias)
+						: baseAliases.contains(alias) ? root : null;
+				assertSame(certificate, edited.getCertificate(alias), alias);
+				assertEquals(expected.containsKey(alias), edited.isEdited(alias), alias);
+			}
+		}
+
+		List<String> aliases = new ArrayList<>(baseAliases);
+		expected.forEach((alias, certificate) -> {
+			if (certificate == null) {
+				aliases.remove(alias);
+			} else if (!aliases.contains(alias)) {
+				aliases.add(alias);
+			}
+		});
+		assertEquals(aliases, versions.getLast().aliases());
+		for (int i = 0; i < versions.size(); i++) {
+			KeystoreSnapshot version = versions.get(i);
+			assertEquals(versionAliases.get(i), loaded.withOverlayOf(version).aliases());
+		}
+	}
+
+	@Test
+	void storesTheEditedVersionAndKeepsLaterEditsAfterSaving() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		KeystoreSnapshot loaded = KeystoreSnapshot.of(keystore(Map.of("root", root)), null, List.of("root"));
+		KeystoreSnapshot saved = loaded.withEdits(Map.of("leaf", leaf), List.of());
+		KeystoreSnapshot current = saved.withEdits(Map.of(), List.of("root"));
+
+		KeyStore written = saved.materialize();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		saved.store(out, "changeit".toCharArray());
+		KeystoreSnapshot rebased = current.afterSave(saved, written);
+
+		KeyStore stored = KeyStore.getInstance("PKCS12");
+		stored.load(new ByteArrayInputStream(out.toByteArray()), "changeit".toCharArray());
+		assertEquals(Set.of("root", "leaf"), Set.copyOf(Collections.list(stored.aliases())));
+		assertEquals(1, loaded.keystore().size());
+		assertEquals(Set.of("root"), rebased.editedAliases());
+		assertEquals(List.of("leaf"), rebased.aliases());
+	}
+
+	@Test
+	void readsKeyEntriesWithoutTheirPasswordAndReplacesThemOnEdit() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		KeyPair keyPair = KeyPairGenerator.getInstance("EC").generateKeyPair();
+		KeyStore base = keystore(Map.of("root", root));
+		base.setKeyEntry("server", keyPair.getPrivate(), "secret".toCharArray(), new Certificate[]{leaf, root});
+		KeystoreSnapshot loaded = KeystoreSnapshot.of(base, null, List.of("root", "server"));
+
+		assertTrue(loaded.isKeyEntry("server"));
+		assertFalse(loaded.isKeyEntry("root"));
+		assertSame(leaf, loaded.getCertificate("server"));
+		assertEquals(List.of(leaf, root), loaded.getCertificateChain("server"));
+		assertNull(loaded.getCertificateChain("root"));
+		assertThrows(UnrecoverableKeyException.class, () -> loaded.getPrivateKey("server", "wrong".toCharArray()));
+		UnlockedKey unlocked = UnlockedKey.of("server", loaded.getPrivateKey("server", "secret".toCharArray()), leaf);
+		assertEquals(Boolean.FALSE, unlocked.matchesCertificate());
+
+		KeystoreSnapshot edited = loaded.withEdits(Map.of("server", root), List.of());
+		KeyStore written = edited.materialize();
+		assertFalse(edited.isKeyEntry("server"));
+		assertTrue(written.isCertificateEntry("server"));
+		assertTrue(base.isKeyEntry("server"));
+	}
+
+	private static KeyStore keystore(Map<String, X509Certificate> certificates) throws Exception {
+		KeyStore keystore = KeyStore.getInstance("PKCS12");
+		keystore.load(null, null);
+		for (Map.Entry<String, X509Certificate> entry : certificates.entrySet()) {
+			keystore.setCertificateEntry(entry.getKey(), entry.getValue());
+		}
+		return keystore;
+	}
+}
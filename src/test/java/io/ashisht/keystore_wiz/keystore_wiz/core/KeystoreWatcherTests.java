@@ -0,0 +1,130 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeystoreWatcherTests {
+
+	private static final char[] PASSWORD = "changeit".toCharArray();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void doesNotReadItsOwnSavesAgain() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		Path file = write(tempDir.resolve("trust.p12"), Map.of("root", root, "leaf", leaf));
+		KeystoreManager manager = manager();
+		try {
+			manager.openKeystore(file, PASSWORD);
+			assertNull(manager.reloadFromDisk());
+
+			manager.deleteKeystoreEntry("leaf");
+			assertEquals(SaveResult.WRITTEN, manager.saveKeystore().join());
+			assertNull(manager.reloadFromDisk());
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void appliesChangesWrittenByAnotherProcessUnderPendingEdits() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		Path file = write(tempDir.resolve("trust.p12"), Map.of("root", root, "leaf", leaf));
+		KeystoreManager manager = manager();
+		try {
+			manager.openKeystore(file, PASSWORD);
+			manager.addCertificateEntry("pending", leaf);
+
+			write(file, Map.of("root", leaf, "other", root));
+			KeystoreReload reload = manager.reloadFromDisk();
+
+			assertEquals(Set.of("other"), reload.added().keySet());
+			assertEquals(Set.of("root"), reload.changed().keySet());
+			assertTrue(reload.removed().contains("leaf"));
+			assertTrue(manager.applyReload(reload));
+			assertEquals(Set.of("root", "other", "pending"), new HashSet<>(manager.getAliases()));
+			assertEquals(leaf, manager.getCertificate("root"));
+			assertEquals(leaf, manager.getCertificate("pending"));
+			assertTrue(manager.isModified());
+			assertNull(manager.reloadFromDisk());
+			// Computed against an alias list that was replaced since
+			manager.openKeystore(file, PASSWORD);
+			assertFalse(manager.applyReload(reload));
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void reportsRewritesOfTheWatchedFile() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		Path file = write(tempDir.resolve("trust.p12"), Map.of("root", root));
+		KeystoreManager manager = manager();
+		KeystoreWatcher watcher = new KeystoreWatcher(manager, 50, true);
+		try {
+			manager.openKeystore(file, PASSWORD);
+			CompletableFuture<KeystoreReload> changes = new CompletableFuture<>();
+			watcher.watch(changes::complete);
+
+			KeystoreReload reload = null;
+			// The watch is registered on another thread, so write again until it sees a write
+			for (int attempt = 0; attempt < 10 && reload == null; attempt++) {
+				write(file, Map.of("root", root, "leaf", leaf));
+				try {
+					reload = changes.get(1, TimeUnit.SECONDS);
+				} catch (TimeoutException e) {
+					// Not registered yet
+				}
+			}
+			assertNotNull(reload);
+			assertEquals(Set.of("leaf"), reload.added().keySet());
+		} finally {
+			watcher.stop();
+			manager.shutdown();
+		}
+	}
+
+	private static KeystoreManager manager() {
+		return new KeystoreManager(1024, 0, 2048, "jca", "", 64, "{cn}-{sha256:8}", false, false, 100, 0,
+				new OperationMetrics(256));
+	}
+
+	/**
+	 * Writes a keystore as another process would, with a modification time that differs from any
+	 * earlier write even on file systems with coarse timestamps.
+	 */
+	private static Path write(Path file, Map<String, X509Certificate> certificates) throws Exception {
+		FileTime previous = Files.exists(file) ? Files.getLastModifiedTime(file) : FileTime.fromMillis(0);
+		KeyStore keystore = KeyStore.getInstance("PKCS12");
+		keystore.load(null, null);
+		for (Map.Entry<String, X509Certificate> entry : certificates.entrySet()) {
+			keystore.setCertificateEntry(entry.getKey(), entry.getValue());
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			keystore.store(out, PASSWORD);
+		}
+		long modified = Math.max(System.currentTimeMillis(), previous.toMillis() + 2_000);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+		return file;
+	}
+}
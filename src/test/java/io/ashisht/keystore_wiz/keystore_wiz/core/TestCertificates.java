@@ -0,0 +1,25 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+/**
+ * Loads the certificates of the test resources under {@code /certs}.
+ */
+public final class TestCertificates {
+
+	private TestCertificates() {
+	}
+
+	public static X509Certificate load(String name) throws IOException, CertificateException {
+		try (InputStream in = TestCertificates.class.getResourceAsStream("/certs/" + name)) {
+			if (in == null) {
+				throw new IOException("No test certificate " + name);
+			}
+			return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+		}
+	}
+}
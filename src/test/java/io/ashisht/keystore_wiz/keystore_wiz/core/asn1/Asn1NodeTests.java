@@ -0,0 +1,61 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.asn1;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Asn1NodeTests {
+
+	@Test
+	void decodesTheCertificateStructureOneLevelAtATime() throws Exception {
+		Asn1Node certificate = Asn1Node.certificate(TestCertificates.load("leaf.pem").getEncoded());
+		assertTrue(certificate.hasChildren());
+		assertFalse(certificate.isDecoded());
+
+		List<Asn1Node> fields = certificate.children();
+		assertSame(fields, certificate.children());
+		assertEquals(List.of("tbsCertificate", "signatureAlgorithm", "signatureValue"), labels(fields));
+		Asn1Node tbs = fields.getFirst();
+		assertFalse(tbs.isDecoded());
+		assertEquals(List.of("version", "serialNumber", "signature", "issuer", "validity", "subject",
+				"subjectPublicKeyInfo", "extensions"), labels(tbs.children()));
+		assertEquals("0x13ab5ad1aa7a3a7a", tbs.children().get(1).value());
+		assertEquals("CN=leaf.example.com,O=Keystore Wiz", tbs.children().get(5).value());
+		assertEquals("ecdsa-with-SHA384 (1.2.840.10045.4.3.3)", fields.get(1).children().getFirst().value());
+
+		Asn1Node extensions = tbs.children().getLast().children().getFirst();
+		assertEquals(List.of("subjectKeyIdentifier", "subjectAltName", "authorityKeyIdentifier"),
+				labels(extensions.children()));
+		Asn1Node subjectAltName = extensions.children().get(1);
+		assertFalse(subjectAltName.children().getLast().isDecoded());
+		// The extension value is an OCTET STRING holding the DER of the GeneralNames
+		Asn1Node names = subjectAltName.children().getLast().children().getFirst();
+		assertEquals(List.of("[2]: leaf.example.com", "[2]: www.example.com"),
+				names.children().stream().map(Asn1Node::toString).toList());
+		// So is the ECDSA signature, but not the EC point of the public key
+		assertEquals(2, fields.get(2).children().getFirst().children().size());
+		assertFalse(tbs.children().get(6).children().get(1).hasChildren());
+	}
+
+	@Test
+	void reportsAMalformedEncodingAsANode() throws Exception {
+		byte[] encoded = TestCertificates.load("root.pem").getEncoded();
+		assertEquals((byte) 0x82, encoded[5]);
+		// Make the TBSCertificate as long as the whole certificate, so that it exceeds it
+		encoded[6] = encoded[2];
+		encoded[7] = encoded[3];
+		Asn1Node certificate = Asn1Node.certificate(encoded);
+		assertEquals(1, certificate.children().size());
+		Asn1Node last = certificate.children().getLast();
+		assertEquals("Malformed", last.label());
+		assertFalse(last.hasChildren());
+		assertEquals(-1, last.tag());
+	}
+
+	private static List<String> labels(List<Asn1Node> nodes) {
+		return nodes.stream().map(Asn1Node::label).toList();
+	}
+}
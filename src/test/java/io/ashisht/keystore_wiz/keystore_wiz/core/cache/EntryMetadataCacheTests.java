@@ -0,0 +1,111 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.cache;
+
+import io.ashisht.keystore_wiz.keystore_wiz.models.KeystoreEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryMetadataCacheTests {
+
+	private static final char[] PASSWORD = "changeit".toCharArray();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void returnsTheStoredEntriesForTheSameKeystoreAndPassword() throws Exception {
+		Path keystore = Files.write(tempDir.resolve("trust.jks"), new byte[]{1, 2, 3, 4});
+		EntryMetadataCache cache = new EntryMetadataCache(tempDir.resolve("cache"), 1 << 20);
+		assertTrue(cache.lookup(keystore, PASSWORD).isEmpty());
+
+		cache.store(keystore, PASSWORD, List.of(entry("root", "CN=Root", false), entry("server", "CN=Root", true)));
+
+		Optional<List<KeystoreEntry>> cached = cache.lookup(keystore, PASSWORD);
+		assertTrue(cached.isPresent());
+		assertEquals(2, cached.get().size());
+		KeystoreEntry server = cached.get().get(1);
+		assertEquals("server", server.getAlias());
+		assertEquals("CN=Root", server.getIssuer());
+		assertEquals("CN=server", server.getSubject());
+		assertEquals(1_000L, server.getStartDate());
+		assertEquals(2_000L, server.getEndDate());
+		assertTrue(server.isKeyEntry());
+		assertEquals("EC 256 bits", server.getPublicKey());
+		// A wrong password misses without discarding the cache file
+		assertTrue(cache.lookup(keystore, "wrong".toCharArray()).isEmpty());
+		assertTrue(cache.lookup(keystore, PASSWORD).isPresent());
+		assertEquals(List.of(), temporaryFiles());
+	}
+
+	@Test
+	void invalidatesTheCacheWhenTheKeystoreChanges() throws Exception {
+		Path keystore = Files.write(tempDir.resolve("trust.jks"), new byte[]{1, 2, 3, 4});
+		EntryMetadataCache cache = new EntryMetadataCache(tempDir.resolve("cache"), 1 << 20);
+		cache.store(keystore, PASSWORD, List.of(entry("root", "CN=Root", false)));
+		FileTime modified = Files.getLastModifiedTime(keystore);
+
+		// Same size and modification time, different content
+		Files.write(keystore, new byte[]{1, 2, 3, 5});
+		Files.setLastModifiedTime(keystore, modified);
+		assertTrue(cache.lookup(keystore, PASSWORD).isEmpty());
+		assertEquals(0, cacheFiles());
+
+		cache.store(keystore, PASSWORD, List.of(entry("root", "CN=Root", false)));
+		assertEquals(1, cacheFiles());
+		Files.write(keystore, new byte[]{1, 2, 3, 5, 6});
+		assertTrue(cache.lookup(keystore, PASSWORD).isEmpty());
+		assertEquals(0, cacheFiles());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedFilesPastTheSizeLimit() throws Exception {
+		Path first = Files.write(tempDir.resolve("first.jks"), new byte[]{1});
+		Path second = Files.write(tempDir.resolve("second.jks"), new byte[]{2});
+		Path cacheDirectory = tempDir.resolve("cache");
+		EntryMetadataCache unlimited = new EntryMetadataCache(cacheDirectory, Long.MAX_VALUE);
+		unlimited.store(first, PASSWORD, List.of(entry("root", "CN=Root", false)));
+		long fileSize;
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			Path file = files.findFirst().orElseThrow();
+			fileSize = Files.size(file);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+		}
+
+		new EntryMetadataCache(cacheDirectory, fileSize).store(second, PASSWORD, List.of(entry("root", "CN=Root", false)));
+
+		assertTrue(unlimited.lookup(first, PASSWORD).isEmpty());
+		assertTrue(unlimited.lookup(second, PASSWORD).isPresent());
+	}
+
+	private long cacheFiles() throws Exception {
+		try (Stream<Path> files = Files.list(tempDir.resolve("cache"))) {
+			return files.filter(file -> file.toString().endsWith(".kwc")).count();
+		}
+	}
+
+	private List<Path> temporaryFiles() throws Exception {
+		try (Stream<Path> files = Files.list(tempDir.resolve("cache"))) {
+			return files.filter(file -> file.toString().endsWith(".tmp")).toList();
+		}
+	}
+
+	private static KeystoreEntry entry(String alias, String issuer, boolean keyEntry) {
+		return KeystoreEntry.builder()
+				.alias(alias)
+				.issuer(issuer)
+				.subject("CN=" + alias)
+				.startDate(1_000L)
+				.endDate(2_000L)
+				.keyEntry(keyEntry)
+				.publicKey("EC 256 bits")
+				.build();
+	}
+}
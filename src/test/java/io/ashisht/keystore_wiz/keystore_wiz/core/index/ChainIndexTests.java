@@ -0,0 +1,44 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainIndexTests {
+
+	@Test
+	void resolvesChainsThroughIssuersInTheKeystore() throws Exception {
+		ChainIndex index = new ChainIndex();
+		index.add("web-leaf", TestCertificates.load("leaf.pem"));
+
+		ChainIndex.Chain orphaned = index.chainOf("web-leaf");
+		assertEquals(ChainIndex.Status.ORPHANED, orphaned.status());
+		assertEquals(List.of("web-leaf"), orphaned.aliases());
+
+		index.add("ca-root", TestCertificates.load("root.pem"));
+		assertNull(index.peek("web-leaf"));
+		ChainIndex.Chain complete = index.chainOf("web-leaf");
+		assertEquals(ChainIndex.Status.COMPLETE, complete.status());
+		assertEquals(List.of("web-leaf", "ca-root"), complete.aliases());
+		assertSame(complete, index.peek("web-leaf"));
+		assertNull(index.chainOf("missing"));
+	}
+
+	@Test
+	void resolvesChainsAgainWhenAnIssuerChanges() throws Exception {
+		ChainIndex index = new ChainIndex();
+		index.add("ca-root", TestCertificates.load("root.pem"));
+		index.add("web-leaf", TestCertificates.load("leaf.pem"));
+		assertEquals(ChainIndex.Status.COMPLETE, index.chainOf("web-leaf").status());
+
+		// The leaf is not self-signed, so storing it under the root alias breaks the chain
+		index.add("ca-root", TestCertificates.load("leaf.pem"));
+		assertNull(index.peek("web-leaf"));
+		assertEquals(ChainIndex.Status.ORPHANED, index.chainOf("web-leaf").status());
+		index.remove("ca-root");
+		assertNull(index.chainOf("ca-root"));
+	}
+}
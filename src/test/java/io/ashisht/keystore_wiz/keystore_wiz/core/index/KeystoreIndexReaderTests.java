@@ -0,0 +1,102 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import io.ashisht.keystore_wiz.keystore_wiz.core.metrics.OperationMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeystoreIndexReaderTests {
+
+	private static final char[] PASSWORD = "changeit".toCharArray();
+
+	private final OperationMetrics metrics = new OperationMetrics(16);
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void indexesJksCertificateEntries() throws Exception {
+		Path path = writeKeystore("JKS");
+
+		IndexedKeystore index = KeystoreIndexReader.open(path, PASSWORD, metrics);
+
+		assertEquals(2, index.size());
+		assertTrue(index.isCertificateEntry("Root"));
+		assertEquals(TestCertificates.load("root.pem"), index.getCertificate("root"));
+		assertEquals(TestCertificates.load("leaf.pem"), index.getCertificate("leaf"));
+		assertNull(index.getCertificate("missing"));
+	}
+
+	@Test
+	void rejectsWrongJksPassword() throws Exception {
+		Path path = writeKeystore("JKS");
+
+		assertThrows(KeyStoreException.class, () -> KeystoreIndexReader.open(path, "wrong".toCharArray(), metrics));
+	}
+
+	@Test
+	void indexesUnencryptedPkcs12AndVerifiesItsMac() throws Exception {
+		Path path = writeUnencryptedPkcs12();
+
+		IndexedKeystore index = KeystoreIndexReader.open(path, PASSWORD, metrics);
+
+		assertEquals(2, index.size());
+		assertEquals(TestCertificates.load("root.pem"), index.getCertificate("root"));
+		assertThrows(KeyStoreException.class, () -> KeystoreIndexReader.open(path, "wrong".toCharArray(), metrics));
+	}
+
+	@Test
+	void keepsReadingCertificatesAfterTheFileIsTruncated() throws Exception {
+		Path path = writeKeystore("JKS");
+		IndexedKeystore index = KeystoreIndexReader.open(path, PASSWORD, metrics);
+
+		try (var channel = Files.newByteChannel(path, StandardOpenOption.WRITE)) {
+			channel.truncate(16);
+		}
+
+		assertEquals(TestCertificates.load("leaf.pem"), index.getCertificate("leaf"));
+	}
+
+	@Test
+	void rejectsEncryptedPkcs12() throws Exception {
+		Path path = writeKeystore("PKCS12");
+
+		assertThrows(KeyStoreException.class, () -> KeystoreIndexReader.open(path, PASSWORD, metrics));
+	}
+
+	private Path writeKeystore(String type) throws Exception {
+		KeyStore keystore = KeyStore.getInstance(type);
+		keystore.load(null, PASSWORD);
+		keystore.setCertificateEntry("root", TestCertificates.load("root.pem"));
+		keystore.setCertificateEntry("leaf", TestCertificates.load("leaf.pem"));
+		Path path = tempDir.resolve("test." + type.toLowerCase());
+		try (OutputStream out = Files.newOutputStream(path)) {
+			keystore.store(out, PASSWORD);
+		}
+		return path;
+	}
+
+	private Path writeUnencryptedPkcs12() throws Exception {
+		String previous = System.getProperty("keystore.pkcs12.certProtectionAlgorithm");
+		System.setProperty("keystore.pkcs12.certProtectionAlgorithm", "NONE");
+		try {
+			return writeKeystore("PKCS12");
+		} finally {
+			if (previous == null) {
+				System.clearProperty("keystore.pkcs12.certProtectionAlgorithm");
+			} else {
+				System.setProperty("keystore.pkcs12.certProtectionAlgorithm", previous);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.index;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTests {
+
+	@Test
+	void matchesWordPrefixesOfAliasDnAndSans() throws Exception {
+		SearchIndex index = new SearchIndex();
+		index.add("ca-root", TestCertificates.load("root.pem"));
+		index.add("web-leaf", TestCertificates.load("leaf.pem"));
+
+		assertNull(index.search("  "));
+		assertMatches(index.search("web"), false, true);
+		assertMatches(index.search("www.exa"), false, true);
+		assertMatches(index.search("keystore wiz"), true, true);
+		assertMatches(index.search("ca root"), true, false);
+		assertMatches(index.search("missing"), false, false);
+	}
+
+	@Test
+	void matchesSerialNumbersWithOrWithoutLeadingZeros() throws Exception {
+		SearchIndex index = new SearchIndex();
+		index.add("ca-root", TestCertificates.load("root.pem"));
+		index.add("web-leaf", TestCertificates.load("leaf.pem"));
+
+		assertMatches(index.search("13ab5ad1"), false, true);
+		assertMatches(index.search("0013AB5AD1AA7A3A7A"), false, true);
+		assertMatches(index.search("04b1d"), true, false);
+	}
+
+	@Test
+	void forgetsRemovedAndReplacedEntries() throws Exception {
+		SearchIndex index = new SearchIndex();
+		index.add("ca-root", TestCertificates.load("root.pem"));
+		index.add("web-leaf", TestCertificates.load("leaf.pem"));
+
+		assertMatches(index.search("www"), false, true);
+		index.add("web-leaf", TestCertificates.load("root.pem"));
+		assertMatches(index.search("www"), false, false);
+		index.remove("ca-root");
+		assertMatches(index.search("keystore"), false, true);
+	}
+
+	private static void assertMatches(Predicate<String> matches, boolean root, boolean leaf) {
+		assertEquals(root, matches.test("ca-root"));
+		assertEquals(leaf, matches.test("web-leaf"));
+	}
+}
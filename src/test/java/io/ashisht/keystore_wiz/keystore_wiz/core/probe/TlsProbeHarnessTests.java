@@ -0,0 +1,42 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.probe;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TlsProbeHarnessTests {
+
+	@Test
+	void handshakesWithTheJvmClientForEveryCertificate() throws Exception {
+		Map<String, X509Certificate> certificates = new LinkedHashMap<>();
+		certificates.put("ca-root", TestCertificates.load("root.pem"));
+		certificates.put("web-leaf", TestCertificates.load("leaf.pem"));
+
+		List<ProbeResult> results = new TlsProbeHarness(3, 2, "", "").probe(certificates);
+
+		assertEquals(List.of("ca-root", "web-leaf"), results.stream().map(ProbeResult::alias).toList());
+		for (ProbeResult result : results) {
+			assertEquals("jvm", result.runtime());
+			assertEquals(ProbeResult.Status.PASSED, result.status(), result.errors().toString());
+			assertEquals(3, result.handshakes());
+			assertTrue(result.latency().p50() <= result.latency().p99());
+		}
+	}
+
+	@Test
+	void skipsRuntimesThatAreNotInstalled() throws Exception {
+		List<ProbeResult> results = new TlsProbeHarness(1, 1, "missing-python-for-tests", "")
+				.probe(Map.of("ca-root", TestCertificates.load("root.pem")));
+
+		assertEquals(2, results.size());
+		assertEquals(ProbeResult.Status.PASSED, results.get(0).status());
+		assertEquals("python", results.get(1).runtime());
+		assertEquals(ProbeResult.Status.SKIPPED, results.get(1).status());
+	}
+}
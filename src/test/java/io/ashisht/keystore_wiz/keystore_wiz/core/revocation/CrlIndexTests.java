@@ -0,0 +1,131 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.revocation;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrlIndexTests {
+
+	@Test
+	void readsTheRevokedSerialsOfACrl() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		byte[] crl = crl(root, List.of(
+				new byte[]{0x01},
+				new byte[]{0x00, (byte) 0xFF},
+				new byte[]{(byte) 0xFB},
+				new byte[]{0x00, 0x00, 0x07}, // not minimal, as some encoders write it
+				new byte[]{0x01}, // listed twice
+				new BigInteger("7fffffffffffffffffffffffffffffffffffffff", 16).toByteArray()));
+
+		CrlIndex index = CrlReader.read(ByteBuffer.wrap(crl), "test.crl", subject -> List.of(root));
+		assertEquals(5, index.size());
+		assertEquals(root.getSubjectX500Principal(), index.issuer());
+		assertEquals(Instant.parse("2025-01-01T00:00:00Z"), index.thisUpdate());
+		assertEquals(Instant.parse("2125-01-01T00:00:00Z"), index.nextUpdate());
+		assertFalse(index.isStale(Instant.parse("2030-01-01T00:00:00Z")));
+		// The signature is made up, so the root does not verify it
+		assertNull(index.verifiedBy());
+
+		assertTrue(index.isRevoked(BigInteger.ONE));
+		assertTrue(index.isRevoked(BigInteger.valueOf(255)));
+		assertTrue(index.isRevoked(BigInteger.valueOf(-5)));
+		assertTrue(index.isRevoked(BigInteger.valueOf(7)));
+		assertTrue(index.isRevoked(new BigInteger("7fffffffffffffffffffffffffffffffffffffff", 16)));
+		assertFalse(index.isRevoked(BigInteger.TWO));
+		assertFalse(index.isRevoked(BigInteger.valueOf(-1)));
+		assertFalse(index.isRevoked(BigInteger.valueOf(0xFF00)));
+		assertFalse(index.isRevoked(BigInteger.ONE.shiftLeft(400)));
+	}
+
+	@Test
+	void findsEverySerialOfALargeCrlAcrossWriteAndRead(@TempDir Path directory) throws Exception {
+		Random random = new Random(42);
+		List<BigInteger> revoked = new ArrayList<>();
+		List<byte[]> encoded = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			BigInteger serial = new BigInteger(1 + random.nextInt(159), random);
+			revoked.add(serial);
+			encoded.add(serial.toByteArray());
+		}
+		byte[] crl = crl(TestCertificates.load("root.pem"), encoded);
+		Path file = directory.resolve("large.crl");
+		Files.write(file, crl);
+
+		CrlIndex read = CrlReader.read(file, file.toString(), subject -> List.of());
+		read.write(directory.resolve("large.kwr"));
+		CrlIndex restored = CrlIndex.read(directory.resolve("large.kwr"));
+		assertEquals(read.size(), restored.size());
+		assertEquals(read.issuerKey(), restored.issuerKey());
+		assertEquals(read.thisUpdate(), restored.thisUpdate());
+		assertEquals(file.toString(), restored.source());
+		for (BigInteger serial : revoked) {
+			assertTrue(restored.isRevoked(serial), serial.toString(16));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 20_000; i++) {
+			BigInteger serial = new BigInteger(160, random).setBit(160);
+			if (restored.isRevoked(serial)) {
+				falsePositives++;
+			}
+		}
+		assertEquals(0, falsePositives);
+
+		Files.writeString(directory.resolve("broken.kwr"), "not an index", StandardCharsets.US_ASCII);
+		assertThrows(IOException.class, () -> CrlIndex.read(directory.resolve("broken.kwr")));
+	}
+
+	/**
+	 * Encodes a version 2 CRL of the given serials, issued by the subject of a certificate, with a
+	 * made-up signature.
+	 */
+	private static byte[] crl(X509Certificate issuer, List<byte[]> serials) {
+		ByteArrayOutputStream revoked = new ByteArrayOutputStream();
+		for (byte[] serial : serials) {
+			revoked.writeBytes(der(0x30, der(0x02, serial), time(0x17, "250101000000Z")));
+		}
+		byte[] algorithm = der(0x30, der(0x06, new byte[]{0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01,
+				0x01, 0x0B}), der(0x05));
+		byte[] tbs = der(0x30, der(0x02, new byte[]{0x01}), algorithm, issuer.getSubjectX500Principal().getEncoded(),
+				time(0x17, "250101000000Z"), time(0x18, "21250101000000Z"), der(0x30, revoked.toByteArray()));
+		return der(0x30, tbs, algorithm, der(0x03, new byte[]{0x00, 0x01, 0x02, 0x03}));
+	}
+
+	private static byte[] time(int tag, String value) {
+		return der(tag, value.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static byte[] der(int tag, byte[]... parts) {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		for (byte[] part : parts) {
+			content.writeBytes(part);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(tag);
+		int length = content.size();
+		if (length < 0x80) {
+			out.write(length);
+		} else {
+			byte[] octets = BigInteger.valueOf(length).toByteArray();
+			int skip = octets[0] == 0 ? 1 : 0;
+			out.write(0x80 | (octets.length - skip));
+			out.write(octets, skip, octets.length - skip);
+		}
+		out.writeBytes(content.toByteArray());
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,59 @@
+package io.ashisht.keystore_wiz.keystore_wiz.core.workspace;
+
+import io.ashisht.keystore_wiz.keystore_wiz.core.TestCertificates;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeystoreDiffTests {
+
+	@Test
+	void reportsDifferencesByAliasAndFingerprint() {
+		Map<String, String> target = Map.of("same", "aa", "changed", "bb", "removed", "cc", "old-name", "dd");
+		Map<String, String> source = Map.of("same", "aa", "changed", "ee", "added", "ff", "new-name", "dd");
+
+		KeystoreDiff diff = KeystoreDiff.compute(target, source);
+
+		assertEquals(List.of(
+				new KeystoreDiff.Difference(KeystoreDiff.Kind.ADDED, "added", null, "ff", null),
+				new KeystoreDiff.Difference(KeystoreDiff.Kind.CHANGED, "changed", null, "ee", "bb"),
+				new KeystoreDiff.Difference(KeystoreDiff.Kind.MOVED, "new-name", "old-name", "dd", "dd"),
+				new KeystoreDiff.Difference(KeystoreDiff.Kind.REMOVED, "removed", null, null, "cc")),
+				diff.differences());
+		assertTrue(KeystoreDiff.compute(source, source).differences().isEmpty());
+	}
+
+	@Test
+	void reportsCertificatesUnderTheAliasOfAKeyEntry() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		WorkspaceKeystore source = new WorkspaceKeystore(Path.of("staging.jks"),
+				Map.of("server", root, "same-key", root), Map.of("server", "aa", "same-key", "bb"));
+
+		KeystoreDiff diff = KeystoreDiff.compute(Map.of(), Map.of("server", "cc", "same-key", "bb"), source.fingerprints());
+
+		assertEquals(List.of(new KeystoreDiff.Difference(KeystoreDiff.Kind.KEY_ENTRY, "server", null, "aa", "cc")),
+				diff.differences());
+		assertEquals(List.of("server"), KeystoreDiff.keyEntriesReplacedBy(diff.differences()));
+		assertEquals(Map.of("server", root), KeystoreDiff.merge(diff.differences(), source).additions());
+	}
+
+	@Test
+	void mergesSelectedDifferencesFromTheSource() throws Exception {
+		X509Certificate root = TestCertificates.load("root.pem");
+		X509Certificate leaf = TestCertificates.load("leaf.pem");
+		WorkspaceKeystore source = new WorkspaceKeystore(Path.of("staging.jks"),
+				Map.of("ca-root", root, "web-leaf", leaf), Map.of("ca-root", "aa", "web-leaf", "bb"));
+		KeystoreDiff diff = KeystoreDiff.compute(Map.of("root", "aa", "stale", "cc"), source.fingerprints());
+
+		KeystoreDiff.Merge merge = KeystoreDiff.merge(diff.differences(), source);
+
+		assertEquals(Map.of("ca-root", root, "web-leaf", leaf), merge.additions());
+		assertEquals(Set.of("root", "stale"), merge.removals());
+	}
+}